@@ -51,6 +51,14 @@ public class ByteArrayByteIterator extends ByteIterator {
     return ret;
   }
 
+  @Override
+  public int nextBuf(byte[] buf, int bufOff) {
+    int n = Math.min(buf.length - bufOff, len - off);
+    System.arraycopy(str, off, buf, bufOff, n);
+    off += n;
+    return bufOff + n;
+  }
+
   @Override
   public long bytesLeft() {
     return len - off;
@@ -17,6 +17,7 @@
 
 package site.ycsb;
 
+import site.ycsb.measurements.Availability;
 import site.ycsb.measurements.Measurements;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 import site.ycsb.measurements.exporter.TextMeasurementsExporter;
@@ -134,6 +135,16 @@ public final class Client {
    */
   public static final String MAX_EXECUTION_TIME = "maxexecutiontime";
 
+  /**
+   * A shell command that injects a fault, such as killing a server, during the run.
+   */
+  public static final String FAULT_COMMAND_PROPERTY = "fault.command";
+
+  /**
+   * The time (in seconds) into the run at which the fault command is run.
+   */
+  public static final String FAULT_OFFSET_PROPERTY = "fault.offset";
+
   /**
    * Whether or not this is the transaction phase (run) or not (load).
    */
@@ -149,6 +160,12 @@ public final class Client {
    */
   public static final String LABEL_PROPERTY = "label";
 
+  /**
+   * Seed of the random streams. When set, every client thread draws from its own deterministic
+   * stream, so runs with the same seed and thread count issue the same requests per thread.
+   */
+  public static final String SEED_PROPERTY = "seed";
+
   /**
    * An optional thread used to track progress and measure JVM stats.
    */
@@ -184,6 +201,11 @@ public final class Client {
     System.out.println("          values in the propertyfile");
     System.out.println("  -s:  show status during run (default: no status)");
     System.out.println("  -l label:  use label for status (e.g. to label one experiment out of a whole batch)");
+    System.out.println("  -p seed=n:  give every thread a deterministic random stream derived from n, so");
+    System.out.println("          runs with the same seed and threadcount issue the same requests");
+    System.out.println("  -p availability.track=true:  record unavailability windows and a per-second");
+    System.out.println("          availability timeline; -p fault.command=cmd -p fault.offset=n runs cmd");
+    System.out.println("          n seconds into the run");
     System.out.println("");
     System.out.println("Required properties:");
     System.out.println("  " + WORKLOAD_PROPERTY + ": the name of the workload class to use (e.g. " +
@@ -273,6 +295,19 @@ public final class Client {
     }
   }
 
+  /**
+   * Starts the thread that runs the fault command, if there is one.
+   */
+  private static Thread startFaultThread(Properties props) {
+    String command = props.getProperty(FAULT_COMMAND_PROPERTY);
+    if (command == null) {
+      return null;
+    }
+    Thread fault = new FaultThread(command, Long.parseLong(props.getProperty(FAULT_OFFSET_PROPERTY, "0")));
+    fault.start();
+    return fault;
+  }
+
   @SuppressWarnings("unchecked")
   public static void main(String[] args) {
     Properties props = parseArguments(args);
@@ -298,11 +333,19 @@ public final class Client {
     warningthread.start();
 
     Measurements.setProperties(props);
+    Availability.setProperties(props);
 
     Workload workload = getWorkload(props);
 
     final Tracer tracer = getTracer(props, workload);
 
+    // The workload is initialized on this thread, so it gets the first stream.
+    SplittableRandom seeds = null;
+    if (props.getProperty(SEED_PROPERTY) != null) {
+      seeds = new SplittableRandom(Long.parseLong(props.getProperty(SEED_PROPERTY)));
+      Utils.setThreadRandom(seeds.split());
+    }
+
     initWorkload(props, warningthread, workload, tracer);
 
     System.err.println("Starting test.");
@@ -310,6 +353,11 @@ public final class Client {
 
     final List<ClientThread> clients = initDb(dbname, props, threadcount, targetperthreadperms,
         workload, tracer, completeLatch);
+    if (seeds != null) {
+      for (ClientThread client : clients) {
+        client.setRandom(seeds.split());
+      }
+    }
 
     if (status) {
       boolean standardstatus = false;
@@ -325,6 +373,7 @@ public final class Client {
     }
 
     Thread terminator = null;
+    Thread fault = null;
     long st;
     long en;
     int opsDone;
@@ -337,11 +386,14 @@ public final class Client {
       }
 
       st = System.currentTimeMillis();
+      Availability.getAvailability().start();
 
       for (Thread t : threads.keySet()) {
         t.start();
       }
 
+      fault = startFaultThread(props);
+
       if (maxExecutionTime > 0) {
         terminator = new TerminatorThread(maxExecutionTime, threads.keySet(), workload);
         terminator.start();
@@ -368,6 +420,10 @@ public final class Client {
           terminator.interrupt();
         }
 
+        if (fault != null && fault.isAlive()) {
+          fault.interrupt();
+        }
+
         if (status) {
           // wake up status thread if it's asleep
           statusthread.interrupt();
@@ -390,6 +446,7 @@ public final class Client {
     try {
       try (final TraceScope span = tracer.newScope(CLIENT_EXPORT_MEASUREMENTS_SPAN)) {
         exportMeasurements(props, opsDone, en - st);
+        Availability.getAvailability().export();
       }
     } catch (IOException e) {
       System.err.println("Could not export measurements, error: " + e.getMessage());
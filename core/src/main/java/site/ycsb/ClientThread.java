@@ -19,8 +19,8 @@ package site.ycsb;
 
 import site.ycsb.measurements.Measurements;
 import java.util.Properties;
+import java.util.SplittableRandom;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -43,6 +43,7 @@ public class ClientThread implements Runnable {
   private Object workloadstate;
   private Properties props;
   private long targetOpsTickNs;
+  private SplittableRandom random;
   private final Measurements measurements;
 
   /**
@@ -81,12 +82,20 @@ public class ClientThread implements Runnable {
     threadcount = threadCount;
   }
 
+  /**
+   * Sets the random stream this thread draws from, making its requests reproducible.
+   */
+  public void setRandom(final SplittableRandom stream) {
+    random = stream;
+  }
+
   public int getOpsDone() {
     return opsdone;
   }
 
   @Override
   public void run() {
+    Utils.setThreadRandom(random);
     try {
       db.init();
     } catch (DBException e) {
@@ -110,7 +119,7 @@ public class ClientThread implements Runnable {
     // GH issue 4 - throws exception if _target>1 because random.nextInt argument must be >0
     // and the sleep() doesn't make sense for granularities < 1 ms anyway
     if ((targetOpsPerMs > 0) && (targetOpsPerMs <= 1.0)) {
-      long randomMinorDelay = ThreadLocalRandom.current().nextInt((int) targetOpsTickNs);
+      long randomMinorDelay = Utils.random().nextInt((int) targetOpsTickNs);
       sleepUntil(System.nanoTime() + randomMinorDelay);
     }
     try {
@@ -23,6 +23,8 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
 
+import site.ycsb.workloads.TimeSeriesWorkload;
+
 /**
  * A layer for accessing a database to be benchmarked. Each thread in the client
  * will be given its own instance of whatever DB class is to be used in the test.
@@ -41,6 +43,12 @@ import java.util.Vector;
  * to match the database's default semantics, or the semantics of your 
  * target application.  For the sake of comparison between experiments we also 
  * recommend you explain the semantics you chose when presenting performance results.
+ *
+ * The maps, sets, vectors and ByteIterators passed to these methods belong to the
+ * caller. Workloads may clear and reuse them for the next operation of the same
+ * thread as soon as a call returns (see CoreWorkload's reuserecordbuffers), so
+ * implementations must consume or copy what they need before returning and must not
+ * keep references to them.
  */
 public abstract class DB {
   /**
@@ -132,4 +140,101 @@ public abstract class DB {
    * @return The result of the operation.
    */
   public abstract Status delete(String table, String key);
+
+  /**
+   * Run an optimistic multi-key transaction. The records of readKeys and of writes are read, and then the
+   * field/value pairs in writes are written into their records as in update(), atomically and only if none of
+   * the records read was modified in between. Databases without multi-key transactions need not implement this.
+   *
+   * @param table The name of the table
+   * @param readKeys The record keys that are only read.
+   * @param writes The field/value pairs to update, by record key.
+   * @return OK if the transaction committed, CONFLICT if it was aborted by a concurrent modification,
+   * or another status if it failed.
+   */
+  public Status transaction(String table, Set<String> readKeys, Map<String, Map<String, ByteIterator>> writes) {
+    return Status.NOT_IMPLEMENTED;
+  }
+
+  /**
+   * The number of replicas readReplica() can read from. Databases that cannot direct reads at a particular
+   * replica return 0.
+   *
+   * @return The number of replicas, or 0.
+   */
+  public int replicaCount() {
+    return 0;
+  }
+
+  /**
+   * Read a record from one particular replica, without failing over to another one or redirecting to the
+   * leader, so the result shows how far behind that replica is.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to read.
+   * @param replica The replica to read from, between 0 and replicaCount() - 1.
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A HashMap of field/value pairs for the result
+   * @return The result of the operation.
+   */
+  public Status readReplica(String table, String key, int replica, Set<String> fields,
+                            Map<String, ByteIterator> result) {
+    return Status.NOT_IMPLEMENTED;
+  }
+
+  /**
+   * Register a listener for changes of a set of records. The listener stays registered, and is told
+   * about every change the database reports, until unwatch() or cleanup(). Databases that notify about
+   * changes one at a time may coalesce several changes into one notification carrying the latest value.
+   * Databases without change notifications need not implement this.
+   *
+   * @param table The name of the table
+   * @param keys The record keys of the records to watch.
+   * @param listener The listener to notify.
+   * @return The result of the operation.
+   */
+  public Status watch(String table, Set<String> keys, WatchListener listener) {
+    return Status.NOT_IMPLEMENTED;
+  }
+
+  /**
+   * Stop notifying a listener registered with watch().
+   *
+   * @param table The name of the table
+   * @param listener The listener to stop notifying.
+   * @return The result of the operation.
+   */
+  public Status unwatch(String table, WatchListener listener) {
+    return Status.NOT_IMPLEMENTED;
+  }
+
+  /**
+   * Insert a batch of time series data points. Databases with a native batch write should override this; by
+   * default every point is inserted with insert(), encoded as described in {@link TimeSeriesWorkload}.
+   *
+   * @param table The name of the table
+   * @param batch The data points to insert.
+   * @return The result of the operation, that of the first point that failed if any did.
+   */
+  public Status insertBatch(String table, TimeSeriesBatch batch) {
+    String timestampKey = properties.getProperty(TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY,
+        TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY_DEFAULT);
+    String valueKey = properties.getProperty(TimeSeriesWorkload.VALUE_KEY_PROPERTY,
+        TimeSeriesWorkload.VALUE_KEY_PROPERTY_DEFAULT);
+    for (int point = 0; point < batch.size(); point++) {
+      Map<String, ByteIterator> values = new HashMap<>();
+      for (int tag = 0; tag < batch.tagCount(); tag++) {
+        values.put(batch.tagKey(tag), new StringByteIterator(batch.tagValue(point, tag)));
+      }
+      values.put(timestampKey, new NumericByteIterator(batch.timestamp(point)));
+      values.put(valueKey, batch.isFloatingPoint(point)
+          ? new NumericByteIterator(batch.doubleValue(point))
+          : new NumericByteIterator(batch.longValue(point)));
+      Status status = insert(table, batch.key(point), values);
+      if (status == null || !status.isOk()) {
+        return status;
+      }
+    }
+    return Status.OK;
+  }
 }
@@ -19,6 +19,7 @@ package site.ycsb;
 
 import java.util.Map;
 
+import site.ycsb.measurements.Availability;
 import site.ycsb.measurements.Measurements;
 import org.apache.htrace.core.TraceScope;
 import org.apache.htrace.core.Tracer;
@@ -33,6 +34,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class DBWrapper extends DB {
   private final DB db;
   private final Measurements measurements;
+  private final Availability availability;
   private final Tracer tracer;
 
   private boolean reportLatencyForEachError = false;
@@ -52,10 +54,15 @@ public class DBWrapper extends DB {
   private final String scopeStringRead;
   private final String scopeStringScan;
   private final String scopeStringUpdate;
+  private final String scopeStringTransaction;
+  private final String scopeStringReadReplica;
+  private final String scopeStringWatch;
+  private final String scopeStringInsertBatch;
 
   public DBWrapper(final DB db, final Tracer tracer) {
     this.db = db;
     measurements = Measurements.getMeasurements();
+    availability = Availability.getAvailability();
     this.tracer = tracer;
     final String simple = db.getClass().getSimpleName();
     scopeStringCleanup = simple + "#cleanup";
@@ -65,6 +72,10 @@ public class DBWrapper extends DB {
     scopeStringRead = simple + "#read";
     scopeStringScan = simple + "#scan";
     scopeStringUpdate = simple + "#update";
+    scopeStringTransaction = simple + "#transaction";
+    scopeStringReadReplica = simple + "#readReplica";
+    scopeStringWatch = simple + "#watch";
+    scopeStringInsertBatch = simple + "#insertBatch";
   }
 
   /**
@@ -185,6 +196,9 @@ public class DBWrapper extends DB {
         (int) ((endTimeNanos - startTimeNanos) / 1000));
     measurements.measureIntended(measurementName,
         (int) ((endTimeNanos - intendedStartTimeNanos) / 1000));
+    if (!"CLEANUP".equals(op)) {
+      availability.operation(result, startTimeNanos, endTimeNanos);
+    }
   }
 
   /**
@@ -250,4 +264,104 @@ public class DBWrapper extends DB {
       return res;
     }
   }
+
+  /**
+   * Run an optimistic multi-key transaction. Every attempt is measured as TXN.
+   *
+   * @param table The name of the table
+   * @param readKeys The record keys that are only read.
+   * @param writes The field/value pairs to update, by record key.
+   * @return The result of the operation.
+   */
+  public Status transaction(String table, Set<String> readKeys, Map<String, Map<String, ByteIterator>> writes) {
+    try (final TraceScope span = tracer.newScope(scopeStringTransaction)) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      Status res = db.transaction(table, readKeys, writes);
+      long en = System.nanoTime();
+      measure("TXN", res, ist, st, en);
+      measurements.reportStatus("TXN", res);
+      return res;
+    }
+  }
+
+  /**
+   * The number of replicas readReplica() can read from.
+   */
+  public int replicaCount() {
+    return db.replicaCount();
+  }
+
+  /**
+   * Read a record from one particular replica, measured as READ-REPLICA.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to read.
+   * @param replica The replica to read from.
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A HashMap of field/value pairs for the result
+   * @return The result of the operation.
+   */
+  public Status readReplica(String table, String key, int replica, Set<String> fields,
+                            Map<String, ByteIterator> result) {
+    try (final TraceScope span = tracer.newScope(scopeStringReadReplica)) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      Status res = db.readReplica(table, key, replica, fields, result);
+      long en = System.nanoTime();
+      measure("READ-REPLICA", res, ist, st, en);
+      measurements.reportStatus("READ-REPLICA", res);
+      return res;
+    }
+  }
+
+  /**
+   * Register a listener for changes of a set of records, measuring the registration as WATCH.
+   *
+   * @param table The name of the table
+   * @param keys The record keys of the records to watch.
+   * @param listener The listener to notify.
+   * @return The result of the operation.
+   */
+  public Status watch(String table, Set<String> keys, WatchListener listener) {
+    try (final TraceScope span = tracer.newScope(scopeStringWatch)) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      Status res = db.watch(table, keys, listener);
+      long en = System.nanoTime();
+      measure("WATCH", res, ist, st, en);
+      measurements.reportStatus("WATCH", res);
+      return res;
+    }
+  }
+
+  /**
+   * Stop notifying a listener registered with watch().
+   *
+   * @param table The name of the table
+   * @param listener The listener to stop notifying.
+   * @return The result of the operation.
+   */
+  public Status unwatch(String table, WatchListener listener) {
+    return db.unwatch(table, listener);
+  }
+
+  /**
+   * Insert a batch of time series data points, measuring the batch as INSERT-BATCH.
+   *
+   * @param table The name of the table
+   * @param batch The data points to insert.
+   * @return The result of the operation.
+   */
+  public Status insertBatch(String table, TimeSeriesBatch batch) {
+    try (final TraceScope span = tracer.newScope(scopeStringInsertBatch)) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      Status res = db.insertBatch(table, batch);
+      long en = System.nanoTime();
+      measure("INSERT-BATCH", res, ist, st, en);
+      measurements.reportStatus("INSERT-BATCH", res);
+      return res;
+    }
+  }
 }
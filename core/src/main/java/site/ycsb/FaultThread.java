@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.IOException;
+
+import site.ycsb.measurements.Availability;
+
+/**
+ * A thread that waits for the specified offset into the run and then runs a
+ * shell command that injects a fault, such as killing the leader of a
+ * replicated database. The time of the fault is marked in the availability
+ * timeline.
+ *
+ * The offset passed is assumed to be in seconds.
+ */
+public class FaultThread extends Thread {
+
+  private final String command;
+  private final long offset;
+
+  public FaultThread(String command, long offset) {
+    this.command = command;
+    this.offset = offset;
+    System.err.println("Fault command scheduled at " + offset + " secs: " + command);
+  }
+
+  public void run() {
+    try {
+      Thread.sleep(offset * 1000);
+    } catch (InterruptedException e) {
+      System.err.println("Run ended before the fault was injected.");
+      return;
+    }
+    System.err.println("Injecting fault: " + command);
+    Availability.getAvailability().fault();
+    try {
+      Process process = new ProcessBuilder("sh", "-c", command).inheritIO().start();
+      System.err.println("Fault command exited with " + process.waitFor());
+    } catch (IOException e) {
+      System.err.println("Could not run the fault command: " + e.getMessage());
+    } catch (InterruptedException e) {
+      System.err.println("Run ended while the fault command was running.");
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compact binary encoding of the fields of a record, for bindings that store
+ * a record as a single value. The encoding is a format byte followed by, for
+ * every field, the length of its name, the name in UTF-8, the length of its value
+ * and the value's bytes, with lengths as unsigned varints.
+ * <p>
+ * Values are copied straight from their {@link ByteIterator}s into the buffer
+ * without converting them to strings, and decoded as {@link ByteArrayByteIterator}s
+ * over the encoded buffer, so only the names of the fields skipped are decoded.
+ * </p>
+ */
+public final class FieldCodec {
+
+  /** The first byte of an encoded record. */
+  public static final byte FORMAT = 0x01;
+
+  private FieldCodec() {
+    // not used
+  }
+
+  /**
+   * Encodes the fields of a record, consuming their values.
+   *
+   * @param values The field/value pairs.
+   * @return The encoded record.
+   * @throws IOException If a value is too large to encode.
+   */
+  public static byte[] encode(Map<String, ByteIterator> values) throws IOException {
+    int count = values.size();
+    byte[][] names = new byte[count][];
+    ByteIterator[] iterators = new ByteIterator[count];
+    int[] lengths = new int[count];
+    long size = 1;
+    int i = 0;
+    for (Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+      names[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      iterators[i] = entry.getValue();
+      long length = iterators[i].bytesLeft();
+      if (length > Integer.MAX_VALUE) {
+        throw new IOException("Value of field " + entry.getKey() + " is too large: " + length + " bytes");
+      }
+      lengths[i] = (int) length;
+      size += varintSize(names[i].length) + names[i].length + varintSize(lengths[i]) + lengths[i];
+      i++;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Record is too large: " + size + " bytes");
+    }
+
+    byte[] buf = new byte[(int) size];
+    buf[0] = FORMAT;
+    int pos = 1;
+    for (i = 0; i < count; i++) {
+      pos = putVarint(buf, pos, names[i].length);
+      System.arraycopy(names[i], 0, buf, pos, names[i].length);
+      pos += names[i].length;
+      pos = putVarint(buf, pos, lengths[i]);
+      int end = pos + lengths[i];
+      while (pos < end && iterators[i].hasNext()) {
+        buf[pos++] = iterators[i].nextByte();
+      }
+      if (pos != end) {
+        throw new IOException("Value of field " + new String(names[i], StandardCharsets.UTF_8)
+            + " ended before its length");
+      }
+    }
+    return buf;
+  }
+
+  /**
+   * @return Whether the data is a record in this encoding.
+   */
+  public static boolean isEncoded(byte[] data) {
+    return data.length > 0 && data[0] == FORMAT;
+  }
+
+  /**
+   * Decodes the requested fields of a record. The values returned share the data array.
+   *
+   * @param data The encoded record.
+   * @param fields The fields to decode, or null for all of them.
+   * @param result The map to put the field/value pairs in.
+   * @throws IOException If the data is not a valid record.
+   */
+  public static void decode(byte[] data, Set<String> fields, Map<String, ByteIterator> result) throws IOException {
+    if (!isEncoded(data)) {
+      throw new IOException("Not an encoded record");
+    }
+    int[] pos = {1};
+    while (pos[0] < data.length) {
+      int nameLength = getVarint(data, pos);
+      checkedEnd(data, pos[0], nameLength);
+      String name = new String(data, pos[0], nameLength, StandardCharsets.UTF_8);
+      pos[0] += nameLength;
+      int valueLength = getVarint(data, pos);
+      checkedEnd(data, pos[0], valueLength);
+      if (fields == null || fields.contains(name)) {
+        result.put(name, new ByteArrayByteIterator(data, pos[0], valueLength));
+      }
+      pos[0] += valueLength;
+    }
+  }
+
+  private static void checkedEnd(byte[] data, int pos, int length) throws IOException {
+    if (length < 0 || length > data.length - pos) {
+      throw new IOException("Truncated record");
+    }
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    for (int v = value >>> 7; v != 0; v >>>= 7) {
+      size++;
+    }
+    return size;
+  }
+
+  private static int putVarint(byte[] buf, int pos, int value) {
+    int v = value;
+    while ((v & ~0x7F) != 0) {
+      buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[pos++] = (byte) v;
+    return pos;
+  }
+
+  private static int getVarint(byte[] data, int[] pos) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (pos[0] >= data.length) {
+        throw new IOException("Truncated record");
+      }
+      byte b = data[pos[0]++];
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed length in record");
+  }
+}
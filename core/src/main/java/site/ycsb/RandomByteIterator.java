@@ -16,7 +16,7 @@
  */
 package site.ycsb;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
 
 /**
  *  A ByteIterator that generates a random sequence of bytes.
@@ -32,10 +32,14 @@ public class RandomByteIterator extends ByteIterator {
     return (off + bufOff) < len;
   }
 
-  private void fillBytesImpl(byte[] buffer, int base) {
-    int bytes = ThreadLocalRandom.current().nextInt();
+  private static void fillBytesImpl(byte[] buffer, int base, Random random) {
+    fillBytesImpl(buffer, base, buffer.length, random);
+  }
+
+  private static void fillBytesImpl(byte[] buffer, int base, int end, Random random) {
+    int bytes = random.nextInt();
 
-    switch (buffer.length - base) {
+    switch (end - base) {
     default:
       buffer[base + 5] = (byte) (((bytes >> 25) & 95) + ' ');
     case 5:
@@ -53,9 +57,25 @@ public class RandomByteIterator extends ByteIterator {
     }
   }
 
+  /**
+   * Fills part of a buffer with random printable bytes, the same bytes a
+   * RandomByteIterator of that length returns from the same random stream.
+   *
+   * @param buffer The buffer to fill.
+   * @param off The first byte to fill.
+   * @param len The number of bytes to fill.
+   */
+  public static void fill(byte[] buffer, int off, int len) {
+    final Random random = Utils.random();
+    final int end = off + len;
+    for (int i = off; i < end; i += 6) {
+      fillBytesImpl(buffer, i, end, random);
+    }
+  }
+
   private void fillBytes() {
     if (bufOff == buf.length) {
-      fillBytesImpl(buf, 0);
+      fillBytesImpl(buf, 0, Utils.random());
       bufOff = 0;
       off += buf.length;
     }
@@ -83,9 +103,10 @@ public class RandomByteIterator extends ByteIterator {
     } else {
       ret = buffer.length - bufOffset;
     }
+    final Random random = Utils.random();
     int i;
     for (i = 0; i < ret; i += 6) {
-      fillBytesImpl(buffer, i + bufOffset);
+      fillBytesImpl(buffer, i + bufOffset, random);
     }
     off += ret;
     return ret + bufOffset;
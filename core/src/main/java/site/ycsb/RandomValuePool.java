@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.util.SplittableRandom;
+
+/**
+ * A pregenerated pool of random printable bytes that hands out field values as
+ * slices of the pool. Generating a value costs one random offset and one
+ * {@link ByteArrayByteIterator}, regardless of the value length, so large-value
+ * workloads measure the datastore rather than the client's random number
+ * generator.
+ * <p>
+ * The pool is filled once and is read-only afterwards, so a single instance can
+ * be shared by all client threads. Values longer than the pool fall back to a
+ * {@link RandomByteIterator}.
+ * </p><p>
+ * The pool can optionally be made compressible: with a compressibility of
+ * <i>c</i>, each block of the pool ends with a run of a repeated byte covering a
+ * fraction <i>c</i> of the block, so a block compressor shrinks generated values
+ * to roughly <i>(1 - c)</i> of their size.
+ * </p>
+ */
+public class RandomValuePool {
+  /** Size of the blocks the compressibility ratio is applied to. */
+  private static final int BLOCK_SIZE = 128;
+
+  private final byte[] pool;
+
+  /**
+   * Creates a pool filled from a randomly seeded source.
+   *
+   * @param size The number of bytes in the pool.
+   * @param compressibility The fraction of each block, between 0 and 1, made up of repeated bytes.
+   */
+  public RandomValuePool(int size, double compressibility) {
+    this(size, compressibility, Utils.random().nextLong());
+  }
+
+  /**
+   * Creates a pool filled from a source with the given seed.
+   *
+   * @param size The number of bytes in the pool.
+   * @param compressibility The fraction of each block, between 0 and 1, made up of repeated bytes.
+   * @param seed The seed for the random bytes.
+   */
+  public RandomValuePool(int size, double compressibility, long seed) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Pool size must be positive: " + size);
+    }
+    if (compressibility < 0.0 || compressibility > 1.0) {
+      throw new IllegalArgumentException("Compressibility must be between 0 and 1: " + compressibility);
+    }
+    pool = new byte[size];
+    final SplittableRandom random = new SplittableRandom(seed);
+    final int randomPerBlock = BLOCK_SIZE - (int) (BLOCK_SIZE * compressibility);
+    for (int base = 0; base < size; base += BLOCK_SIZE) {
+      final int end = Math.min(base + BLOCK_SIZE, size);
+      final int randomEnd = Math.min(base + randomPerBlock, end);
+      int i = base;
+      while (i < randomEnd) {
+        // 64 random bits give 10 printable bytes of 6 bits each.
+        long bits = random.nextLong();
+        for (int j = 0; j < 10 && i < randomEnd; j++, i++) {
+          pool[i] = (byte) ((bits & 63) + ' ');
+          bits >>>= 6;
+        }
+      }
+      final byte fill = randomEnd > base ? pool[randomEnd - 1] : (byte) ' ';
+      for (; i < end; i++) {
+        pool[i] = fill;
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes in the pool.
+   */
+  public int size() {
+    return pool.length;
+  }
+
+  /**
+   * Returns a value of the given length starting at a random offset of the pool.
+   *
+   * @param len The number of bytes in the value.
+   * @return An iterator over the value; it must not be modified by the caller.
+   */
+  public ByteIterator next(long len) {
+    if (len > pool.length) {
+      return new RandomByteIterator(len);
+    }
+    final int ilen = (int) len;
+    final int off = Utils.random().nextInt(pool.length - ilen + 1);
+    return new ByteArrayByteIterator(pool, off, ilen);
+  }
+
+  /**
+   * Like {@link #next(long)}, but points a reusable iterator at the value
+   * instead of allocating one.
+   *
+   * @param len The number of bytes in the value.
+   * @param into The iterator to reuse.
+   * @return The reused iterator; it must not be modified by the caller.
+   */
+  public ByteIterator next(long len, ReusableByteIterator into) {
+    if (len > pool.length) {
+      return new RandomByteIterator(len);
+    }
+    final int ilen = (int) len;
+    final int off = Utils.random().nextInt(pool.length - ilen + 1);
+    return into.wrap(pool, off, ilen);
+  }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+/**
+ * A ByteIterator over a slice of a byte array that can be pointed at a new
+ * slice, so a workload thread can hand out the same iterator for every
+ * operation instead of allocating one per value. The same instance is rewrapped
+ * by the next operation, so consumers must not keep it past the call it was
+ * passed to.
+ */
+public class ReusableByteIterator extends ByteIterator {
+  private byte[] str;
+  private int start;
+  private int off;
+  private int end;
+  private byte[] scratch = new byte[0];
+
+  /**
+   * Points the iterator at a slice of a byte array, rewinding it.
+   *
+   * @param s The array; it is not copied.
+   * @param offset The first byte of the slice.
+   * @param len The number of bytes in the slice.
+   * @return This iterator.
+   */
+  public ReusableByteIterator wrap(byte[] s, int offset, int len) {
+    str = s;
+    start = offset;
+    off = offset;
+    end = offset + len;
+    return this;
+  }
+
+  /**
+   * Fills a buffer owned by this iterator with random printable bytes, like
+   * {@link RandomByteIterator} produces, and points the iterator at it.
+   *
+   * @param len The number of bytes.
+   * @return This iterator.
+   */
+  public ReusableByteIterator wrapRandom(int len) {
+    if (scratch.length < len) {
+      scratch = new byte[Math.max(len, 2 * scratch.length)];
+    }
+    RandomByteIterator.fill(scratch, 0, len);
+    return wrap(scratch, 0, len);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return off < end;
+  }
+
+  @Override
+  public byte nextByte() {
+    return str[off++];
+  }
+
+  @Override
+  public int nextBuf(byte[] buf, int bufOff) {
+    int n = Math.min(buf.length - bufOff, end - off);
+    System.arraycopy(str, off, buf, bufOff, n);
+    off += n;
+    return bufOff + n;
+  }
+
+  @Override
+  public long bytesLeft() {
+    return end - off;
+  }
+
+  @Override
+  public void reset() {
+    off = start;
+  }
+
+  @Override
+  public byte[] toArray() {
+    int size = end - off;
+    byte[] bytes = new byte[size];
+    System.arraycopy(str, off, bytes, 0, size);
+    off = end;
+    return bytes;
+  }
+}
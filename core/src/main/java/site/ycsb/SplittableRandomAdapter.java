@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Exposes a {@link SplittableRandom} stream as a {@link Random}, so seeded
+ * streams can stand in for {@link java.util.concurrent.ThreadLocalRandom}.
+ * Every method draws from the stream; the seed state of {@link Random} itself
+ * is never used, so no atomic updates are paid. Like the stream, an adapter
+ * must only be used by one thread.
+ */
+final class SplittableRandomAdapter extends Random {
+  private static final long serialVersionUID = 1L;
+
+  private final SplittableRandom stream;
+
+  SplittableRandomAdapter(SplittableRandom stream) {
+    this.stream = stream;
+  }
+
+  @Override
+  protected int next(int bits) {
+    return stream.nextInt() >>> (32 - bits);
+  }
+
+  @Override
+  public int nextInt() {
+    return stream.nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return stream.nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return stream.nextLong();
+  }
+
+  @Override
+  public double nextDouble() {
+    return stream.nextDouble();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return stream.nextBoolean();
+  }
+}
@@ -104,6 +104,8 @@ public class Status {
   public static final Status FORBIDDEN = new Status("FORBIDDEN", "The operation is forbidden.");
   public static final Status SERVICE_UNAVAILABLE = new Status("SERVICE_UNAVAILABLE", "Dependant " +
       "service for the current binding is not available.");
+  public static final Status CONFLICT = new Status("CONFLICT", "The transaction was aborted by a " +
+      "concurrent modification.");
   public static final Status BATCHED_OK = new Status("BATCHED_OK", "The operation has been batched by " +
       "the binding to be executed later.");
 }
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.util.Arrays;
+
+/**
+ * A batch of time series data points written by the
+ * {@link site.ycsb.workloads.TimeSeriesWorkload} in batch mode, stored column
+ * by column: the timestamps and values in primitive arrays, and the series key
+ * and tag values of each point as references to the workload's strings. Every
+ * point carries a value for each of the batch's tag keys.
+ * <p>
+ * A batch is reused by its client thread for the next batch once
+ * {@link DB#insertBatch(String, TimeSeriesBatch)} returns, so databases must
+ * not keep references to it.
+ * </p>
+ */
+public final class TimeSeriesBatch {
+
+  private final String[] tagKeys;
+  private int size;
+  private String[] keys;
+  private String[] tagValues;
+  private long[] timestamps;
+  private long[] longValues;
+  private double[] doubleValues;
+  private boolean[] floatingPoint;
+  private long bytes;
+
+  /**
+   * @param tagKeys The tag keys of every point.
+   * @param capacity The number of points expected per batch.
+   */
+  public TimeSeriesBatch(String[] tagKeys, int capacity) {
+    this.tagKeys = tagKeys;
+    int initial = Math.max(1, capacity);
+    keys = new String[initial];
+    tagValues = new String[initial * tagKeys.length];
+    timestamps = new long[initial];
+    longValues = new long[initial];
+    doubleValues = new double[initial];
+    floatingPoint = new boolean[initial];
+  }
+
+  /**
+   * Empties the batch so it can be filled again.
+   */
+  public void clear() {
+    size = 0;
+    bytes = 0;
+  }
+
+  /**
+   * Appends a point with an integer value.
+   *
+   * @param key The time series key.
+   * @param values The value of each tag key, in the order of {@link #tagKey(int)}.
+   * @param timestamp The timestamp of the point.
+   * @param value The value of the point.
+   */
+  public void add(String key, String[] values, long timestamp, long value) {
+    int point = append(key, values, timestamp);
+    longValues[point] = value;
+    floatingPoint[point] = false;
+  }
+
+  /**
+   * Appends a point with a floating point value.
+   *
+   * @param key The time series key.
+   * @param values The value of each tag key, in the order of {@link #tagKey(int)}.
+   * @param timestamp The timestamp of the point.
+   * @param value The value of the point.
+   */
+  public void add(String key, String[] values, long timestamp, double value) {
+    int point = append(key, values, timestamp);
+    doubleValues[point] = value;
+    floatingPoint[point] = true;
+  }
+
+  private int append(String key, String[] values, long timestamp) {
+    if (size == keys.length) {
+      int capacity = size * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      tagValues = Arrays.copyOf(tagValues, capacity * tagKeys.length);
+      timestamps = Arrays.copyOf(timestamps, capacity);
+      longValues = Arrays.copyOf(longValues, capacity);
+      doubleValues = Arrays.copyOf(doubleValues, capacity);
+      floatingPoint = Arrays.copyOf(floatingPoint, capacity);
+    }
+    int point = size++;
+    keys[point] = key;
+    System.arraycopy(values, 0, tagValues, point * tagKeys.length, tagKeys.length);
+    timestamps[point] = timestamp;
+    // The key, the tags and 8 bytes each for the timestamp and the value.
+    bytes += key.length() + 16;
+    for (int i = 0; i < tagKeys.length; i++) {
+      bytes += tagKeys[i].length() + values[i].length();
+    }
+    return point;
+  }
+
+  /**
+   * @return The number of points in the batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of tag keys of every point.
+   */
+  public int tagCount() {
+    return tagKeys.length;
+  }
+
+  /**
+   * @return The name of a tag key.
+   */
+  public String tagKey(int tag) {
+    return tagKeys[tag];
+  }
+
+  /**
+   * @return The time series key of a point.
+   */
+  public String key(int point) {
+    return keys[point];
+  }
+
+  /**
+   * @return The value of a tag key for a point.
+   */
+  public String tagValue(int point, int tag) {
+    return tagValues[point * tagKeys.length + tag];
+  }
+
+  /**
+   * @return The timestamp of a point.
+   */
+  public long timestamp(int point) {
+    return timestamps[point];
+  }
+
+  /**
+   * @return Whether the value of a point is read with {@link #doubleValue(int)} rather than
+   * {@link #longValue(int)}.
+   */
+  public boolean isFloatingPoint(int point) {
+    return floatingPoint[point];
+  }
+
+  /**
+   * @return The integer value of a point.
+   */
+  public long longValue(int point) {
+    return longValues[point];
+  }
+
+  /**
+   * @return The floating point value of a point.
+   */
+  public double doubleValue(int point) {
+    return doubleValues[point];
+  }
+
+  /**
+   * @return The size of the points' keys, tags, timestamps and values, in bytes of characters and
+   * 8 bytes per number. A measure of the data ingested independent of the database's encoding.
+   */
+  public long bytes() {
+    return bytes;
+  }
+}
@@ -254,6 +254,40 @@ public abstract class TimeseriesDB extends DB {
    */
   protected abstract Status insert(String metric, long timestamp, double value, Map<String, ByteIterator> tags);
 
+  /**
+   * @inheritDoc
+   * @implNote this method passes the batch on to {@link #insert(String, TimeSeriesBatch)}
+   */
+  @Override
+  public final Status insertBatch(String table, TimeSeriesBatch batch) {
+    return insert(table, batch);
+  }
+
+  /**
+   * Insert a batch of records into the database. Databases with a native batch write should override this to
+   * write the batch's columns directly; by default every point is passed to
+   * {@link #insert(String, long, double, Map)} or {@link #insert(String, long, long, Map)}.
+   *
+   * @param metric The name of the metric
+   * @param batch  The data points to insert, with their tags.
+   * @return A {@link Status} detailing the outcome of the insert, that of the first point that failed if any did.
+   */
+  protected Status insert(String metric, TimeSeriesBatch batch) {
+    for (int point = 0; point < batch.size(); point++) {
+      Map<String, ByteIterator> tags = new HashMap<>();
+      for (int tag = 0; tag < batch.tagCount(); tag++) {
+        tags.put(batch.tagKey(tag), new StringByteIterator(batch.tagValue(point, tag)));
+      }
+      Status status = batch.isFloatingPoint(point)
+          ? insert(metric, batch.timestamp(point), batch.doubleValue(point), tags)
+          : insert(metric, batch.timestamp(point), batch.longValue(point), tags);
+      if (status == null || !status.isOk()) {
+        return status;
+      }
+    }
+    return Status.OK;
+  }
+
   /**
    * NOTE: This operation is usually <b>not</b> supported for Time-Series databases.
    * Deletion of data is often instead regulated through automatic cleanup and "retention policies" or similar.
@@ -23,16 +23,49 @@ import java.lang.management.OperatingSystemMXBean;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility functions.
  */
 public final class Utils {
+  /**
+   * The seeded random stream of the calling thread, if any.
+   */
+  private static final ThreadLocal<Random> THREAD_RANDOM = new ThreadLocal<>();
+
   private Utils() {
     // not used
   }
 
+  /**
+   * Returns the random number generator of the calling thread. That is the
+   * stream set by {@link #setThreadRandom(SplittableRandom)} in seeded runs and
+   * {@link ThreadLocalRandom} otherwise. Either way it is owned by the thread
+   * and must not be handed to other threads.
+   *
+   * @return The random number generator of the calling thread.
+   */
+  public static Random random() {
+    Random random = THREAD_RANDOM.get();
+    return random != null ? random : ThreadLocalRandom.current();
+  }
+
+  /**
+   * Makes {@link #random()} draw from the given stream on the calling thread.
+   *
+   * @param stream The stream, or null to go back to {@link ThreadLocalRandom}.
+   */
+  public static void setThreadRandom(SplittableRandom stream) {
+    if (stream == null) {
+      THREAD_RANDOM.remove();
+    } else {
+      THREAD_RANDOM.set(new SplittableRandomAdapter(stream));
+    }
+  }
+
   /**
    * Hash an integer value.
    */
@@ -221,8 +254,9 @@ public final class Utils {
    * @return The shuffled array.
    */
   public static <T> T [] shuffleArray(final T[] array) {
+    final Random random = random();
     for (int i = array.length -1; i > 0; i--) {
-      final int idx = ThreadLocalRandom.current().nextInt(i + 1);
+      final int idx = random.nextInt(i + 1);
       final T temp = array[idx];
       array[idx] = array[i];
       array[i] = temp;
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.util.Map;
+
+/**
+ * Receives the change notifications of the records registered with
+ * {@link DB#watch}. Notifications are delivered on threads of the database
+ * client, possibly several at once, so implementations must be thread safe and
+ * should return quickly.
+ */
+public interface WatchListener {
+
+  /**
+   * Called when a watched record changed.
+   *
+   * @param key The record key of the record that changed.
+   * @param values The field/value pairs of the record after the change, or null if it was deleted.
+   */
+  void onChange(String key, Map<String, ByteIterator> values);
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A compact model of a production access pattern, fitted from an access log by
+ * {@link AccessModelFitter}. It holds no keys, only distributions:
+ * <ul>
+ * <li>key popularity: the share of accesses going to each range of key ranks,
+ * with ranks expressed as fractions of the distinct keys so the model can be
+ * replayed over a keyspace of any size,</li>
+ * <li>the operation mix,</li>
+ * <li>the value size histogram, and</li>
+ * <li>the inter-arrival time histogram, in microseconds.</li>
+ * </ul>
+ * Like the {@link HistogramGenerator} file format, a model is a tab separated
+ * text file. Each section starts with a header line naming the section and the
+ * number of lines that follow:
+ * <pre>
+ * Keys &lt;distinct keys&gt;
+ * KeyPopularity &lt;n&gt;
+ * &lt;lower rank fraction&gt; &lt;upper rank fraction&gt; &lt;accesses&gt;
+ * Operations &lt;n&gt;
+ * &lt;operation&gt; &lt;count&gt;
+ * ValueSize &lt;n&gt;
+ * &lt;lower bytes&gt; &lt;upper bytes&gt; &lt;count&gt;
+ * InterArrivalMicros &lt;n&gt;
+ * &lt;lower micros&gt; &lt;upper micros&gt; &lt;count&gt;
+ * </pre>
+ * Bucket ranges are half open, including the lower and excluding the upper bound.
+ */
+public final class AccessModel {
+
+  /**
+   * A histogram of half open buckets. Sampling picks a bucket by weight and a
+   * value uniformly inside it.
+   */
+  public static final class Histogram {
+    private final double[] lower;
+    private final double[] upper;
+    private final long[] cumulative;
+
+    /**
+     * Create a histogram.
+     *
+     * @param lower the inclusive lower bound of each bucket.
+     * @param upper the exclusive upper bound of each bucket.
+     * @param counts the number of samples in each bucket.
+     */
+    public Histogram(double[] lower, double[] upper, long[] counts) {
+      if (lower.length != upper.length || lower.length != counts.length) {
+        throw new IllegalArgumentException("Histogram bounds and counts differ in length");
+      }
+      this.lower = lower.clone();
+      this.upper = upper.clone();
+      this.cumulative = new long[counts.length];
+      long sum = 0;
+      for (int i = 0; i < counts.length; i++) {
+        sum += counts[i];
+        cumulative[i] = sum;
+      }
+    }
+
+    /**
+     * @return the number of buckets.
+     */
+    public int size() {
+      return cumulative.length;
+    }
+
+    /**
+     * @return the total number of samples.
+     */
+    public long total() {
+      return cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+    }
+
+    public double lower(int bucket) {
+      return lower[bucket];
+    }
+
+    public double upper(int bucket) {
+      return upper[bucket];
+    }
+
+    public long count(int bucket) {
+      return cumulative[bucket] - (bucket == 0 ? 0 : cumulative[bucket - 1]);
+    }
+
+    /**
+     * @return a bucket chosen with probability proportional to its count.
+     */
+    public int sampleBucket(Random random) {
+      long total = total();
+      if (total <= 0) {
+        throw new IllegalStateException("Cannot sample an empty histogram");
+      }
+      long target = (long) (random.nextDouble() * total);
+      int idx = Arrays.binarySearch(cumulative, target);
+      // Find the first bucket whose cumulative count exceeds the target.
+      idx = idx >= 0 ? idx + 1 : -idx - 1;
+      while (count(idx) == 0) {
+        idx++;
+      }
+      return idx;
+    }
+
+    /**
+     * @return a value drawn from the histogram.
+     */
+    public double sample(Random random) {
+      int bucket = sampleBucket(random);
+      return lower[bucket] + random.nextDouble() * (upper[bucket] - lower[bucket]);
+    }
+
+    /**
+     * @return the mean of the histogram, assuming values are uniform within buckets.
+     */
+    public double mean() {
+      double sum = 0;
+      for (int i = 0; i < size(); i++) {
+        sum += count(i) * (lower[i] + upper[i]) / 2.0;
+      }
+      return total() == 0 ? 0 : sum / total();
+    }
+  }
+
+  private final long keys;
+  private final Histogram keyPopularity;
+  private final Map<String, Long> operations;
+  private final Histogram valueSizes;
+  private final Histogram interArrivalMicros;
+
+  /**
+   * Create a model.
+   *
+   * @param keys the number of distinct keys in the log.
+   * @param keyPopularity the accesses per range of key rank fractions, most popular first.
+   * @param operations the number of accesses per operation.
+   * @param valueSizes the value size histogram in bytes.
+   * @param interArrivalMicros the inter-arrival time histogram in microseconds.
+   */
+  public AccessModel(long keys, Histogram keyPopularity, Map<String, Long> operations,
+                     Histogram valueSizes, Histogram interArrivalMicros) {
+    this.keys = keys;
+    this.keyPopularity = keyPopularity;
+    this.operations = Collections.unmodifiableMap(new LinkedHashMap<>(operations));
+    this.valueSizes = valueSizes;
+    this.interArrivalMicros = interArrivalMicros;
+  }
+
+  public long getKeys() {
+    return keys;
+  }
+
+  public Histogram getKeyPopularity() {
+    return keyPopularity;
+  }
+
+  public Map<String, Long> getOperations() {
+    return operations;
+  }
+
+  public Histogram getValueSizes() {
+    return valueSizes;
+  }
+
+  public Histogram getInterArrivalMicros() {
+    return interArrivalMicros;
+  }
+
+  /**
+   * Reads a model from a file written by {@link #save(String)}.
+   */
+  public static AccessModel load(String file) throws IOException {
+    try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+      long keys = Long.parseLong(readHeader(in, "Keys")[1]);
+      Histogram keyPopularity = readHistogram(in, "KeyPopularity");
+      int opCount = Integer.parseInt(readHeader(in, "Operations")[1]);
+      Map<String, Long> operations = new LinkedHashMap<>();
+      for (int i = 0; i < opCount; i++) {
+        String[] line = readLine(in);
+        operations.put(line[0], Long.parseLong(line[1]));
+      }
+      Histogram valueSizes = readHistogram(in, "ValueSize");
+      Histogram interArrival = readHistogram(in, "InterArrivalMicros");
+      return new AccessModel(keys, keyPopularity, operations, valueSizes, interArrival);
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      throw new IOException("Malformed access model file " + file, e);
+    }
+  }
+
+  /**
+   * Writes the model to a file.
+   */
+  public void save(String file) throws IOException {
+    try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+      out.println("Keys\t" + keys);
+      writeHistogram(out, "KeyPopularity", keyPopularity);
+      out.println("Operations\t" + operations.size());
+      for (Map.Entry<String, Long> entry : operations.entrySet()) {
+        out.println(entry.getKey() + "\t" + entry.getValue());
+      }
+      writeHistogram(out, "ValueSize", valueSizes);
+      writeHistogram(out, "InterArrivalMicros", interArrivalMicros);
+      if (out.checkError()) {
+        throw new IOException("Error writing access model file " + file);
+      }
+    }
+  }
+
+  private static String[] readLine(BufferedReader in) throws IOException {
+    String str = in.readLine();
+    if (str == null) {
+      throw new IOException("Unexpected end of access model file");
+    }
+    return str.split("\t");
+  }
+
+  private static String[] readHeader(BufferedReader in, String section) throws IOException {
+    String[] line = readLine(in);
+    if (!line[0].equals(section)) {
+      throw new IOException("Expected section " + section + " but found " + line[0]);
+    }
+    return line;
+  }
+
+  private static Histogram readHistogram(BufferedReader in, String section) throws IOException {
+    int n = Integer.parseInt(readHeader(in, section)[1]);
+    double[] lower = new double[n];
+    double[] upper = new double[n];
+    long[] counts = new long[n];
+    for (int i = 0; i < n; i++) {
+      String[] line = readLine(in);
+      lower[i] = Double.parseDouble(line[0]);
+      upper[i] = Double.parseDouble(line[1]);
+      counts[i] = Long.parseLong(line[2]);
+    }
+    return new Histogram(lower, upper, counts);
+  }
+
+  private static void writeHistogram(PrintWriter out, String section, Histogram histogram) {
+    out.println(section + "\t" + histogram.size());
+    for (int i = 0; i < histogram.size(); i++) {
+      out.println(histogram.lower(i) + "\t" + histogram.upper(i) + "\t" + histogram.count(i));
+    }
+  }
+}
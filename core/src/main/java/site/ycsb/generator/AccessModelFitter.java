@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fits an {@link AccessModel} from an access log. Each line of the log holds
+ * whitespace separated fields:
+ * <pre>
+ * &lt;timestamp in microseconds&gt; &lt;operation&gt; &lt;key&gt; [&lt;value size in bytes&gt;]
+ * </pre>
+ * Lines are expected in timestamp order; empty lines and lines starting with
+ * '#' are skipped. Keys are only counted, never written to the model.
+ * <p>
+ * Usage: {@code java site.ycsb.generator.AccessModelFitter <access log> <model file>}
+ * </p>
+ */
+public final class AccessModelFitter {
+  /** Growth factor between consecutive bucket bounds. */
+  private static final double BUCKET_GROWTH = 1.25;
+
+  private AccessModelFitter() {
+    // not used
+  }
+
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.err.println("Usage: java " + AccessModelFitter.class.getName() + " <access log> <model file>");
+      System.exit(1);
+    }
+    try (BufferedReader in = new BufferedReader(new FileReader(args[0]))) {
+      AccessModel model = fit(in);
+      model.save(args[1]);
+      System.out.println("Fitted " + model.getKeyPopularity().total() + " accesses to "
+          + model.getKeys() + " distinct keys into " + args[1]);
+    } catch (IOException e) {
+      System.err.println("Could not fit access model: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Fits a model from the lines of an access log.
+   *
+   * @param in The access log.
+   * @return The fitted model.
+   * @throws IOException if the log cannot be read or is malformed.
+   */
+  public static AccessModel fit(BufferedReader in) throws IOException {
+    Map<String, long[]> keyCounts = new HashMap<>();
+    Map<String, Long> operations = new LinkedHashMap<>();
+    long[] bounds = bucketBounds();
+    long[] sizeCounts = new long[bounds.length - 1];
+    long[] arrivalCounts = new long[bounds.length - 1];
+    long previous = -1;
+    String str;
+    int lineno = 0;
+    while ((str = in.readLine()) != null) {
+      lineno++;
+      str = str.trim();
+      if (str.isEmpty() || str.startsWith("#")) {
+        continue;
+      }
+      String[] line = str.split("\\s+");
+      if (line.length < 3) {
+        throw new IOException("Line " + lineno + " needs a timestamp, an operation and a key");
+      }
+      try {
+        long timestamp = Long.parseLong(line[0]);
+        if (previous >= 0) {
+          arrivalCounts[bucketOf(bounds, Math.max(0, timestamp - previous))]++;
+        }
+        previous = timestamp;
+        if (line.length > 3) {
+          sizeCounts[bucketOf(bounds, Math.max(0, Long.parseLong(line[3])))]++;
+        }
+      } catch (NumberFormatException e) {
+        throw new IOException("Line " + lineno + " has a malformed number: " + e.getMessage(), e);
+      }
+      operations.merge(line[1].toUpperCase(Locale.ROOT), 1L, Long::sum);
+      long[] count = keyCounts.get(line[2]);
+      if (count == null) {
+        keyCounts.put(line[2], new long[]{1});
+      } else {
+        count[0]++;
+      }
+    }
+    return new AccessModel(keyCounts.size(), fitPopularity(keyCounts), operations,
+        trim(bounds, sizeCounts), trim(bounds, arrivalCounts));
+  }
+
+  /**
+   * Buckets the per-key access counts by popularity rank. Bucket widths grow
+   * geometrically so the head of the distribution keeps its resolution.
+   */
+  private static AccessModel.Histogram fitPopularity(Map<String, long[]> keyCounts) {
+    long[] counts = new long[keyCounts.size()];
+    int i = 0;
+    for (long[] count : keyCounts.values()) {
+      counts[i++] = count[0];
+    }
+    Arrays.sort(counts);
+    double distinct = counts.length;
+    List<double[]> buckets = new ArrayList<>();
+    long lo = 0;
+    while (lo < counts.length) {
+      long hi = Math.min(counts.length, Math.max(lo + 1, (long) Math.ceil(lo * BUCKET_GROWTH)));
+      long sum = 0;
+      for (long rank = lo; rank < hi; rank++) {
+        // counts is ascending; rank 0 is the most popular key
+        sum += counts[counts.length - 1 - (int) rank];
+      }
+      buckets.add(new double[]{lo / distinct, hi / distinct, sum});
+      lo = hi;
+    }
+    double[] lower = new double[buckets.size()];
+    double[] upper = new double[buckets.size()];
+    long[] sums = new long[buckets.size()];
+    for (int b = 0; b < buckets.size(); b++) {
+      lower[b] = buckets.get(b)[0];
+      upper[b] = buckets.get(b)[1];
+      sums[b] = (long) buckets.get(b)[2];
+    }
+    return new AccessModel.Histogram(lower, upper, sums);
+  }
+
+  /**
+   * @return geometrically growing bounds 0, 1, 2, ... covering all non-negative longs.
+   */
+  private static long[] bucketBounds() {
+    List<Long> bounds = new ArrayList<>();
+    long bound = 0;
+    bounds.add(bound);
+    while (bound < Long.MAX_VALUE / 2) {
+      bound = Math.max(bound + 1, (long) Math.ceil(bound * BUCKET_GROWTH));
+      bounds.add(bound);
+    }
+    bounds.add(Long.MAX_VALUE);
+    long[] ret = new long[bounds.size()];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = bounds.get(i);
+    }
+    return ret;
+  }
+
+  private static int bucketOf(long[] bounds, long value) {
+    int idx = Arrays.binarySearch(bounds, value);
+    return Math.min(idx >= 0 ? idx : -idx - 2, bounds.length - 2);
+  }
+
+  /**
+   * @return a histogram of the non-empty buckets.
+   */
+  private static AccessModel.Histogram trim(long[] bounds, long[] counts) {
+    int n = 0;
+    for (long count : counts) {
+      if (count > 0) {
+        n++;
+      }
+    }
+    double[] lower = new double[n];
+    double[] upper = new double[n];
+    long[] kept = new long[n];
+    int j = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        lower[j] = bounds[i];
+        upper[j] = bounds[i + 1];
+        kept[j] = counts[i];
+        j++;
+      }
+    }
+    return new AccessModel.Histogram(lower, upper, kept);
+  }
+}
@@ -19,7 +19,8 @@ package site.ycsb.generator;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ThreadLocalRandom;
+
+import site.ycsb.Utils;
 
 import static java.util.Objects.requireNonNull;
 
@@ -55,7 +56,7 @@ public class DiscreteGenerator extends Generator<String> {
       sum += p.weight;
     }
 
-    double val = ThreadLocalRandom.current().nextDouble();
+    double val = Utils.random().nextDouble();
 
     for (Pair p : values) {
       double pw = p.weight / sum;
@@ -216,6 +216,40 @@ public class IncrementingPrintableStringGenerator extends Generator<String> {
     return lastValue;
   }
 
+  /**
+   * Returns the string {@link #nextValue()} returns after being called {@code index}
+   * times, without generating the strings in between. The index is decoded into one
+   * digit per character in the radix of the character set, so this takes time
+   * proportional to the length regardless of the index.
+   * @param index The zero based position of the string. Strings repeat once every
+   * combination of characters has been generated.
+   * @return The string at the given position.
+   */
+  public String valueAt(final long index) {
+    final int[] codePoints = new int[length];
+    long remaining = index;
+    for (int i = length - 1; i >= 0; --i) {
+      codePoints[i] = characterSet[(int) Math.floorMod(remaining, (long) characterSet.length)];
+      remaining = Math.floorDiv(remaining, (long) characterSet.length);
+    }
+    return new String(codePoints, 0, length);
+  }
+
+  /**
+   * @return The number of distinct strings the generator produces before rolling
+   * over, or {@link Long#MAX_VALUE} if there are more than that.
+   */
+  public long distinctValues() {
+    long values = 1;
+    for (int i = 0; i < length; i++) {
+      if (values > Long.MAX_VALUE / characterSet.length) {
+        return Long.MAX_VALUE;
+      }
+      values *= characterSet.length;
+    }
+    return values;
+  }
+
   @Override
   public String lastValue() {
     return lastValue;
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import site.ycsb.Utils;
+
+/**
+ * Generates integers following one of the histograms of an {@link AccessModel},
+ * such as value sizes or inter-arrival times, optionally divided by a constant.
+ */
+public class ModelHistogramGenerator extends NumberGenerator {
+  private final AccessModel.Histogram histogram;
+  private final double divisor;
+  private final long minimum;
+
+  /**
+   * Create a generator.
+   *
+   * @param histogram the histogram to draw from.
+   * @param divisor what to divide drawn values by, e.g. the number of fields a value is split across.
+   * @param minimum the smallest value to return.
+   */
+  public ModelHistogramGenerator(AccessModel.Histogram histogram, double divisor, long minimum) {
+    if (histogram.total() <= 0) {
+      throw new IllegalArgumentException("Access model histogram is empty");
+    }
+    this.histogram = histogram;
+    this.divisor = divisor;
+    this.minimum = minimum;
+  }
+
+  @Override
+  public Long nextValue() {
+    long ret = Math.max(minimum, (long) (histogram.sample(Utils.random()) / divisor));
+    setLastValue(ret);
+    return ret;
+  }
+
+  @Override
+  public double mean() {
+    return Math.max(minimum, histogram.mean() / divisor);
+  }
+}
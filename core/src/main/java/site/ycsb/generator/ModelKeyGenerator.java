@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import java.util.Random;
+
+import site.ycsb.Utils;
+
+/**
+ * Generates keys following the key popularity of an {@link AccessModel}, scaled
+ * to an arbitrary keyspace. A popularity rank is drawn from the model's rank
+ * buckets, scaled from a fraction of the fitted keys to the size of the
+ * keyspace, and hashed into the keyspace like {@link ScrambledZipfianGenerator}
+ * so popular items are spread out rather than clustered at the start.
+ */
+public class ModelKeyGenerator extends NumberGenerator {
+  private final AccessModel.Histogram popularity;
+  private final long min;
+  private final long itemcount;
+
+  /**
+   * Create a generator replaying the model over the range [min, max].
+   *
+   * @param model the fitted access model.
+   * @param min the smallest integer to generate.
+   * @param max the largest integer to generate.
+   */
+  public ModelKeyGenerator(AccessModel model, long min, long max) {
+    if (model.getKeyPopularity().total() <= 0) {
+      throw new IllegalArgumentException("Access model has no key accesses");
+    }
+    this.popularity = model.getKeyPopularity();
+    this.min = min;
+    this.itemcount = max - min + 1;
+  }
+
+  /**
+   * @return the popularity rank of the next item, 0 being the most popular.
+   */
+  long nextRank() {
+    Random random = Utils.random();
+    int bucket = popularity.sampleBucket(random);
+    long lo = Math.min(itemcount - 1, (long) (popularity.lower(bucket) * itemcount));
+    long hi = Math.min(itemcount, Math.max(lo + 1, (long) (popularity.upper(bucket) * itemcount)));
+    return lo + (long) (random.nextDouble() * (hi - lo));
+  }
+
+  @Override
+  public Long nextValue() {
+    long ret = min + Utils.fnvhash64(nextRank()) % itemcount;
+    setLastValue(ret);
+    return ret;
+  }
+
+  @Override
+  public double mean() {
+    return min + (itemcount - 1) / 2.0;
+  }
+}
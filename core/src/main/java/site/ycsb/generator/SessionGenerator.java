@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import java.util.Random;
+
+import site.ycsb.Utils;
+
+/**
+ * Generates integers with temporal and spatial locality by modelling client
+ * sessions on top of a base distribution. Each thread runs its own sequence of
+ * sessions. A session starts with a key drawn from the base distribution; every
+ * following draw in the session either
+ * <ul>
+ * <li>re-references a key already accessed in the session, with probability
+ * <i>rereferenceProbability</i>,</li>
+ * <li>moves to the neighbor of the previous key, with probability
+ * <i>neighborProbability</i>, or</li>
+ * <li>draws a fresh key from the base distribution otherwise.</li>
+ * </ul>
+ * Session lengths are geometrically distributed with the given mean, so sessions
+ * end at a random point just like real ones.
+ * <p>
+ * Neighbors are adjacent integers, which are adjacent keys only when records are
+ * inserted in order.
+ * </p>
+ */
+public class SessionGenerator extends NumberGenerator {
+
+  /**
+   * Per-thread session state.
+   */
+  private static final class Session {
+    private final long[] history;
+    private int historySize;
+    private int historyNext;
+    private long remaining;
+    private long last;
+
+    private Session(int historyCapacity) {
+      history = new long[historyCapacity];
+    }
+
+    private void start(long length, long first) {
+      historySize = 0;
+      historyNext = 0;
+      remaining = length;
+      record(first);
+    }
+
+    private void record(long value) {
+      history[historyNext] = value;
+      historyNext = (historyNext + 1) % history.length;
+      historySize = Math.min(historySize + 1, history.length);
+      last = value;
+    }
+  }
+
+  private final NumberGenerator base;
+  private final long lowerBound;
+  private final long interval;
+  private final double rereferenceProbability;
+  private final double neighborProbability;
+  private final double endProbability;
+  private final ThreadLocal<Session> sessions;
+
+  /**
+   * Create a session generator.
+   *
+   * @param base the distribution new keys are drawn from.
+   * @param lowerBound the lower bound of the keys, used to wrap neighbors around.
+   * @param upperBound the upper bound of the keys, used to wrap neighbors around.
+   * @param rereferenceProbability the probability of re-accessing a key of the current session.
+   * @param neighborProbability the probability of accessing the neighbor of the previous key.
+   * @param meanSessionLength the mean number of draws in a session.
+   * @param historyCapacity how many of the most recent keys of a session can be re-referenced.
+   */
+  public SessionGenerator(NumberGenerator base, long lowerBound, long upperBound,
+                          double rereferenceProbability, double neighborProbability,
+                          double meanSessionLength, final int historyCapacity) {
+    if (rereferenceProbability < 0 || neighborProbability < 0
+        || rereferenceProbability + neighborProbability > 1.0) {
+      throw new IllegalArgumentException("Re-reference and neighbor probabilities must be non-negative and "
+          + "sum to at most 1: " + rereferenceProbability + ", " + neighborProbability);
+    }
+    if (meanSessionLength < 1) {
+      throw new IllegalArgumentException("Mean session length must be at least 1: " + meanSessionLength);
+    }
+    if (historyCapacity < 1) {
+      throw new IllegalArgumentException("Session history must hold at least one key: " + historyCapacity);
+    }
+    if (lowerBound > upperBound) {
+      throw new IllegalArgumentException("Upper bound " + upperBound + " smaller than lower bound " + lowerBound);
+    }
+    this.base = base;
+    this.lowerBound = lowerBound;
+    this.interval = upperBound - lowerBound + 1;
+    this.rereferenceProbability = rereferenceProbability;
+    this.neighborProbability = neighborProbability;
+    this.endProbability = 1.0 / meanSessionLength;
+    this.sessions = new ThreadLocal<Session>() {
+      @Override
+      protected Session initialValue() {
+        return new Session(historyCapacity);
+      }
+    };
+  }
+
+  @Override
+  public Long nextValue() {
+    Session session = sessions.get();
+    Random random = Utils.random();
+    long value;
+    if (session.remaining <= 0) {
+      value = base.nextValue().longValue();
+      session.start(sessionLength(random), value);
+    } else {
+      double r = random.nextDouble();
+      if (r < rereferenceProbability) {
+        value = session.history[random.nextInt(session.historySize)];
+      } else if (r < rereferenceProbability + neighborProbability) {
+        value = lowerBound + (session.last - lowerBound + 1) % interval;
+      } else {
+        value = base.nextValue().longValue();
+      }
+      session.record(value);
+    }
+    session.remaining--;
+    setLastValue(value);
+    return value;
+  }
+
+  private long sessionLength(Random random) {
+    if (endProbability >= 1.0) {
+      return 1;
+    }
+    // Geometric distribution on {1, 2, ...} with mean 1 / endProbability.
+    return 1 + (long) (Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - endProbability));
+  }
+
+  @Override
+  public double mean() {
+    return base.mean();
+  }
+}
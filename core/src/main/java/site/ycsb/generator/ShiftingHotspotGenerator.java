@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import site.ycsb.Utils;
+
+/**
+ * Generate integers resembling a hotspot distribution where x% of operations
+ * access y% of data items, like {@link HotspotIntegerGenerator}, except that the
+ * hot set moves through the interval as the run progresses. The hot set is a
+ * contiguous range that wraps around the end of the interval; its start is a
+ * pure function of the elapsed time, so all threads see the same hot set without
+ * sharing any state.
+ * <p>
+ * The hot set moves according to a {@link ShiftMode}:
+ * <ul>
+ * <li>ROTATE: every period the hot set advances by its own size, so consecutive
+ * hot sets do not overlap.</li>
+ * <li>JUMP: every period the hot set jumps to a pseudo-random position.</li>
+ * <li>DIURNAL: the hot set drifts continuously from the start of the interval to
+ * the end and back once per period.</li>
+ * </ul>
+ */
+public class ShiftingHotspotGenerator extends NumberGenerator {
+
+  /**
+   * How the hot set moves over time.
+   */
+  public enum ShiftMode {
+    ROTATE,
+    JUMP,
+    DIURNAL
+  }
+
+  private final long lowerBound;
+  private final long interval;
+  private final long hotInterval;
+  private final long coldInterval;
+  private final double hotOpnFraction;
+  private final ShiftMode mode;
+  private final long periodMs;
+  private final LongSupplier clockMs;
+  private final long startMs;
+
+  /**
+   * Create a generator for shifting hotspot distributions.
+   *
+   * @param lowerBound lower bound of the distribution.
+   * @param upperBound upper bound of the distribution.
+   * @param hotsetFraction percentage of data item
+   * @param hotOpnFraction percentage of operations accessing the hot set.
+   * @param mode how the hot set moves.
+   * @param periodMs the period of the movement in milliseconds.
+   */
+  public ShiftingHotspotGenerator(long lowerBound, long upperBound, double hotsetFraction,
+                                  double hotOpnFraction, ShiftMode mode, long periodMs) {
+    this(lowerBound, upperBound, hotsetFraction, hotOpnFraction, mode, periodMs,
+        () -> System.nanoTime() / 1000000);
+  }
+
+  ShiftingHotspotGenerator(long lowerBound, long upperBound, double hotsetFraction,
+                           double hotOpnFraction, ShiftMode mode, long periodMs, LongSupplier clockMs) {
+    if (hotsetFraction < 0.0 || hotsetFraction > 1.0) {
+      throw new IllegalArgumentException("Hotset fraction out of range: " + hotsetFraction);
+    }
+    if (hotOpnFraction < 0.0 || hotOpnFraction > 1.0) {
+      throw new IllegalArgumentException("Hot operation fraction out of range: " + hotOpnFraction);
+    }
+    if (lowerBound > upperBound) {
+      throw new IllegalArgumentException("Upper bound " + upperBound + " smaller than lower bound " + lowerBound);
+    }
+    if (periodMs <= 0) {
+      throw new IllegalArgumentException("Shift period must be positive: " + periodMs);
+    }
+    this.lowerBound = lowerBound;
+    this.interval = upperBound - lowerBound + 1;
+    this.hotInterval = Math.max(1, (long) (interval * hotsetFraction));
+    this.coldInterval = interval - hotInterval;
+    this.hotOpnFraction = hotOpnFraction;
+    this.mode = mode;
+    this.periodMs = periodMs;
+    this.clockMs = clockMs;
+    this.startMs = clockMs.getAsLong();
+  }
+
+  /**
+   * @return the offset of the first hot item from the lower bound at this point in the run.
+   */
+  public long hotsetOffset() {
+    long elapsed = clockMs.getAsLong() - startMs;
+    switch (mode) {
+    case ROTATE:
+      return (elapsed / periodMs) % Math.max(1, interval / hotInterval) * hotInterval;
+    case JUMP:
+      return Utils.fnvhash64(elapsed / periodMs) % interval;
+    case DIURNAL:
+      double phase = 2 * Math.PI * (elapsed % periodMs) / periodMs;
+      return (long) ((interval - hotInterval) * (1 - Math.cos(phase)) / 2);
+    default:
+      throw new AssertionError("Unknown shift mode " + mode);
+    }
+  }
+
+  @Override
+  public Long nextValue() {
+    Random random = Utils.random();
+    long offset;
+    if (coldInterval == 0 || random.nextDouble() < hotOpnFraction) {
+      offset = Math.abs(random.nextLong()) % hotInterval;
+    } else {
+      offset = hotInterval + Math.abs(random.nextLong()) % coldInterval;
+    }
+    long value = lowerBound + (hotsetOffset() + offset) % interval;
+    setLastValue(value);
+    return value;
+  }
+
+  @Override
+  public double mean() {
+    // Averaged over a full movement period the hot set covers the interval evenly.
+    return lowerBound + (interval - 1) / 2.0;
+  }
+}
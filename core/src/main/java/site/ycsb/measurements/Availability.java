@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the availability of the database during a run, to measure leader
+ * elections and failovers under load. Enabled with <b>availability.track</b>.
+ * <p>
+ * An operation failed for this purpose if its status is ERROR or
+ * SERVICE_UNAVAILABLE; other statuses are answers from an available database.
+ * Each client thread is unavailable from the start of its first failed
+ * operation, or of the first attempt a binding had to retry, until the end of
+ * its next successful operation. Every such window is measured as UNAVAILABLE.
+ * Bindings that fail over between servers report each retried attempt through
+ * {@link #retry(long)} and each redirect to another server through
+ * {@link #redirect(long)}, measured as RETRY and REDIRECT, so time lost to them
+ * can be told apart from the latency of the operations.
+ * </p>
+ * <p>
+ * At the end of the run, the windows of every thread and a per-second timeline
+ * of successful and failed operations, retries, redirects, availability and
+ * throughput are written to <b>availability.file</b>, or to stderr.
+ * </p>
+ */
+public class Availability {
+
+  public static final String AVAILABILITY_TRACK_PROPERTY = "availability.track";
+  public static final String AVAILABILITY_TRACK_PROPERTY_DEFAULT = "false";
+
+  public static final String AVAILABILITY_FILE_PROPERTY = "availability.file";
+
+  private static Availability singleton = null;
+  private static Properties availabilityproperties = null;
+
+  public static void setProperties(Properties props) {
+    availabilityproperties = props;
+  }
+
+  /**
+   * Return the singleton Availability object.
+   */
+  public static synchronized Availability getAvailability() {
+    if (singleton == null) {
+      singleton = new Availability(availabilityproperties != null ? availabilityproperties : new Properties());
+    }
+    return singleton;
+  }
+
+  /**
+   * The operations of one second of the run.
+   */
+  private static final class Second {
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder redirects = new LongAdder();
+  }
+
+  /**
+   * The unavailability of one client thread.
+   */
+  private static final class ThreadWindows {
+    private final int thread;
+    /** The start of the open window, or 0. */
+    private volatile long start;
+    private final Queue<long[]> closed = new ConcurrentLinkedQueue<>();
+
+    private ThreadWindows(int thread) {
+      this.thread = thread;
+    }
+  }
+
+  private final boolean enabled;
+  private final String file;
+  private final AtomicLong startNanos = new AtomicLong();
+  private volatile long faultNanos;
+  private final Map<Long, Second> timeline = new ConcurrentHashMap<>();
+  private final AtomicInteger threadcount = new AtomicInteger();
+  private final Queue<ThreadWindows> threads = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<ThreadWindows> windows = new ThreadLocal<ThreadWindows>() {
+    @Override
+    protected ThreadWindows initialValue() {
+      ThreadWindows w = new ThreadWindows(threadcount.getAndIncrement());
+      threads.add(w);
+      return w;
+    }
+  };
+
+  /**
+   * Create a new object with the specified properties.
+   */
+  public Availability(Properties props) {
+    enabled = Boolean.parseBoolean(props.getProperty(AVAILABILITY_TRACK_PROPERTY,
+        AVAILABILITY_TRACK_PROPERTY_DEFAULT));
+    file = props.getProperty(AVAILABILITY_FILE_PROPERTY);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Marks the start of the run, second 0 of the timeline.
+   */
+  public void start() {
+    startNanos.set(System.nanoTime());
+  }
+
+  /**
+   * Marks the injection of a fault.
+   */
+  public void fault() {
+    faultNanos = System.nanoTime();
+  }
+
+  /**
+   * Records the outcome of an operation of the calling client thread.
+   *
+   * @param status The status of the operation.
+   * @param startTimeNanos When the operation started.
+   * @param endTimeNanos When the operation ended.
+   */
+  public void operation(Status status, long startTimeNanos, long endTimeNanos) {
+    if (!enabled) {
+      return;
+    }
+    Second second = second(endTimeNanos);
+    ThreadWindows w = windows.get();
+    if (status == Status.ERROR || status == Status.SERVICE_UNAVAILABLE) {
+      second.failed.increment();
+      if (w.start == 0) {
+        w.start = startTimeNanos;
+      }
+    } else {
+      second.ok.increment();
+      if (w.start != 0) {
+        Measurements.getMeasurements().measure("UNAVAILABLE", (int) ((endTimeNanos - w.start) / 1000));
+        w.closed.add(new long[]{w.start, endTimeNanos});
+        w.start = 0;
+      }
+    }
+  }
+
+  /**
+   * Records an attempt of the calling client thread that failed and is retried,
+   * possibly on another server.
+   *
+   * @param attemptStartNanos When the failed attempt started.
+   */
+  public void retry(long attemptStartNanos) {
+    if (!enabled) {
+      return;
+    }
+    long now = System.nanoTime();
+    second(now).retries.increment();
+    Measurements.getMeasurements().measure("RETRY", (int) ((now - attemptStartNanos) / 1000));
+    ThreadWindows w = windows.get();
+    if (w.start == 0) {
+      w.start = attemptStartNanos;
+    }
+  }
+
+  /**
+   * Records an attempt of the calling client thread that a server redirected to another one.
+   *
+   * @param attemptStartNanos When the redirected attempt started.
+   */
+  public void redirect(long attemptStartNanos) {
+    if (!enabled) {
+      return;
+    }
+    long now = System.nanoTime();
+    second(now).redirects.increment();
+    Measurements.getMeasurements().measure("REDIRECT", (int) ((now - attemptStartNanos) / 1000));
+  }
+
+  private Second second(long nanos) {
+    startNanos.compareAndSet(0, nanos);
+    long index = Math.max(0, (nanos - startNanos.get()) / 1000000000L);
+    Second second = timeline.get(index);
+    return second != null ? second : timeline.computeIfAbsent(index, i -> new Second());
+  }
+
+  /**
+   * Writes the unavailability windows and the timeline, once all client threads are done.
+   */
+  public void export() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    PrintWriter out = file != null
+        ? new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+        : new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+    try {
+      write(out, System.nanoTime());
+    } finally {
+      if (file != null) {
+        out.close();
+      } else {
+        out.flush();
+      }
+    }
+  }
+
+  void write(PrintWriter out, long endNanos) {
+    long start = startNanos.get();
+    long fault = faultNanos;
+    if (fault != 0) {
+      out.println(String.format("# fault injected at %.3f s", (fault - start) / 1e9));
+    }
+
+    out.println("# unavailability windows: thread,start (s),end (s),duration (ms)");
+    List<long[]> all = new ArrayList<>();
+    for (ThreadWindows w : threads) {
+      for (long[] window : w.closed) {
+        all.add(new long[]{w.thread, window[0], window[1]});
+      }
+      long open = w.start;
+      if (open != 0) {
+        // Still unavailable when the run ended.
+        all.add(new long[]{w.thread, open, endNanos});
+      }
+    }
+    all.sort((a, b) -> Long.compare(a[1], b[1]));
+    long longest = 0;
+    long recovered = 0;
+    for (long[] window : all) {
+      out.println(String.format("%d,%.3f,%.3f,%.1f", window[0], (window[1] - start) / 1e9,
+          (window[2] - start) / 1e9, (window[2] - window[1]) / 1e6));
+      longest = Math.max(longest, window[2] - window[1]);
+      if (fault != 0 && window[2] > fault) {
+        recovered = Math.max(recovered, window[2]);
+      }
+    }
+
+    out.println("# timeline: second,ok,failed,retries,redirects,availability,throughput (ops/s)");
+    long last = -1;
+    for (long index : timeline.keySet()) {
+      last = Math.max(last, index);
+    }
+    for (long index = 0; index <= last; index++) {
+      Second second = timeline.get(index);
+      long ok = second != null ? second.ok.sum() : 0;
+      long failed = second != null ? second.failed.sum() : 0;
+      out.println(String.format("%d,%d,%d,%d,%d,%.4f,%d", index, ok, failed,
+          second != null ? second.retries.sum() : 0, second != null ? second.redirects.sum() : 0,
+          ok + failed > 0 ? (double) ok / (ok + failed) : 0.0, ok));
+    }
+
+    out.println(String.format("# %d unavailability windows, longest %.1f ms", all.size(), longest / 1e6));
+    if (recovered != 0) {
+      out.println(String.format("# all threads available again %.1f ms after the fault", (recovered - fault) / 1e6));
+    }
+  }
+}
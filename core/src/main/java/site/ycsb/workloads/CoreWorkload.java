@@ -24,6 +24,8 @@ import site.ycsb.measurements.Measurements;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The core benchmark scenario. Represents a set of clients doing simple CRUD operations. The
@@ -45,7 +47,28 @@ import java.util.*;
  * <LI><b>readmodifywriteproportion</b>: what proportion of operations should be read a record,
  * modify it, write it back (default: 0)
  * <LI><b>requestdistribution</b>: what distribution should be used to select the records to operate
- * on - uniform, zipfian, hotspot, sequential, exponential or latest (default: uniform)
+ * on - uniform, zipfian, hotspot, shiftinghotspot, session, model, sequential, exponential or latest
+ * (default: uniform)
+ * <LI><b>hotspotshiftmode</b>: for the shiftinghotspot distribution, how the hot set moves - rotate,
+ * jump or diurnal (default: rotate)
+ * <LI><b>hotspotshiftperiod</b>: for the shiftinghotspot distribution, the period of the hot set
+ * movement in seconds (default: 60)
+ * <LI><b>sessionbasedistribution</b>: for the session distribution, the distribution new keys of a
+ * session are drawn from (default: zipfian)
+ * <LI><b>sessionrereferenceprobability</b>: for the session distribution, the probability of
+ * re-reading a key of the current session (default: 0.3)
+ * <LI><b>sessionneighborprobability</b>: for the session distribution, the probability of accessing
+ * the record after the previous one, which is the adjacent key with insertorder=ordered (default: 0.2)
+ * <LI><b>sessionlength</b>: for the session distribution, the mean number of accesses per session
+ * (default: 20)
+ * <LI><b>sessionhistorysize</b>: for the session distribution, how many recent keys of a session can
+ * be re-referenced (default: 16)
+ * <LI><b>accessmodel</b>: the access model file fitted by {@link AccessModelFitter}, used by the model
+ * request and field length distributions (no default)
+ * <LI><b>modeloperationmix</b>: take the operation proportions from the access model instead of the
+ * *proportion properties (default: false)
+ * <LI><b>modelarrivals</b>: pace each thread so the aggregate inter-arrival times follow the access
+ * model; do not combine with a target throughput (default: false)
  * <LI><b>minscanlength</b>: for scans, what is the minimum number of records to scan (default: 1)
  * <LI><b>maxscanlength</b>: for scans, what is the maximum number of records to scan (default: 1000)
  * <LI><b>scanlengthdistribution</b>: for scans, what distribution should be used to choose the
@@ -59,10 +82,26 @@ import java.util.*;
  * For example for row 5, with zeropadding=1 you get 'user5' key and with zeropading=8 you get
  * 'user00000005' key. In order to see its impact, zeropadding needs to be bigger than number of
  * digits in the record number.
+ * <LI><b>keyprefix</b>: the prefix of every record key (default: "user")
  * <LI><b>insertorder</b>: should records be inserted in order by key ("ordered"), or in hashed
  * order ("hashed") (default: hashed)
  * <LI><b>fieldnameprefix</b>: what should be a prefix for field names, the shorter may decrease the
  * required storage size (default: "field")
+ * <LI><b>fieldvaluegenerator</b>: how random field values are produced: "random" generates every byte
+ * per value, "pool" hands out slices of a pregenerated shared pool (default: random)
+ * <LI><b>fieldvaluepoolsize</b>: for the "pool" value generator, the size of the pool in bytes
+ * (default: 4194304)
+ * <LI><b>fieldvaluecompressibility</b>: for the "pool" value generator, the approximate fraction of
+ * each value that a block compressor can remove, between 0 and 1 (default: 0)
+ * <LI><b>reuserecordbuffers</b>: recycle each thread's field maps, field sets, scan result vectors
+ * and value iterators across operations instead of allocating them per operation; only for
+ * bindings that do not keep references to them once a call returns (default: false)
+ * <LI><b>dataintegrity</b>: write verifiable values and check the values returned by reads; must also be
+ * set during the load phase (default: false)
+ * <LI><b>dataintegritymode</b>: how values are verified - "full" rebuilds and compares each deterministic
+ * value and needs a constant field length, "checksum" checks a hash trailer embedded in each random
+ * value while streaming it (default: full)
+ * <LI><b>dataintegritysample</b>: the fraction of reads that are verified (default: 1.0)
  * </ul>
  */
 public class CoreWorkload extends Workload {
@@ -142,6 +181,107 @@ public class CoreWorkload extends Workload {
    */
   protected NumberGenerator fieldlengthgenerator;
 
+  /**
+   * The name of the property for how random field values are generated. Options are "random"
+   * (generate each value byte by byte) and "pool" (slices of a pregenerated pool of random bytes).
+   */
+  public static final String FIELD_VALUE_GENERATOR_PROPERTY = "fieldvaluegenerator";
+
+  /**
+   * The default field value generator.
+   */
+  public static final String FIELD_VALUE_GENERATOR_PROPERTY_DEFAULT = "random";
+
+  /**
+   * The name of the property for the size in bytes of the random value pool (only used if
+   * fieldvaluegenerator is "pool"). The pool is grown to at least twice the field length.
+   */
+  public static final String FIELD_VALUE_POOL_SIZE_PROPERTY = "fieldvaluepoolsize";
+
+  /**
+   * The default size in bytes of the random value pool.
+   */
+  public static final String FIELD_VALUE_POOL_SIZE_PROPERTY_DEFAULT = "4194304";
+
+  /**
+   * The name of the property for the fraction of each pooled value made of repeated bytes (only
+   * used if fieldvaluegenerator is "pool").
+   */
+  public static final String FIELD_VALUE_COMPRESSIBILITY_PROPERTY = "fieldvaluecompressibility";
+
+  /**
+   * The default compressibility of pooled values.
+   */
+  public static final String FIELD_VALUE_COMPRESSIBILITY_PROPERTY_DEFAULT = "0.0";
+
+  /**
+   * Shared pool random field values are sliced from, or null to generate each value from scratch.
+   */
+  protected RandomValuePool valuepool;
+
+  /**
+   * The name of the property for recycling record buffers across the operations of a thread.
+   */
+  public static final String REUSE_RECORD_BUFFERS_PROPERTY = "reuserecordbuffers";
+
+  /**
+   * The default is to allocate new record buffers for every operation.
+   */
+  public static final String REUSE_RECORD_BUFFERS_PROPERTY_DEFAULT = "false";
+
+  protected boolean reuserecordbuffers;
+
+  /**
+   * The buffers a thread recycles across operations when record buffers are reused. Everything
+   * handed to the DB is cleared or rewrapped by the next operation of the same thread.
+   */
+  protected static final class RecordBuffers {
+    private final HashMap<String, ByteIterator> values = new HashMap<>();
+    private final HashMap<String, ByteIterator> cells = new HashMap<>();
+    private final HashSet<String> fields = new HashSet<>();
+    private final Set<String> allfields;
+    private final Vector<HashMap<String, ByteIterator>> scanresults = new Vector<>();
+    private final ReusableByteIterator[] iterators;
+    private final byte[][] stamped;
+
+    private RecordBuffers(List<String> fieldnames) {
+      allfields = Collections.unmodifiableSet(new HashSet<>(fieldnames));
+      iterators = new ReusableByteIterator[fieldnames.size()];
+      for (int i = 0; i < iterators.length; i++) {
+        iterators[i] = new ReusableByteIterator();
+      }
+      stamped = new byte[fieldnames.size()][];
+    }
+
+    private byte[] stamped(int field, int len) {
+      if (stamped[field] == null || stamped[field].length < len) {
+        stamped[field] = new byte[len];
+      }
+      return stamped[field];
+    }
+
+    private HashMap<String, ByteIterator> values() {
+      values.clear();
+      return values;
+    }
+
+    private HashMap<String, ByteIterator> cells() {
+      cells.clear();
+      return cells;
+    }
+
+    private HashSet<String> fields(String fieldname) {
+      fields.clear();
+      fields.add(fieldname);
+      return fields;
+    }
+
+    private Vector<HashMap<String, ByteIterator>> scanresults() {
+      scanresults.clear();
+      return scanresults;
+    }
+  }
+
   /**
    * The name of the property for deciding whether to read one field (false) or all fields (true) of
    * a record.
@@ -200,6 +340,33 @@ public class CoreWorkload extends Workload {
    */
   private boolean dataintegrity;
 
+  /**
+   * The name of the property for how returned data is verified, "full" or "checksum".
+   */
+  public static final String DATA_INTEGRITY_MODE_PROPERTY = "dataintegritymode";
+
+  /**
+   * The default data integrity mode.
+   */
+  public static final String DATA_INTEGRITY_MODE_PROPERTY_DEFAULT = "full";
+
+  /**
+   * The name of the property for the fraction of reads whose data is verified.
+   */
+  public static final String DATA_INTEGRITY_SAMPLE_PROPERTY = "dataintegritysample";
+
+  /**
+   * The default is to verify every read.
+   */
+  public static final String DATA_INTEGRITY_SAMPLE_PROPERTY_DEFAULT = "1.0";
+
+  /**
+   * Set to true if values carry a checksum trailer instead of being fully deterministic.
+   */
+  private boolean checksumintegrity;
+
+  private double integritysample;
+
   /**
    * The name of the property for the proportion of transactions that are reads.
    */
@@ -272,6 +439,16 @@ public class CoreWorkload extends Workload {
    */
   public static final String ZERO_PADDING_PROPERTY_DEFAULT = "1";
 
+  /**
+   * The name of the property for the prefix of record keys.
+   */
+  public static final String KEY_PREFIX_PROPERTY = "keyprefix";
+
+  /**
+   * The default prefix of record keys.
+   */
+  public static final String KEY_PREFIX_PROPERTY_DEFAULT = "user";
+
 
   /**
    * The name of the property for the min scan length (number of records).
@@ -334,6 +511,104 @@ public class CoreWorkload extends Workload {
    */
   public static final String HOTSPOT_OPN_FRACTION_DEFAULT = "0.8";
 
+  /**
+   * How the hot set of the shiftinghotspot distribution moves. Options are "rotate" (advance by the
+   * size of the hot set every period), "jump" (move to a random position every period) and
+   * "diurnal" (drift across the keyspace and back once per period).
+   */
+  public static final String HOTSPOT_SHIFT_MODE = "hotspotshiftmode";
+
+  /**
+   * Default value of the hot set movement mode.
+   */
+  public static final String HOTSPOT_SHIFT_MODE_DEFAULT = "rotate";
+
+  /**
+   * Period, in seconds, of the hot set movement of the shiftinghotspot distribution.
+   */
+  public static final String HOTSPOT_SHIFT_PERIOD = "hotspotshiftperiod";
+
+  /**
+   * Default value of the hot set movement period.
+   */
+  public static final String HOTSPOT_SHIFT_PERIOD_DEFAULT = "60";
+
+  /**
+   * The distribution that the session distribution draws the first and fresh keys of a session
+   * from.
+   */
+  public static final String SESSION_BASE_DISTRIBUTION = "sessionbasedistribution";
+
+  /**
+   * Default value of the session base distribution.
+   */
+  public static final String SESSION_BASE_DISTRIBUTION_DEFAULT = "zipfian";
+
+  /**
+   * Probability that an access in a session re-reads a key already accessed in the session.
+   */
+  public static final String SESSION_REREFERENCE_PROBABILITY = "sessionrereferenceprobability";
+
+  /**
+   * Default value of the session re-reference probability.
+   */
+  public static final String SESSION_REREFERENCE_PROBABILITY_DEFAULT = "0.3";
+
+  /**
+   * Probability that an access in a session goes to the neighbor of the previous key.
+   */
+  public static final String SESSION_NEIGHBOR_PROBABILITY = "sessionneighborprobability";
+
+  /**
+   * Default value of the session neighbor probability.
+   */
+  public static final String SESSION_NEIGHBOR_PROBABILITY_DEFAULT = "0.2";
+
+  /**
+   * Mean number of accesses in a session.
+   */
+  public static final String SESSION_LENGTH = "sessionlength";
+
+  /**
+   * Default value of the mean session length.
+   */
+  public static final String SESSION_LENGTH_DEFAULT = "20";
+
+  /**
+   * Number of most recent keys of a session that can be re-referenced.
+   */
+  public static final String SESSION_HISTORY_SIZE = "sessionhistorysize";
+
+  /**
+   * Default value of the session history size.
+   */
+  public static final String SESSION_HISTORY_SIZE_DEFAULT = "16";
+
+  /**
+   * The name of the access model file, as written by {@link AccessModelFitter}.
+   */
+  public static final String ACCESS_MODEL_FILE_PROPERTY = "accessmodel";
+
+  /**
+   * Whether to take the operation mix from the access model.
+   */
+  public static final String MODEL_OPERATION_MIX_PROPERTY = "modeloperationmix";
+
+  /**
+   * Default value of the model operation mix property.
+   */
+  public static final String MODEL_OPERATION_MIX_PROPERTY_DEFAULT = "false";
+
+  /**
+   * Whether to pace transactions by the inter-arrival times of the access model.
+   */
+  public static final String MODEL_ARRIVALS_PROPERTY = "modelarrivals";
+
+  /**
+   * Default value of the model arrivals property.
+   */
+  public static final String MODEL_ARRIVALS_PROPERTY_DEFAULT = "false";
+
   /**
    * How many times to retry when insertion of a single item to a DB fails.
    */
@@ -366,18 +641,31 @@ public class CoreWorkload extends Workload {
   protected long fieldcount;
   protected long recordcount;
   protected int zeropadding;
+  protected String keyprefix;
   protected int insertionRetryLimit;
   protected int insertionRetryInterval;
+  protected AccessModel accessmodel;
+  protected NumberGenerator arrivalgenerator;
 
   private Measurements measurements = Measurements.getMeasurements();
+  private final ThreadLocal<long[]> nextarrival = new ThreadLocal<long[]>() {
+    @Override
+    protected long[] initialValue() {
+      return new long[1];
+    }
+  };
 
   public static String buildKeyName(long keynum, int zeropadding, boolean orderedinserts) {
+    return buildKeyName(keynum, zeropadding, orderedinserts, KEY_PREFIX_PROPERTY_DEFAULT);
+  }
+
+  public static String buildKeyName(long keynum, int zeropadding, boolean orderedinserts, String prefix) {
     if (!orderedinserts) {
       keynum = Utils.hash(keynum);
     }
     String value = Long.toString(keynum);
     int fill = zeropadding - value.length();
-    String prekey = "user";
+    String prekey = prefix;
     for (int i = 0; i < fill; i++) {
       prekey += '0';
     }
@@ -385,6 +673,17 @@ public class CoreWorkload extends Workload {
   }
 
   protected static NumberGenerator getFieldLengthGenerator(Properties p) throws WorkloadException {
+    return getFieldLengthGenerator(p, null);
+  }
+
+  /**
+   * @param p The workload properties.
+   * @param loadedmodel The access model already loaded, or null to load it if the
+   * field lengths follow the model.
+   * @return The generator of field lengths.
+   */
+  protected static NumberGenerator getFieldLengthGenerator(Properties p, AccessModel loadedmodel)
+      throws WorkloadException {
     NumberGenerator fieldlengthgenerator;
     String fieldlengthdistribution = p.getProperty(
         FIELD_LENGTH_DISTRIBUTION_PROPERTY, FIELD_LENGTH_DISTRIBUTION_PROPERTY_DEFAULT);
@@ -407,6 +706,15 @@ public class CoreWorkload extends Workload {
         throw new WorkloadException(
             "Couldn't read field length histogram file: " + fieldlengthhistogram, e);
       }
+    } else if (fieldlengthdistribution.compareTo("model") == 0) {
+      // The model holds whole value sizes, which are spread over the fields of a record.
+      long fieldcount =
+          Long.parseLong(p.getProperty(FIELD_COUNT_PROPERTY, FIELD_COUNT_PROPERTY_DEFAULT));
+      AccessModel model = loadedmodel != null ? loadedmodel : getAccessModel(p);
+      if (model.getValueSizes().total() == 0) {
+        throw new WorkloadException("Access model has no value sizes");
+      }
+      fieldlengthgenerator = new ModelHistogramGenerator(model.getValueSizes(), fieldcount, 1);
     } else {
       throw new WorkloadException(
           "Unknown field length distribution \"" + fieldlengthdistribution + "\"");
@@ -414,6 +722,40 @@ public class CoreWorkload extends Workload {
     return fieldlengthgenerator;
   }
 
+  protected static AccessModel getAccessModel(Properties p) throws WorkloadException {
+    String modelfile = p.getProperty(ACCESS_MODEL_FILE_PROPERTY);
+    if (modelfile == null) {
+      throw new WorkloadException("The model distributions need an access model file in \""
+          + ACCESS_MODEL_FILE_PROPERTY + "\"");
+    }
+    try {
+      return AccessModel.load(modelfile);
+    } catch (IOException e) {
+      throw new WorkloadException("Couldn't read access model file: " + modelfile, e);
+    }
+  }
+
+  protected static RandomValuePool getValuePool(Properties p) throws WorkloadException {
+    String valuegenerator =
+        p.getProperty(FIELD_VALUE_GENERATOR_PROPERTY, FIELD_VALUE_GENERATOR_PROPERTY_DEFAULT);
+    if (valuegenerator.equals("random")) {
+      return null;
+    } else if (!valuegenerator.equals("pool")) {
+      throw new WorkloadException("Unknown field value generator \"" + valuegenerator + "\"");
+    }
+    int fieldlength =
+        Integer.parseInt(p.getProperty(FIELD_LENGTH_PROPERTY, FIELD_LENGTH_PROPERTY_DEFAULT));
+    int poolsize = Integer.parseInt(
+        p.getProperty(FIELD_VALUE_POOL_SIZE_PROPERTY, FIELD_VALUE_POOL_SIZE_PROPERTY_DEFAULT));
+    double compressibility = Double.parseDouble(p.getProperty(
+        FIELD_VALUE_COMPRESSIBILITY_PROPERTY, FIELD_VALUE_COMPRESSIBILITY_PROPERTY_DEFAULT));
+    try {
+      return new RandomValuePool((int) Math.max(poolsize, 2L * fieldlength), compressibility);
+    } catch (IllegalArgumentException e) {
+      throw new WorkloadException("Invalid field value pool configuration: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * Initialize the scenario.
    * Called once, in the main client thread, before any operations are started.
@@ -421,6 +763,7 @@ public class CoreWorkload extends Workload {
   @Override
   public void init(Properties p) throws WorkloadException {
     table = p.getProperty(TABLENAME_PROPERTY, TABLENAME_PROPERTY_DEFAULT);
+    keyprefix = p.getProperty(KEY_PREFIX_PROPERTY, KEY_PREFIX_PROPERTY_DEFAULT);
 
     fieldcount =
         Long.parseLong(p.getProperty(FIELD_COUNT_PROPERTY, FIELD_COUNT_PROPERTY_DEFAULT));
@@ -429,7 +772,12 @@ public class CoreWorkload extends Workload {
     for (int i = 0; i < fieldcount; i++) {
       fieldnames.add(fieldnameprefix + i);
     }
-    fieldlengthgenerator = CoreWorkload.getFieldLengthGenerator(p);
+    if (p.getProperty(FIELD_LENGTH_DISTRIBUTION_PROPERTY, FIELD_LENGTH_DISTRIBUTION_PROPERTY_DEFAULT)
+        .equals("model")) {
+      accessmodel = getAccessModel(p);
+    }
+    fieldlengthgenerator = CoreWorkload.getFieldLengthGenerator(p, accessmodel);
+    valuepool = CoreWorkload.getValuePool(p);
 
     recordcount =
         Long.parseLong(p.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT));
@@ -464,12 +812,22 @@ public class CoreWorkload extends Workload {
         p.getProperty(READ_ALL_FIELDS_BY_NAME_PROPERTY, READ_ALL_FIELDS_BY_NAME_PROPERTY_DEFAULT));
     writeallfields = Boolean.parseBoolean(
         p.getProperty(WRITE_ALL_FIELDS_PROPERTY, WRITE_ALL_FIELDS_PROPERTY_DEFAULT));
+    reuserecordbuffers = Boolean.parseBoolean(
+        p.getProperty(REUSE_RECORD_BUFFERS_PROPERTY, REUSE_RECORD_BUFFERS_PROPERTY_DEFAULT));
 
     dataintegrity = Boolean.parseBoolean(
         p.getProperty(DATA_INTEGRITY_PROPERTY, DATA_INTEGRITY_PROPERTY_DEFAULT));
-    // Confirm that fieldlengthgenerator returns a constant if data
+    String integritymode = p.getProperty(DATA_INTEGRITY_MODE_PROPERTY, DATA_INTEGRITY_MODE_PROPERTY_DEFAULT);
+    if (integritymode.equals("checksum")) {
+      checksumintegrity = true;
+    } else if (!integritymode.equals("full")) {
+      throw new WorkloadException("Unknown data integrity mode \"" + integritymode + "\"");
+    }
+    integritysample = Double.parseDouble(
+        p.getProperty(DATA_INTEGRITY_SAMPLE_PROPERTY, DATA_INTEGRITY_SAMPLE_PROPERTY_DEFAULT));
+    // Confirm that fieldlengthgenerator returns a constant if full data
     // integrity check requested.
-    if (dataintegrity && !(p.getProperty(
+    if (dataintegrity && !checksumintegrity && !(p.getProperty(
         FIELD_LENGTH_DISTRIBUTION_PROPERTY,
         FIELD_LENGTH_DISTRIBUTION_PROPERTY_DEFAULT)).equals("constant")) {
       System.err.println("Must have constant field size to check data integrity.");
@@ -485,12 +843,69 @@ public class CoreWorkload extends Workload {
       orderedinserts = true;
     }
 
+    boolean modeloperationmix = Boolean.parseBoolean(
+        p.getProperty(MODEL_OPERATION_MIX_PROPERTY, MODEL_OPERATION_MIX_PROPERTY_DEFAULT));
+    boolean modelarrivals = Boolean.parseBoolean(
+        p.getProperty(MODEL_ARRIVALS_PROPERTY, MODEL_ARRIVALS_PROPERTY_DEFAULT));
+    if ((modeloperationmix || modelarrivals) && accessmodel == null) {
+      accessmodel = getAccessModel(p);
+    }
+
     keysequence = new CounterGenerator(insertstart);
-    operationchooser = createOperationGenerator(p);
+    operationchooser = modeloperationmix
+        ? createModelOperationGenerator(accessmodel) : createOperationGenerator(p);
+    if (modelarrivals) {
+      if (accessmodel.getInterArrivalMicros().total() == 0) {
+        throw new WorkloadException("Access model has no inter-arrival times");
+      }
+      // Every thread waits threadcount times the modelled gap, so together they match the model.
+      int threadcount = Integer.parseInt(p.getProperty(Client.THREAD_COUNT_PROPERTY, "1"));
+      arrivalgenerator =
+          new ModelHistogramGenerator(accessmodel.getInterArrivalMicros(), 1.0 / threadcount, 0);
+    }
 
     transactioninsertkeysequence = new AcknowledgedCounterGenerator(recordcount);
+    keychooser = createKeyChooser(requestdistrib, p, insertstart, insertcount);
+
+    fieldchooser = new UniformLongGenerator(0, fieldcount - 1);
+
+    if (scanlengthdistrib.compareTo("uniform") == 0) {
+      scanlength = new UniformLongGenerator(minscanlength, maxscanlength);
+    } else if (scanlengthdistrib.compareTo("zipfian") == 0) {
+      scanlength = new ZipfianGenerator(minscanlength, maxscanlength);
+    } else {
+      throw new WorkloadException(
+          "Distribution \"" + scanlengthdistrib + "\" not allowed for scan length");
+    }
+
+    insertionRetryLimit = Integer.parseInt(p.getProperty(
+        INSERTION_RETRY_LIMIT, INSERTION_RETRY_LIMIT_DEFAULT));
+    insertionRetryInterval = Integer.parseInt(p.getProperty(
+        INSERTION_RETRY_INTERVAL, INSERTION_RETRY_INTERVAL_DEFAULT));
+  }
+
+  /**
+   * Returns the thread's recycled record buffers if they are reused, or null.
+   */
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    return reuserecordbuffers ? new RecordBuffers(fieldnames) : null;
+  }
+
+  /**
+   * Creates the generator choosing the records transactions operate on.
+   *
+   * @param requestdistrib The name of the request distribution.
+   * @param p The workload properties.
+   * @param insertstart The first record of this client.
+   * @param insertcount The number of records of this client.
+   * @return The key chooser.
+   * @throws WorkloadException if the distribution is unknown or misconfigured.
+   */
+  protected NumberGenerator createKeyChooser(String requestdistrib, Properties p, long insertstart,
+                                             long insertcount) throws WorkloadException {
     if (requestdistrib.compareTo("uniform") == 0) {
-      keychooser = new UniformLongGenerator(insertstart, insertstart + insertcount - 1);
+      return new UniformLongGenerator(insertstart, insertstart + insertcount - 1);
     } else if (requestdistrib.compareTo("exponential") == 0) {
       double percentile = Double.parseDouble(p.getProperty(
           ExponentialGenerator.EXPONENTIAL_PERCENTILE_PROPERTY,
@@ -498,9 +913,9 @@ public class CoreWorkload extends Workload {
       double frac = Double.parseDouble(p.getProperty(
           ExponentialGenerator.EXPONENTIAL_FRAC_PROPERTY,
           ExponentialGenerator.EXPONENTIAL_FRAC_DEFAULT));
-      keychooser = new ExponentialGenerator(percentile, recordcount * frac);
+      return new ExponentialGenerator(percentile, recordcount * frac);
     } else if (requestdistrib.compareTo("sequential") == 0) {
-      keychooser = new SequentialGenerator(insertstart, insertstart + insertcount - 1);
+      return new SequentialGenerator(insertstart, insertstart + insertcount - 1);
     } else if (requestdistrib.compareTo("zipfian") == 0) {
       // it does this by generating a random "next key" in part by taking the modulus over the
       // number of keys.
@@ -516,52 +931,76 @@ public class CoreWorkload extends Workload {
       int opcount = Integer.parseInt(p.getProperty(Client.OPERATION_COUNT_PROPERTY));
       int expectednewkeys = (int) ((opcount) * insertproportion * 2.0); // 2 is fudge factor
 
-      keychooser = new ScrambledZipfianGenerator(insertstart, insertstart + insertcount + expectednewkeys);
+      return new ScrambledZipfianGenerator(insertstart, insertstart + insertcount + expectednewkeys);
     } else if (requestdistrib.compareTo("latest") == 0) {
-      keychooser = new SkewedLatestGenerator(transactioninsertkeysequence);
+      return new SkewedLatestGenerator(transactioninsertkeysequence);
     } else if (requestdistrib.equals("hotspot")) {
       double hotsetfraction =
           Double.parseDouble(p.getProperty(HOTSPOT_DATA_FRACTION, HOTSPOT_DATA_FRACTION_DEFAULT));
       double hotopnfraction =
           Double.parseDouble(p.getProperty(HOTSPOT_OPN_FRACTION, HOTSPOT_OPN_FRACTION_DEFAULT));
-      keychooser = new HotspotIntegerGenerator(insertstart, insertstart + insertcount - 1,
+      return new HotspotIntegerGenerator(insertstart, insertstart + insertcount - 1,
           hotsetfraction, hotopnfraction);
+    } else if (requestdistrib.equals("shiftinghotspot")) {
+      double hotsetfraction =
+          Double.parseDouble(p.getProperty(HOTSPOT_DATA_FRACTION, HOTSPOT_DATA_FRACTION_DEFAULT));
+      double hotopnfraction =
+          Double.parseDouble(p.getProperty(HOTSPOT_OPN_FRACTION, HOTSPOT_OPN_FRACTION_DEFAULT));
+      String shiftmode = p.getProperty(HOTSPOT_SHIFT_MODE, HOTSPOT_SHIFT_MODE_DEFAULT);
+      long shiftperiod =
+          Long.parseLong(p.getProperty(HOTSPOT_SHIFT_PERIOD, HOTSPOT_SHIFT_PERIOD_DEFAULT));
+      try {
+        return new ShiftingHotspotGenerator(insertstart, insertstart + insertcount - 1,
+            hotsetfraction, hotopnfraction,
+            ShiftingHotspotGenerator.ShiftMode.valueOf(shiftmode.toUpperCase(Locale.ROOT)),
+            TimeUnit.SECONDS.toMillis(shiftperiod));
+      } catch (IllegalArgumentException e) {
+        throw new WorkloadException("Invalid shiftinghotspot configuration: " + e.getMessage(), e);
+      }
+    } else if (requestdistrib.equals("session")) {
+      String basedistrib =
+          p.getProperty(SESSION_BASE_DISTRIBUTION, SESSION_BASE_DISTRIBUTION_DEFAULT);
+      if (basedistrib.equals("session") || basedistrib.equals("exponential")) {
+        throw new WorkloadException("Distribution \"" + basedistrib + "\" not allowed as session base");
+      }
+      NumberGenerator base = createKeyChooser(basedistrib, p, insertstart, insertcount);
+      double rereference = Double.parseDouble(
+          p.getProperty(SESSION_REREFERENCE_PROBABILITY, SESSION_REREFERENCE_PROBABILITY_DEFAULT));
+      double neighbor = Double.parseDouble(
+          p.getProperty(SESSION_NEIGHBOR_PROBABILITY, SESSION_NEIGHBOR_PROBABILITY_DEFAULT));
+      double sessionlength =
+          Double.parseDouble(p.getProperty(SESSION_LENGTH, SESSION_LENGTH_DEFAULT));
+      int historysize =
+          Integer.parseInt(p.getProperty(SESSION_HISTORY_SIZE, SESSION_HISTORY_SIZE_DEFAULT));
+      try {
+        return new SessionGenerator(base, insertstart, insertstart + insertcount - 1,
+            rereference, neighbor, sessionlength, historysize);
+      } catch (IllegalArgumentException e) {
+        throw new WorkloadException("Invalid session configuration: " + e.getMessage(), e);
+      }
+    } else if (requestdistrib.equals("model")) {
+      // Also reached as the base of the session distribution, so load the model on first use.
+      if (accessmodel == null) {
+        accessmodel = getAccessModel(p);
+      }
+      try {
+        return new ModelKeyGenerator(accessmodel, insertstart, insertstart + insertcount - 1);
+      } catch (IllegalArgumentException e) {
+        throw new WorkloadException("Invalid access model: " + e.getMessage(), e);
+      }
     } else {
       throw new WorkloadException("Unknown request distribution \"" + requestdistrib + "\"");
     }
-
-    fieldchooser = new UniformLongGenerator(0, fieldcount - 1);
-
-    if (scanlengthdistrib.compareTo("uniform") == 0) {
-      scanlength = new UniformLongGenerator(minscanlength, maxscanlength);
-    } else if (scanlengthdistrib.compareTo("zipfian") == 0) {
-      scanlength = new ZipfianGenerator(minscanlength, maxscanlength);
-    } else {
-      throw new WorkloadException(
-          "Distribution \"" + scanlengthdistrib + "\" not allowed for scan length");
-    }
-
-    insertionRetryLimit = Integer.parseInt(p.getProperty(
-        INSERTION_RETRY_LIMIT, INSERTION_RETRY_LIMIT_DEFAULT));
-    insertionRetryInterval = Integer.parseInt(p.getProperty(
-        INSERTION_RETRY_INTERVAL, INSERTION_RETRY_INTERVAL_DEFAULT));
   }
 
   /**
    * Builds a value for a randomly chosen field.
    */
-  private HashMap<String, ByteIterator> buildSingleValue(String key) {
-    HashMap<String, ByteIterator> value = new HashMap<>();
+  HashMap<String, ByteIterator> buildSingleValue(String key, RecordBuffers buffers) {
+    HashMap<String, ByteIterator> value = buffers == null ? new HashMap<>() : buffers.values();
 
-    String fieldkey = fieldnames.get(fieldchooser.nextValue().intValue());
-    ByteIterator data;
-    if (dataintegrity) {
-      data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
-    } else {
-      // fill with random data
-      data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
-    }
-    value.put(fieldkey, data);
+    int field = fieldchooser.nextValue().intValue();
+    value.put(fieldnames.get(field), buildValue(key, field, buffers));
 
     return value;
   }
@@ -569,22 +1008,48 @@ public class CoreWorkload extends Workload {
   /**
    * Builds values for all fields.
    */
-  private HashMap<String, ByteIterator> buildValues(String key) {
-    HashMap<String, ByteIterator> values = new HashMap<>();
+  HashMap<String, ByteIterator> buildValues(String key, RecordBuffers buffers) {
+    HashMap<String, ByteIterator> values = buffers == null ? new HashMap<>() : buffers.values();
 
-    for (String fieldkey : fieldnames) {
-      ByteIterator data;
-      if (dataintegrity) {
-        data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
-      } else {
-        // fill with random data
-        data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
-      }
-      values.put(fieldkey, data);
+    for (int field = 0; field < fieldnames.size(); field++) {
+      values.put(fieldnames.get(field), buildValue(key, field, buffers));
     }
     return values;
   }
 
+  /**
+   * Builds the value of one field, verifiable if data integrity is on.
+   */
+  private ByteIterator buildValue(String key, int field, RecordBuffers buffers) {
+    String fieldkey = fieldnames.get(field);
+    if (!dataintegrity) {
+      // fill with random data
+      return buildRandomValue(buffers == null ? null : buffers.iterators[field]);
+    } else if (!checksumintegrity) {
+      return new StringByteIterator(buildDeterministicValue(key, fieldkey));
+    }
+    long len = fieldlengthgenerator.nextValue().longValue();
+    int ilen = (int) Math.min(Integer.MAX_VALUE, Math.max(len, ValueChecksum.STAMP_LENGTH));
+    byte[] buf = buffers == null ? new byte[ilen] : buffers.stamped(field, ilen);
+    ValueChecksum.fill(key, fieldkey, buf, ilen);
+    return buffers == null ? new ByteArrayByteIterator(buf) : buffers.iterators[field].wrap(buf, 0, ilen);
+  }
+
+  /**
+   * Builds a random value with a length drawn from the field length generator, rewrapping the
+   * given iterator if there is one.
+   */
+  private ByteIterator buildRandomValue(ReusableByteIterator reuse) {
+    long len = fieldlengthgenerator.nextValue().longValue();
+    if (valuepool != null) {
+      return reuse == null ? valuepool.next(len) : valuepool.next(len, reuse);
+    }
+    if (reuse == null || len > Integer.MAX_VALUE) {
+      return new RandomByteIterator(len);
+    }
+    return reuse.wrapRandom((int) len);
+  }
+
   /**
    * Build a deterministic value given the key information.
    */
@@ -612,8 +1077,8 @@ public class CoreWorkload extends Workload {
   @Override
   public boolean doInsert(DB db, Object threadstate) {
     int keynum = keysequence.nextValue().intValue();
-    String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
-    HashMap<String, ByteIterator> values = buildValues(dbkey);
+    String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
+    HashMap<String, ByteIterator> values = buildValues(dbkey, (RecordBuffers) threadstate);
 
     Status status;
     int numOfRetries = 0;
@@ -629,7 +1094,7 @@ public class CoreWorkload extends Workload {
         System.err.println("Retrying insertion, retry count: " + numOfRetries);
         try {
           // Sleep for a random number between [0.8, 1.2)*insertionRetryInterval.
-          int sleepTime = (int) (1000 * insertionRetryInterval * (0.8 + 0.4 * Math.random()));
+          int sleepTime = (int) (1000 * insertionRetryInterval * (0.8 + 0.4 * Utils.random().nextDouble()));
           Thread.sleep(sleepTime);
         } catch (InterruptedException e) {
           break;
@@ -658,27 +1123,48 @@ public class CoreWorkload extends Workload {
     if(operation == null) {
       return false;
     }
+    if (arrivalgenerator != null) {
+      awaitNextArrival();
+    }
 
+    RecordBuffers buffers = (RecordBuffers) threadstate;
     switch (operation) {
     case "READ":
-      doTransactionRead(db);
+      doTransactionRead(db, buffers);
       break;
     case "UPDATE":
-      doTransactionUpdate(db);
+      doTransactionUpdate(db, buffers);
       break;
     case "INSERT":
-      doTransactionInsert(db);
+      doTransactionInsert(db, buffers);
       break;
     case "SCAN":
-      doTransactionScan(db);
+      doTransactionScan(db, buffers);
       break;
     default:
-      doTransactionReadModifyWrite(db);
+      doTransactionReadModifyWrite(db, buffers);
     }
 
     return true;
   }
 
+  /**
+   * Sleeps until this thread's next modelled arrival and records it as the
+   * intended start time, so queueing delay shows up in the intended latencies.
+   */
+  void awaitNextArrival() {
+    long[] next = nextarrival.get();
+    if (next[0] == 0) {
+      next[0] = System.nanoTime();
+    }
+    next[0] += arrivalgenerator.nextValue().longValue() * 1000;
+    long deadline = next[0];
+    while (System.nanoTime() < deadline) {
+      LockSupport.parkNanos(deadline - System.nanoTime());
+    }
+    measurements.setIntendedStartTimeNs(deadline);
+  }
+
   /**
    * Results are reported in the first three buckets of the histogram under
    * the label "VERIFY".
@@ -691,7 +1177,10 @@ public class CoreWorkload extends Workload {
     long startTime = System.nanoTime();
     if (!cells.isEmpty()) {
       for (Map.Entry<String, ByteIterator> entry : cells.entrySet()) {
-        if (!entry.getValue().toString().equals(buildDeterministicValue(key, entry.getKey()))) {
+        boolean valid = checksumintegrity
+            ? entry.getValue() != null && ValueChecksum.verify(key, entry.getKey(), entry.getValue())
+            : entry.getValue().toString().equals(buildDeterministicValue(key, entry.getKey()));
+        if (!valid) {
           verifyStatus = Status.UNEXPECTED_STATE;
           break;
         }
@@ -705,6 +1194,26 @@ public class CoreWorkload extends Workload {
     measurements.reportStatus("VERIFY", verifyStatus);
   }
 
+  /**
+   * @return true if the data returned by this read should be verified.
+   */
+  private boolean shouldVerify() {
+    return dataintegrity && (integritysample >= 1.0 || Utils.random().nextDouble() < integritysample);
+  }
+
+  /**
+   * @return a set holding one randomly chosen field name.
+   */
+  private Set<String> chooseField(RecordBuffers buffers) {
+    String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
+    if (buffers != null) {
+      return buffers.fields(fieldname);
+    }
+    HashSet<String> fields = new HashSet<String>();
+    fields.add(fieldname);
+    return fields;
+  }
+
   long nextKeynum() {
     long keynum;
     if (keychooser instanceof ExponentialGenerator) {
@@ -720,61 +1229,65 @@ public class CoreWorkload extends Workload {
   }
 
   public void doTransactionRead(DB db) {
+    doTransactionRead(db, null);
+  }
+
+  protected void doTransactionRead(DB db, RecordBuffers buffers) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
 
-    HashSet<String> fields = null;
+    Set<String> fields = null;
 
     if (!readallfields) {
       // read a random field
-      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
-
-      fields = new HashSet<String>();
-      fields.add(fieldname);
+      fields = chooseField(buffers);
     } else if (dataintegrity || readallfieldsbyname) {
       // pass the full field list if dataintegrity is on for verification
-      fields = new HashSet<String>(fieldnames);
+      fields = buffers == null ? new HashSet<String>(fieldnames) : buffers.allfields;
     }
 
-    HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+    HashMap<String, ByteIterator> cells =
+        buffers == null ? new HashMap<String, ByteIterator>() : buffers.cells();
     db.read(table, keyname, fields, cells);
 
-    if (dataintegrity) {
+    if (shouldVerify()) {
       verifyRow(keyname, cells);
     }
   }
 
   public void doTransactionReadModifyWrite(DB db) {
+    doTransactionReadModifyWrite(db, null);
+  }
+
+  protected void doTransactionReadModifyWrite(DB db, RecordBuffers buffers) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
 
-    HashSet<String> fields = null;
+    Set<String> fields = null;
 
     if (!readallfields) {
       // read a random field
-      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
-
-      fields = new HashSet<String>();
-      fields.add(fieldname);
+      fields = chooseField(buffers);
     }
 
     HashMap<String, ByteIterator> values;
 
     if (writeallfields) {
       // new data for all the fields
-      values = buildValues(keyname);
+      values = buildValues(keyname, buffers);
     } else {
       // update a random field
-      values = buildSingleValue(keyname);
+      values = buildSingleValue(keyname, buffers);
     }
 
     // do the transaction
 
-    HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+    HashMap<String, ByteIterator> cells =
+        buffers == null ? new HashMap<String, ByteIterator>() : buffers.cells();
 
 
     long ist = measurements.getIntendedStartTimeNs();
@@ -785,7 +1298,7 @@ public class CoreWorkload extends Workload {
 
     long en = System.nanoTime();
 
-    if (dataintegrity) {
+    if (shouldVerify()) {
       verifyRow(keyname, cells);
     }
 
@@ -794,54 +1307,64 @@ public class CoreWorkload extends Workload {
   }
 
   public void doTransactionScan(DB db) {
+    doTransactionScan(db, null);
+  }
+
+  protected void doTransactionScan(DB db, RecordBuffers buffers) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String startkeyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+    String startkeyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
 
     // choose a random scan length
     int len = scanlength.nextValue().intValue();
 
-    HashSet<String> fields = null;
+    Set<String> fields = null;
 
     if (!readallfields) {
       // read a random field
-      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
-
-      fields = new HashSet<String>();
-      fields.add(fieldname);
+      fields = chooseField(buffers);
     }
 
-    db.scan(table, startkeyname, len, fields, new Vector<HashMap<String, ByteIterator>>());
+    db.scan(table, startkeyname, len, fields,
+        buffers == null ? new Vector<HashMap<String, ByteIterator>>() : buffers.scanresults());
   }
 
   public void doTransactionUpdate(DB db) {
+    doTransactionUpdate(db, null);
+  }
+
+  protected void doTransactionUpdate(DB db, RecordBuffers buffers) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+    String keyname = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
 
     HashMap<String, ByteIterator> values;
 
     if (writeallfields) {
       // new data for all the fields
-      values = buildValues(keyname);
+      values = buildValues(keyname, buffers);
     } else {
       // update a random field
-      values = buildSingleValue(keyname);
+      values = buildSingleValue(keyname, buffers);
     }
 
     db.update(table, keyname, values);
   }
 
   public void doTransactionInsert(DB db) {
+    doTransactionInsert(db, null);
+  }
+
+  protected void doTransactionInsert(DB db, RecordBuffers buffers) {
     // choose the next key
     long keynum = transactioninsertkeysequence.nextValue();
 
     try {
-      String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+      String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
 
-      HashMap<String, ByteIterator> values = buildValues(dbkey);
+      HashMap<String, ByteIterator> values = buildValues(dbkey, buffers);
       db.insert(table, dbkey, values);
     } finally {
       transactioninsertkeysequence.acknowledge(keynum);
@@ -895,4 +1418,37 @@ public class CoreWorkload extends Workload {
     }
     return operationchooser;
   }
+
+  /**
+   * Creates a weighted discrete values with database operations for a workload to perform.
+   * Weights are the operation counts of an access model. Operations CoreWorkload does not know
+   * are skipped with a warning.
+   *
+   * @param model The access model to take the operation mix from.
+   * @return A generator that can be used to determine the next operation to perform.
+   * @throws WorkloadException if the model holds none of the known operations.
+   */
+  protected static DiscreteGenerator createModelOperationGenerator(final AccessModel model)
+      throws WorkloadException {
+    final DiscreteGenerator operationchooser = new DiscreteGenerator();
+    boolean empty = true;
+    for (Map.Entry<String, Long> entry : model.getOperations().entrySet()) {
+      switch (entry.getKey()) {
+      case "READ":
+      case "UPDATE":
+      case "INSERT":
+      case "SCAN":
+      case "READMODIFYWRITE":
+        operationchooser.addValue(entry.getValue(), entry.getKey());
+        empty = false;
+        break;
+      default:
+        System.err.println("Skipping unknown operation \"" + entry.getKey() + "\" of the access model");
+      }
+    }
+    if (empty) {
+      throw new WorkloadException("Access model holds none of the known operations");
+    }
+    return operationchooser;
+  }
 }
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A trace of newline separated URLs served straight from a memory-mapped file.
+ * Line start offsets live in a second memory-mapped index file next to the
+ * trace, {@code <trace>.idx}, which is built by one sequential scan the first
+ * time a trace is opened and reused as long as the trace is unchanged. The index
+ * is written to a temporary file and moved into place, so a build that is
+ * interrupted, or races with another process, never leaves a partial index
+ * behind to be mistaken for a complete one. Neither
+ * the URLs nor the index are copied onto the heap, so traces of hundreds of
+ * millions of lines cost no more heap than small ones, and opening an indexed
+ * trace does not read it at all.
+ * <p>
+ * Lines are looked up by number and trimmed like {@link String#trim()}. Lookups
+ * only use absolute reads of the mapped regions, so a trace can be shared by
+ * all client threads.
+ * </p>
+ */
+final class MappedTrace {
+  /** Identifies index files, and their version. */
+  private static final long INDEX_MAGIC = 0x5943534254524331L;
+  /** Magic, trace length and trace modification time. */
+  private static final int INDEX_HEADER_BYTES = 24;
+
+  private final Region trace;
+  private final Region index;
+  private final int size;
+
+  private MappedTrace(Region trace, Region index, int size) {
+    this.trace = trace;
+    this.index = index;
+    this.size = size;
+  }
+
+  /**
+   * Opens a trace, building its index if there is no up to date one.
+   *
+   * @param filePath The trace file.
+   * @param limit The maximum number of lines to expose.
+   * @return The trace.
+   * @throws IOException if the trace cannot be read or indexed.
+   */
+  static MappedTrace open(String filePath, int limit) throws IOException {
+    File traceFile = new File(filePath);
+    Region trace = Region.map(traceFile);
+    File indexFile = new File(filePath + ".idx");
+    if (!isCurrent(indexFile, traceFile)) {
+      if (!canWrite(indexFile)) {
+        indexFile = File.createTempFile(traceFile.getName(), ".idx");
+        indexFile.deleteOnExit();
+      }
+      buildIndex(trace, traceFile, indexFile);
+    }
+    Region index = Region.map(indexFile);
+    // The index holds one offset per line plus the end of the last line.
+    long lines = (index.length() - INDEX_HEADER_BYTES) / 8 - 1;
+    return new MappedTrace(trace, index, (int) Math.min(lines, Math.max(0, limit)));
+  }
+
+  /**
+   * @return the number of lines in the trace.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @param line The line number, starting at 0.
+   * @return the trimmed line, or null if there is no such line.
+   */
+  String get(int line) {
+    if (line < 0 || line >= size) {
+      return null;
+    }
+    long start = index.getLong(INDEX_HEADER_BYTES + 8L * line);
+    // The next line starts after the newline ending this one.
+    long end = index.getLong(INDEX_HEADER_BYTES + 8L * (line + 1)) - 1;
+    // Bytes of multibyte UTF-8 characters are negative, so compare them unsigned.
+    while (start < end && (trace.get(start) & 0xff) <= ' ') {
+      start++;
+    }
+    while (end > start && (trace.get(end - 1) & 0xff) <= ' ') {
+      end--;
+    }
+    byte[] bytes = new byte[(int) (end - start)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = trace.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static boolean isCurrent(File indexFile, File traceFile) throws IOException {
+    long indexLength = indexFile.length();
+    if (!indexFile.isFile() || indexLength < INDEX_HEADER_BYTES + 8 || (indexLength - INDEX_HEADER_BYTES) % 8 != 0) {
+      return false;
+    }
+    try (RandomAccessFile in = new RandomAccessFile(indexFile, "r")) {
+      long traceLength = traceFile.length();
+      if (in.readLong() != INDEX_MAGIC || in.readLong() != traceLength || in.readLong() != traceFile.lastModified()) {
+        return false;
+      }
+      // A complete index ends with the end of the last line, just past the end of the trace.
+      in.seek(indexLength - 8);
+      long end = in.readLong();
+      return end == traceLength || end == traceLength + 1;
+    }
+  }
+
+  private static boolean canWrite(File indexFile) {
+    File dir = indexFile.getAbsoluteFile().getParentFile();
+    return dir != null && dir.canWrite() && (!indexFile.exists() || indexFile.canWrite());
+  }
+
+  /**
+   * Writes the index to a temporary file in the same directory and atomically
+   * replaces the index file with it once complete.
+   */
+  private static void buildIndex(Region trace, File traceFile, File indexFile) throws IOException {
+    File tmpFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getAbsoluteFile().getParentFile());
+    try {
+      writeIndex(trace, traceFile, tmpFile);
+      Files.move(tmpFile.toPath(), indexFile.toPath(),
+          StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmpFile.toPath());
+    }
+  }
+
+  private static void writeIndex(Region trace, File traceFile, File indexFile) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(indexFile), 1 << 16))) {
+      out.writeLong(INDEX_MAGIC);
+      out.writeLong(traceFile.length());
+      out.writeLong(traceFile.lastModified());
+      long length = trace.length();
+      long start = 0;
+      for (long pos = 0; pos < length; pos++) {
+        if (trace.get(pos) == '\n') {
+          out.writeLong(start);
+          start = pos + 1;
+        }
+      }
+      if (start < length) {
+        // Last line without a trailing newline.
+        out.writeLong(start);
+        start = length + 1;
+      }
+      out.writeLong(start);
+    }
+  }
+
+  /**
+   * A read-only file mapped in segments, since a single mapping is limited to
+   * 2 GB. The segment size is a multiple of 8, so longs never straddle segments.
+   */
+  private static final class Region {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private final MappedByteBuffer[] segments;
+    private final long length;
+
+    private Region(MappedByteBuffer[] segments, long length) {
+      this.segments = segments;
+      this.length = length;
+    }
+
+    private static Region map(File file) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+        long length = channel.size();
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+          long offset = (long) i << SEGMENT_BITS;
+          segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, length - offset));
+        }
+        // Mappings stay valid after the channel is closed.
+        return new Region(segments, length);
+      }
+    }
+
+    private long length() {
+      return length;
+    }
+
+    private byte get(long pos) {
+      return segments[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & (SEGMENT_SIZE - 1)));
+    }
+
+    private long getLong(long pos) {
+      return segments[(int) (pos >>> SEGMENT_BITS)].getLong((int) (pos & (SEGMENT_SIZE - 1)));
+    }
+  }
+}
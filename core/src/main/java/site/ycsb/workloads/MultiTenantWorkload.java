@@ -0,0 +1,382 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.Utils;
+import site.ycsb.Workload;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * Runs several independent {@link CoreWorkload}s, one per tenant, against the
+ * same database at once, to measure how tenants interfere with each other.
+ * <p>
+ * Tenants are defined in a spec file in Java properties format, named by the
+ * <b>tenantspec</b> property. The spec lists the tenants in <b>tenants</b> and
+ * configures each of them with any core workload property prefixed by the
+ * tenant name, which overrides the global value for that tenant only. Each
+ * tenant additionally has a <b>share</b> of the operations (default: 1):
+ * </p>
+ * <pre>
+ * tenants=small,big
+ * small.recordcount=10000
+ * small.requestdistribution=zipfian
+ * small.readproportion=0.5
+ * small.updateproportion=0.5
+ * small.share=1
+ * big.recordcount=1000000
+ * big.requestdistribution=uniform
+ * big.share=9
+ * </pre>
+ * <p>
+ * A tenant uses the table named after it and prefixes its keys with its name,
+ * unless <b>&lt;tenant&gt;.table</b> or <b>&lt;tenant&gt;.keyprefix</b> say
+ * otherwise. Transactions pick a tenant in proportion to the shares, so under
+ * a <b>target</b> throughput each tenant runs at its share of the target.
+ * </p>
+ * <p>
+ * Every tenant has its own <b>&lt;tenant&gt;.recordcount</b> records; tenants
+ * without one split what the global <b>recordcount</b> leaves over the others
+ * evenly. The global <b>insertcount</b> and <b>insertstart</b> are not inherited,
+ * so the load phase inserts the <b>&lt;tenant&gt;.insertcount</b> (default: its
+ * recordcount) records of every tenant. Set the global <b>recordcount</b> or
+ * <b>insertcount</b> to the sum over all tenants so the client runs enough inserts.
+ * </p>
+ * <p>
+ * Besides the usual measurements, every operation is measured once more under
+ * its tenant, as <b>&lt;tenant&gt;-READ</b>, <b>&lt;tenant&gt;-UPDATE</b> and
+ * so on, so each tenant's latency under contention is reported separately.
+ * </p>
+ */
+public class MultiTenantWorkload extends Workload {
+
+  /**
+   * The name of the property for the tenant spec file.
+   */
+  public static final String TENANT_SPEC_PROPERTY = "tenantspec";
+
+  /**
+   * The name of the tenant spec property listing the tenants.
+   */
+  public static final String TENANTS_PROPERTY = "tenants";
+
+  /**
+   * The name of the per-tenant spec property for the tenant's share of operations.
+   */
+  public static final String SHARE_PROPERTY = "share";
+
+  /**
+   * The default share of operations of a tenant.
+   */
+  public static final String SHARE_PROPERTY_DEFAULT = "1";
+
+  private String[] names;
+  private Properties[] tenantprops;
+  private CoreWorkload[] tenants;
+  /** Cumulative shares, normalized to end at 1. */
+  private double[] shares;
+  /** Cumulative insert counts, used to split the load phase between tenants. */
+  private long[] inserts;
+  private final AtomicLong insertsequence = new AtomicLong();
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    String specfile = p.getProperty(TENANT_SPEC_PROPERTY);
+    if (specfile == null) {
+      throw new WorkloadException("Missing the tenant spec file property \"" + TENANT_SPEC_PROPERTY + "\"");
+    }
+    Properties spec = new Properties();
+    try (InputStream in = new FileInputStream(specfile)) {
+      spec.load(in);
+    } catch (IOException e) {
+      throw new WorkloadException("Couldn't read tenant spec file: " + specfile, e);
+    }
+    init(p, spec);
+  }
+
+  /**
+   * Initializes the tenants from an already loaded spec.
+   *
+   * @param p The global workload properties.
+   * @param spec The tenant spec.
+   * @throws WorkloadException if the spec is invalid or a tenant fails to initialize.
+   */
+  protected void init(Properties p, Properties spec) throws WorkloadException {
+    String list = spec.getProperty(TENANTS_PROPERTY, "").trim();
+    if (list.isEmpty()) {
+      throw new WorkloadException("The tenant spec lists no tenants in \"" + TENANTS_PROPERTY + "\"");
+    }
+    names = list.split("\\s*,\\s*");
+    if (Arrays.stream(names).distinct().count() != names.length) {
+      throw new WorkloadException("The tenant spec lists a tenant twice: " + list);
+    }
+    tenantprops = new Properties[names.length];
+    tenants = new CoreWorkload[names.length];
+    shares = new double[names.length];
+    inserts = new long[names.length];
+    double sharesum = 0;
+    long insertsum = 0;
+    long recordshare = recordShare(p, spec);
+    for (int i = 0; i < names.length; i++) {
+      tenantprops[i] = tenantProperties(p, spec, names[i], recordshare);
+      try {
+        sharesum += Double.parseDouble(tenantprops[i].getProperty(SHARE_PROPERTY, SHARE_PROPERTY_DEFAULT));
+      } catch (NumberFormatException e) {
+        throw new WorkloadException("Invalid share for tenant " + names[i], e);
+      }
+      shares[i] = sharesum;
+      insertsum += insertCount(tenantprops[i]);
+      inserts[i] = insertsum;
+      tenants[i] = new CoreWorkload();
+      tenants[i].init(tenantprops[i]);
+    }
+    if (sharesum <= 0) {
+      throw new WorkloadException("The tenant shares must sum to more than 0");
+    }
+    for (int i = 0; i < shares.length; i++) {
+      shares[i] /= sharesum;
+    }
+  }
+
+  /**
+   * @return the records of each tenant without its own recordcount: an even split of the global
+   * recordcount less the records of the tenants with their own.
+   */
+  private long recordShare(Properties p, Properties spec) throws WorkloadException {
+    long remaining = Long.parseLong(p.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT));
+    int implicit = 0;
+    for (String name : names) {
+      String own = spec.getProperty(name + "." + Client.RECORD_COUNT_PROPERTY);
+      if (own != null) {
+        remaining -= Long.parseLong(own);
+      } else {
+        implicit++;
+      }
+    }
+    if (implicit == 0) {
+      return 0;
+    }
+    if (remaining < implicit) {
+      throw new WorkloadException("The global " + Client.RECORD_COUNT_PROPERTY + " leaves " + remaining
+          + " records for the " + implicit + " tenants without their own");
+    }
+    return remaining / implicit;
+  }
+
+  /**
+   * Overlays the properties prefixed with the tenant name on the global ones, but for the global
+   * counts, which are sums over all tenants.
+   */
+  private static Properties tenantProperties(Properties p, Properties spec, String name, long recordshare) {
+    Properties props = new Properties();
+    for (String key : p.stringPropertyNames()) {
+      props.setProperty(key, p.getProperty(key));
+    }
+    props.remove(INSERT_COUNT_PROPERTY);
+    props.remove(INSERT_START_PROPERTY);
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, String.valueOf(recordshare));
+    props.setProperty(CoreWorkload.TABLENAME_PROPERTY, name);
+    props.setProperty(CoreWorkload.KEY_PREFIX_PROPERTY, name);
+    String prefix = name + ".";
+    for (String key : spec.stringPropertyNames()) {
+      if (key.startsWith(prefix)) {
+        props.setProperty(key.substring(prefix.length()), spec.getProperty(key));
+      }
+    }
+    return props;
+  }
+
+  private static long insertCount(Properties props) {
+    long recordcount =
+        Long.parseLong(props.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT));
+    long insertstart = Long.parseLong(props.getProperty(INSERT_START_PROPERTY, INSERT_START_PROPERTY_DEFAULT));
+    return Long.parseLong(props.getProperty(INSERT_COUNT_PROPERTY, String.valueOf(recordcount - insertstart)));
+  }
+
+  /**
+   * @return the tenant names, in spec order.
+   */
+  public List<String> getTenants() {
+    return Arrays.asList(names);
+  }
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    Object[] states = new Object[tenants.length];
+    for (int i = 0; i < tenants.length; i++) {
+      states[i] = tenants[i].initThread(tenantprops[i], mythreadid, threadcount);
+    }
+    return new ThreadState(states);
+  }
+
+  @Override
+  public void cleanup() throws WorkloadException {
+    for (CoreWorkload tenant : tenants) {
+      tenant.cleanup();
+    }
+  }
+
+  @Override
+  public boolean doInsert(DB db, Object threadstate) {
+    long n = insertsequence.getAndIncrement();
+    int tenant = Arrays.binarySearch(inserts, n);
+    // Insert n belongs to the first tenant whose cumulative count exceeds it.
+    tenant = tenant >= 0 ? tenant + 1 : -tenant - 1;
+    while (tenant < inserts.length && inserts[tenant] <= n) {
+      tenant++;
+    }
+    if (tenant >= inserts.length) {
+      return false;
+    }
+    ThreadState state = (ThreadState) threadstate;
+    return tenants[tenant].doInsert(state.db(db, tenant), state.states[tenant]);
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    int tenant = nextTenant();
+    ThreadState state = (ThreadState) threadstate;
+    return tenants[tenant].doTransaction(state.db(db, tenant), state.states[tenant]);
+  }
+
+  /**
+   * @return a tenant chosen in proportion to the shares.
+   */
+  int nextTenant() {
+    double r = Utils.random().nextDouble();
+    int idx = Arrays.binarySearch(shares, r);
+    idx = idx >= 0 ? idx + 1 : -idx - 1;
+    return Math.min(idx, shares.length - 1);
+  }
+
+  /**
+   * The tenants' thread states and tenant-tagging views of the thread's database.
+   */
+  private final class ThreadState {
+    private final Object[] states;
+    private final List<TenantDB> dbs = new ArrayList<>();
+
+    private ThreadState(Object[] states) {
+      this.states = states;
+    }
+
+    private DB db(DB db, int tenant) {
+      if (dbs.isEmpty() || dbs.get(0).db != db) {
+        // Client threads always pass the same database, so this happens once per thread.
+        dbs.clear();
+        for (String name : names) {
+          dbs.add(new TenantDB(db, name));
+        }
+      }
+      return dbs.get(tenant);
+    }
+  }
+
+  /**
+   * Measures every operation under its tenant before handing the result on.
+   */
+  private static final class TenantDB extends DB {
+    private final DB db;
+    private final String read;
+    private final String scan;
+    private final String update;
+    private final String insert;
+    private final String delete;
+    private final String transaction;
+    private final Measurements measurements = Measurements.getMeasurements();
+
+    private TenantDB(DB db, String tenant) {
+      this.db = db;
+      read = tenant + "-READ";
+      scan = tenant + "-SCAN";
+      update = tenant + "-UPDATE";
+      insert = tenant + "-INSERT";
+      delete = tenant + "-DELETE";
+      transaction = tenant + "-TXN";
+    }
+
+    @Override
+    public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(read, db.read(table, key, fields, result), ist, st);
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(scan, db.scan(table, startkey, recordcount, fields, result), ist, st);
+    }
+
+    @Override
+    public Status update(String table, String key, Map<String, ByteIterator> values) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(update, db.update(table, key, values), ist, st);
+    }
+
+    @Override
+    public Status insert(String table, String key, Map<String, ByteIterator> values) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(insert, db.insert(table, key, values), ist, st);
+    }
+
+    @Override
+    public Status delete(String table, String key) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(delete, db.delete(table, key), ist, st);
+    }
+
+    @Override
+    public Status transaction(String table, Set<String> readKeys, Map<String, Map<String, ByteIterator>> writes) {
+      long ist = measurements.getIntendedStartTimeNs();
+      long st = System.nanoTime();
+      return measure(transaction, db.transaction(table, readKeys, writes), ist, st);
+    }
+
+    private Status measure(String op, Status result, long intendedStartTimeNanos, long startTimeNanos) {
+      long en = System.nanoTime();
+      String measurementName = result != null && result.isOk() ? op : op + "-FAILED";
+      measurements.measure(measurementName, (int) ((en - startTimeNanos) / 1000));
+      measurements.measureIntended(measurementName, (int) ((en - intendedStartTimeNanos) / 1000));
+      measurements.reportStatus(op, result);
+      return result;
+    }
+  }
+}
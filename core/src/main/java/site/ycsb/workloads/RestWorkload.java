@@ -23,11 +23,8 @@ import site.ycsb.RandomByteIterator;
 import site.ycsb.WorkloadException;
 import site.ycsb.generator.*;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.Properties;
 
 import site.ycsb.generator.UniformLongGenerator;
@@ -96,10 +93,10 @@ public class RestWorkload extends CoreWorkload {
   private static final String UPDATE_ZIPFIAN_CONSTANT_DEAFULT = "0.99";
   private static final String UPDATE_RECORD_COUNT_PROPERTY = "updaterecordcount";
 
-  private Map<Integer, String> readUrlMap;
-  private Map<Integer, String> insertUrlMap;
-  private Map<Integer, String> deleteUrlMap;
-  private Map<Integer, String> updateUrlMap;
+  private MappedTrace readTrace;
+  private MappedTrace insertTrace;
+  private MappedTrace deleteTrace;
+  private MappedTrace updateTrace;
   private int readRecordCount;
   private int insertRecordCount;
   private int deleteRecordCount;
@@ -122,10 +119,10 @@ public class RestWorkload extends CoreWorkload {
     updateRecordCount = Integer
       .parseInt(p.getProperty(UPDATE_RECORD_COUNT_PROPERTY, String.valueOf(Integer.MAX_VALUE)));
 
-    readUrlMap = getTrace(p.getProperty(READ_TRACE_FILE, READ_TRACE_FILE_DEFAULT), readRecordCount);
-    insertUrlMap = getTrace(p.getProperty(INSERT_TRACE_FILE, INSERT_TRACE_FILE_DEFAULT), insertRecordCount);
-    deleteUrlMap = getTrace(p.getProperty(DELETE_TRACE_FILE, DELETE_TRACE_FILE_DEFAULT), deleteRecordCount);
-    updateUrlMap = getTrace(p.getProperty(UPDATE_TRACE_FILE, UPDATE_TRACE_FILE_DEFAULT), updateRecordCount);
+    readTrace = getTrace(p.getProperty(READ_TRACE_FILE, READ_TRACE_FILE_DEFAULT), readRecordCount);
+    insertTrace = getTrace(p.getProperty(INSERT_TRACE_FILE, INSERT_TRACE_FILE_DEFAULT), insertRecordCount);
+    deleteTrace = getTrace(p.getProperty(DELETE_TRACE_FILE, DELETE_TRACE_FILE_DEFAULT), deleteRecordCount);
+    updateTrace = getTrace(p.getProperty(UPDATE_TRACE_FILE, UPDATE_TRACE_FILE_DEFAULT), updateRecordCount);
 
     operationchooser = createOperationGenerator(p);
 
@@ -133,16 +130,16 @@ public class RestWorkload extends CoreWorkload {
     String requestDistrib = p.getProperty(REQUEST_DISTRIBUTION_PROPERTY, REQUEST_DISTRIBUTION_PROPERTY_DEFAULT);
 
     double readZipfconstant = Double.parseDouble(p.getProperty(READ_ZIPFIAN_CONSTANT, READ_ZIPFIAN_CONSTANT_DEAFULT));
-    readKeyChooser = getKeyChooser(requestDistrib, readUrlMap.size(), readZipfconstant, p);
+    readKeyChooser = getKeyChooser(requestDistrib, readTrace.size(), readZipfconstant, p);
     double updateZipfconstant = Double
         .parseDouble(p.getProperty(UPDATE_ZIPFIAN_CONSTANT, UPDATE_ZIPFIAN_CONSTANT_DEAFULT));
-    updateKeyChooser = getKeyChooser(requestDistrib, updateUrlMap.size(), updateZipfconstant, p);
+    updateKeyChooser = getKeyChooser(requestDistrib, updateTrace.size(), updateZipfconstant, p);
     double insertZipfconstant = Double
         .parseDouble(p.getProperty(INSERT_ZIPFIAN_CONSTANT, INSERT_ZIPFIAN_CONSTANT_DEAFULT));
-    insertKeyChooser = getKeyChooser(requestDistrib, insertUrlMap.size(), insertZipfconstant, p);
+    insertKeyChooser = getKeyChooser(requestDistrib, insertTrace.size(), insertZipfconstant, p);
     double deleteZipfconstant = Double
         .parseDouble(p.getProperty(DELETE_ZIPFIAN_CONSTANT, DELETE_ZIPFIAN_CONSTANT_DEAFULT));
-    deleteKeyChooser = getKeyChooser(requestDistrib, deleteUrlMap.size(), deleteZipfconstant, p);
+    deleteKeyChooser = getKeyChooser(requestDistrib, deleteTrace.size(), deleteZipfconstant, p);
 
     fieldlengthgenerator = getFieldLengthGenerator(p);
   }
@@ -206,29 +203,17 @@ public class RestWorkload extends CoreWorkload {
   }
 
   /**
-   * Reads the trace file and returns a URL map.
+   * Maps the trace file, indexing it on first use, and returns a trace of its first recordCount URLs.
    */
-  private static Map<Integer, String> getTrace(String filePath, int recordCount)
+  private static MappedTrace getTrace(String filePath, int recordCount)
     throws WorkloadException {
-    Map<Integer, String> urlMap = new HashMap<Integer, String>();
-    int count = 0;
-    String line;
     try {
-      FileReader inputFile = new FileReader(filePath);
-      BufferedReader bufferReader = new BufferedReader(inputFile);
-      while ((line = bufferReader.readLine()) != null) {
-        urlMap.put(count++, line.trim());
-        if (count >= recordCount) {
-          break;
-        }
-      }
-      bufferReader.close();
+      return MappedTrace.open(filePath, recordCount);
     } catch (IOException e) {
       throw new WorkloadException(
         "Error while reading the trace. Please make sure the trace file path is correct. "
           + e.getLocalizedMessage());
     }
-    return urlMap;
   }
 
   /**
@@ -267,13 +252,13 @@ public class RestWorkload extends CoreWorkload {
    */
   private String getNextURL(int opType) {
     if (opType == 1) {
-      return readUrlMap.get(readKeyChooser.nextValue().intValue());
+      return readTrace.get(readKeyChooser.nextValue().intValue());
     } else if (opType == 2) {
-      return insertUrlMap.get(insertKeyChooser.nextValue().intValue());
+      return insertTrace.get(insertKeyChooser.nextValue().intValue());
     } else if (opType == 3) {
-      return deleteUrlMap.get(deleteKeyChooser.nextValue().intValue());
+      return deleteTrace.get(deleteKeyChooser.nextValue().intValue());
     } else {
-      return updateUrlMap.get(updateKeyChooser.nextValue().intValue());
+      return updateTrace.get(updateKeyChooser.nextValue().intValue());
     }
   }
 
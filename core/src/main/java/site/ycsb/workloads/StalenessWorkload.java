@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.StringByteIterator;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * Measures how stale reads from the replicas of a replicated store are. The
+ * first <b>stalenesswriters</b> client threads are writers: each owns a
+ * partition of the records and keeps overwriting them with values stamped with
+ * a per-record version that grows by one with every write. The other threads
+ * are readers: reader <i>i</i> reads from replica <i>i</i> modulo the number of
+ * replicas through {@link DB#readReplica}, or through the normal read path if
+ * the binding cannot direct reads at replicas.
+ * <p>
+ * For every read the version found is compared with the latest version whose
+ * write had been acknowledged when the read started. The difference is
+ * measured as VERSION-LAG, and the time since the first write the replica
+ * missed was acknowledged, in microseconds, as TIME-LAG; both are 0 for fresh
+ * reads. When reading from replicas, both are also measured per replica as
+ * VERSION-LAG-&lt;replica&gt; and TIME-LAG-&lt;replica&gt;. Read and write latencies
+ * are measured as usual.
+ * </p>
+ * <p>
+ * Versions are tracked in memory, so writers and readers must run in the same
+ * client process. Acknowledgement times are kept for the last 16 versions of
+ * each record; a replica more versions behind reports a lower bound of its time
+ * lag. Records are chosen with the core request distribution, and all core
+ * properties apply except the operation mix.
+ * </p>
+ */
+public class StalenessWorkload extends CoreWorkload {
+
+  /**
+   * The name of the property for the number of writer threads.
+   */
+  public static final String STALENESS_WRITERS_PROPERTY = "stalenesswriters";
+
+  /**
+   * The default number of writer threads.
+   */
+  public static final String STALENESS_WRITERS_PROPERTY_DEFAULT = "1";
+
+  private static final Pattern STAMP = Pattern.compile("#v=(\\d+),t=(-?\\d+)#");
+  /** How many acknowledgement times are kept per record. */
+  private static final int ACK_HISTORY = 16;
+
+  private int writers;
+  private String fieldname;
+  /** The latest acknowledged version of each record. */
+  private AtomicLongArray versions;
+  /** The acknowledgement time of version v of record r, at r * ACK_HISTORY + v % ACK_HISTORY. */
+  private AtomicLongArray acks;
+  private final Measurements measurements = Measurements.getMeasurements();
+
+  /**
+   * The role of a client thread.
+   */
+  private static final class ThreadState {
+    private final int writer;
+    private final int reader;
+    private int replica = -1;
+
+    private ThreadState(int writer, int reader) {
+      this.writer = writer;
+      this.reader = reader;
+    }
+  }
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    super.init(p);
+    writers = Integer.parseInt(p.getProperty(STALENESS_WRITERS_PROPERTY, STALENESS_WRITERS_PROPERTY_DEFAULT));
+    if (writers < 1) {
+      throw new WorkloadException("The staleness workload needs at least one writer");
+    }
+    if (recordcount * ACK_HISTORY > Integer.MAX_VALUE) {
+      throw new WorkloadException("The staleness workload tracks at most "
+          + Integer.MAX_VALUE / ACK_HISTORY + " records");
+    }
+    fieldname = p.getProperty(FIELD_NAME_PREFIX, FIELD_NAME_PREFIX_DEFAULT) + "0";
+    versions = new AtomicLongArray((int) recordcount);
+    acks = new AtomicLongArray((int) recordcount * ACK_HISTORY);
+  }
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    if (threadcount <= writers) {
+      throw new WorkloadException("The staleness workload needs more than the " + writers + " writer threads");
+    }
+    return mythreadid < writers ? new ThreadState(mythreadid, -1) : new ThreadState(-1, mythreadid - writers);
+  }
+
+  @Override
+  public boolean doInsert(DB db, Object threadstate) {
+    int keynum = keysequence.nextValue().intValue();
+    String key = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
+    Status status = db.insert(table, key, stamp(0));
+    return null != status && status.isOk();
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    if (arrivalgenerator != null) {
+      awaitNextArrival();
+    }
+    ThreadState state = (ThreadState) threadstate;
+    if (state.writer >= 0) {
+      doStampedWrite(db, state.writer);
+    } else {
+      doStaleRead(db, state);
+    }
+    return true;
+  }
+
+  /**
+   * Writes the next version of a record of the writer's partition.
+   */
+  private void doStampedWrite(DB db, int writer) {
+    int record = (int) (nextKeynum() / writers * writers + writer);
+    if (record >= versions.length()) {
+      record -= writers;
+    }
+    if (record < 0) {
+      // More writers than records; this writer has nothing to write.
+      return;
+    }
+    long version = versions.get(record) + 1;
+    String key = CoreWorkload.buildKeyName(record, zeropadding, orderedinserts, keyprefix);
+    Status status = db.update(table, key, stamp(version));
+    if (null != status && status.isOk()) {
+      // Record the acknowledgement before publishing the version, so readers always find it.
+      acks.set(record * ACK_HISTORY + (int) (version % ACK_HISTORY), System.nanoTime());
+      versions.set(record, version);
+    }
+  }
+
+  /**
+   * Reads a record from the thread's replica and measures how far behind it is.
+   */
+  private void doStaleRead(DB db, ThreadState state) {
+    if (state.replica < 0) {
+      int replicas = db.replicaCount();
+      state.replica = replicas > 0 ? state.reader % replicas : Integer.MAX_VALUE;
+    }
+    boolean fromReplica = state.replica != Integer.MAX_VALUE;
+    int record = (int) nextKeynum();
+    String key = CoreWorkload.buildKeyName(record, zeropadding, orderedinserts, keyprefix);
+    long acknowledged = versions.get(record);
+    long start = System.nanoTime();
+    Map<String, ByteIterator> result = new HashMap<>();
+    Status status = fromReplica
+        ? db.readReplica(table, key, state.replica, null, result)
+        : db.read(table, key, null, result);
+    if (null == status || !status.isOk()) {
+      return;
+    }
+    long found = -1;
+    for (ByteIterator value : result.values()) {
+      found = Math.max(found, versionOf(value.toString()));
+    }
+    if (found < 0) {
+      measurements.reportStatus("VERSION-LAG", Status.UNEXPECTED_STATE);
+      return;
+    }
+
+    long versionlag = Math.max(0, acknowledged - found);
+    long timelag = 0;
+    if (versionlag > 0) {
+      // The first missed version, or the oldest one still remembered.
+      long missed = Math.max(found + 1, acknowledged - ACK_HISTORY + 1);
+      timelag = Math.max(0, start - acks.get(record * ACK_HISTORY + (int) (missed % ACK_HISTORY))) / 1000;
+    }
+    measureLag(fromReplica ? state.replica : -1, versionlag, timelag);
+  }
+
+  /**
+   * Measures the staleness of one read.
+   *
+   * @param replica The replica read from, or -1 for the normal read path.
+   * @param versionlag The number of acknowledged versions the read missed.
+   * @param timelag How long ago, in microseconds, the first missed version was acknowledged.
+   */
+  void measureLag(int replica, long versionlag, long timelag) {
+    measurements.measure("VERSION-LAG", (int) Math.min(versionlag, Integer.MAX_VALUE));
+    measurements.measure("TIME-LAG", (int) Math.min(timelag, Integer.MAX_VALUE));
+    if (replica >= 0) {
+      measurements.measure("VERSION-LAG-" + replica, (int) Math.min(versionlag, Integer.MAX_VALUE));
+      measurements.measure("TIME-LAG-" + replica, (int) Math.min(timelag, Integer.MAX_VALUE));
+    }
+  }
+
+  private HashMap<String, ByteIterator> stamp(long version) {
+    return stamp(fieldname, fieldlengthgenerator.nextValue().intValue(), version);
+  }
+
+  /**
+   * Builds a value carrying a version and the current {@link System#nanoTime()},
+   * padded to the given length.
+   */
+  static HashMap<String, ByteIterator> stamp(String fieldname, int length, long version) {
+    StringBuilder sb = new StringBuilder("#v=").append(version).append(",t=").append(System.nanoTime()).append('#');
+    while (sb.length() < length) {
+      sb.append('x');
+    }
+    HashMap<String, ByteIterator> values = new HashMap<>();
+    values.put(fieldname, new StringByteIterator(sb.toString()));
+    return values;
+  }
+
+  /**
+   * @return the version stamped into a value, or -1 if it carries none.
+   */
+  static long versionOf(String value) {
+    Matcher matcher = STAMP.matcher(value);
+    return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} stamped into a value with versionOf()'s version.
+   */
+  static long timeOf(String value) {
+    Matcher matcher = STAMP.matcher(value);
+    return matcher.find() ? Long.parseLong(matcher.group(2)) : 0;
+  }
+}
@@ -25,7 +25,6 @@ import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import site.ycsb.ByteIterator;
@@ -34,6 +33,7 @@ import site.ycsb.DB;
 import site.ycsb.NumericByteIterator;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.TimeSeriesBatch;
 import site.ycsb.Utils;
 import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
@@ -147,6 +147,15 @@ import site.ycsb.measurements.Measurements;
  * many unique time series are generated for the workload. Tag values share a common
  * array of generated strings to save on memory.
  * <p>
+ * For cardinalities too high to keep every key and tag value in memory, setting
+ * {@code highcardinality} computes them instead: value <i>i</i> of a tag is the
+ * string the generator would have produced after <i>i</i> calls, decoded digit by
+ * digit from <i>i</i>. Each thread walks its series as a mixed-radix counter over
+ * the key and tag value indices, so memory use does not depend on the cardinality,
+ * and the total number of series may exceed 2^31. With {@code randomtimeseriesorder},
+ * indices are mapped through a permutation derived from a hash of the tag position
+ * rather than shuffled, so every client process computes the same order.
+ * <p>
  * <b>Operation Order</b>
  * <p>
  * The default behavior of the workload (for inserts and updates) is to generate a
@@ -249,11 +258,26 @@ import site.ycsb.measurements.Measurements;
  * series, only 5% of the timestamps in the interval will have a value. The distribution
  * of values is random.
  * <p>
+ * <b>Batches</b>
+ * <p>
+ * If {@code insertbatchsize} is greater than 1, every insert writes that many data
+ * points with a single call to {@link DB#insertBatch(String, TimeSeriesBatch)}, so
+ * {@code recordcount} and {@code insertcount} count batches rather than points. The
+ * points are generated into a {@link TimeSeriesBatch} of primitive columns reused by
+ * the thread. With {@code insertbatchorder} set to {@code timestamp} (the default), a
+ * batch holds the next points in the usual write order, i.e. consecutive series at
+ * the current timestamp. With {@code series}, a batch holds {@code insertbatchsize}
+ * consecutive timestamps of one series, which is incompatible with sparsity and random
+ * timestamp order. The points and bytes of every batch written are measured as
+ * INSERT-BATCH-POINTS and INSERT-BATCH-BYTES, so the points and bytes written per
+ * second are their operation count times their average over the run time.
+ * <p>
  * <b>Notes/Warnings</b>
  * <p>
  * <ul>
  * <li>Because time series keys and tag key/values are generated and stored in memory,
- * be careful of setting the cardinality too high for the JVM's heap.</li>
+ * be careful of setting the cardinality too high for the JVM's heap, or enable
+ * {@code highcardinality}.</li>
  * <li>When running for data integrity, a number of settings are incompatible and will
  * throw errors. Check the error messages for details.</li>
  * <li>Databases that support keys only and can't store tags should order and then 
@@ -403,6 +427,18 @@ public class TimeSeriesWorkload extends Workload {
   /** Name and default value for the downsampling interval property. */
   public static final String DOWNSAMPLING_INTERVAL_PROPERTY = "downsamplinginterval";
   
+  /** Name and default value for the number of data points per insert property. */
+  public static final String INSERT_BATCH_SIZE_PROPERTY = "insertbatchsize";
+  public static final String INSERT_BATCH_SIZE_PROPERTY_DEFAULT = "1";
+  
+  /** Name and default value for the computed series keys and tag values property. */
+  public static final String HIGH_CARDINALITY_PROPERTY = "highcardinality";
+  public static final String HIGH_CARDINALITY_PROPERTY_DEFAULT = "false";
+  
+  /** Name and default value for the order of data points in insert batches property. */
+  public static final String INSERT_BATCH_ORDER_PROPERTY = "insertbatchorder";
+  public static final String INSERT_BATCH_ORDER_PROPERTY_DEFAULT = "timestamp";
+  
   /** The properties to pull settings from. */
   protected Properties properties;
   
@@ -434,14 +470,14 @@ public class TimeSeriesWorkload extends Workload {
   protected ValueType valueType;
   
   /** Used to calculate an offset for each time series. */
-  protected int[] cumulativeCardinality;
+  protected long[] cumulativeCardinality;
   
   /** The calculated total cardinality based on the config. */
-  protected int totalCardinality;
+  protected long totalCardinality;
   
   /** The calculated per-time-series-key cardinality. I.e. the number of unique
    * tag key and value combinations. */
-  protected int perKeyCardinality;
+  protected long perKeyCardinality;
   
   /** How much data to scan for in each call. */
   protected NumberGenerator scanlength;
@@ -480,6 +516,20 @@ public class TimeSeriesWorkload extends Workload {
   /** The cardinality for each tag key. */
   protected int[] tagCardinality;
   
+  /** Whether time series keys and tag values are computed from their index
+   * instead of being generated into {@link #keys} and {@link #tagValues}. */
+  protected boolean highCardinality;
+  
+  /** With high cardinality, the multiplier and offset of the permutation of the
+   * key indices (at 0) and of the value indices of each tag (at tag + 1) when 
+   * the time series order is randomized. */
+  private long[] permutationMultipliers;
+  private long[] permutationOffsets;
+  
+  /** With high cardinality, the generators to compute keys and tag values with. */
+  private IncrementingPrintableStringGenerator computedKeys;
+  private IncrementingPrintableStringGenerator computedTagValues;
+  
   /** A helper to skip non-incrementing tag values. */
   protected int firstIncrementableCardinality;
   
@@ -541,6 +591,13 @@ public class TimeSeriesWorkload extends Workload {
   /** Measurements to write data integrity results to. */
   protected Measurements measurements = Measurements.getMeasurements();
   
+  /** The number of data points written per insert. Batches are written if greater than 1. */
+  protected int insertBatchSize;
+  
+  /** Whether batches hold consecutive timestamps of one series rather than 
+   * consecutive series in the write order. */
+  protected boolean batchBySeries;
+  
   @Override
   public void init(final Properties p) throws WorkloadException {
     properties = p;
@@ -681,6 +738,14 @@ public class TimeSeriesWorkload extends Workload {
     
     valueType = ValueType.fromString(p.getProperty(VALUE_TYPE_PROPERTY, VALUE_TYPE_PROPERTY_DEFAULT));
     table = p.getProperty(CoreWorkload.TABLENAME_PROPERTY, CoreWorkload.TABLENAME_PROPERTY_DEFAULT);
+    insertBatchSize = Integer.parseInt(p.getProperty(INSERT_BATCH_SIZE_PROPERTY, 
+        INSERT_BATCH_SIZE_PROPERTY_DEFAULT));
+    final String batchOrder = p.getProperty(INSERT_BATCH_ORDER_PROPERTY, INSERT_BATCH_ORDER_PROPERTY_DEFAULT);
+    if (batchOrder.equals("series")) {
+      batchBySeries = true;
+    } else if (!batchOrder.equals("timestamp")) {
+      throw new WorkloadException("Unknown " + INSERT_BATCH_ORDER_PROPERTY + " \"" + batchOrder + "\"");
+    }
     initKeysAndTags();
     validateSettings();
   }
@@ -698,6 +763,9 @@ public class TimeSeriesWorkload extends Workload {
     if (threadstate == null) {
       throw new IllegalStateException("Missing thread state.");
     }
+    if (insertBatchSize > 1) {
+      return doInsertBatch(db, (ThreadState) threadstate);
+    }
     final Map<String, ByteIterator> tags = new TreeMap<String, ByteIterator>();
     final String key = ((ThreadState)threadstate).nextDataPoint(tags, true);
     if (db.insert(table, key, tags) == Status.OK) {
@@ -705,6 +773,23 @@ public class TimeSeriesWorkload extends Workload {
     }
     return false;
   }
+  
+  /**
+   * Writes the next {@code insertbatchsize} data points of the thread in one 
+   * {@link DB#insertBatch(String, TimeSeriesBatch)} call.
+   * @param db The DB to write to.
+   * @param state The thread's state.
+   * @return Whether the batch was written.
+   */
+  protected boolean doInsertBatch(final DB db, final ThreadState state) {
+    final TimeSeriesBatch batch = state.nextBatch();
+    if (!db.insertBatch(table, batch).isOk()) {
+      return false;
+    }
+    measurements.measure("INSERT-BATCH-POINTS", batch.size());
+    measurements.measure("INSERT-BATCH-BYTES", (int) Math.min(batch.bytes(), Integer.MAX_VALUE));
+    return true;
+  }
 
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
@@ -735,8 +820,8 @@ public class TimeSeriesWorkload extends Workload {
 
   protected void doTransactionRead(final DB db, Object threadstate) {
     final ThreadState state = (ThreadState) threadstate;
-    final String keyname = keys[keychooser.nextValue().intValue()];
-    final Random random = ThreadLocalRandom.current();
+    final String keyname = key(keychooser.nextValue().intValue());
+    final Random random = Utils.random();
     int offsets = state.queryOffsetGenerator.nextValue().intValue();
     //int offsets = random.nextInt(maxOffsets - 1);
     final long startTimestamp;
@@ -753,7 +838,7 @@ public class TimeSeriesWorkload extends Workload {
         fields.add(tagKeys[i]);
       } else {
         fields.add(tagKeys[i] + tagPairDelimiter + 
-            tagValues[random.nextInt(tagCardinality[i])]);
+            tagValue(i, random.nextInt(tagCardinality[i])));
       }
     }
     
@@ -798,8 +883,8 @@ public class TimeSeriesWorkload extends Workload {
   
   protected void doTransactionScan(final DB db, Object threadstate) {
     final ThreadState state = (ThreadState) threadstate;
-    final Random random = ThreadLocalRandom.current();
-    final String keyname = keys[random.nextInt(keys.length)];
+    final Random random = Utils.random();
+    final String keyname = key(random.nextInt(numKeys));
     
     // choose a random scan length
     int len = scanlength.nextValue().intValue();
@@ -819,7 +904,7 @@ public class TimeSeriesWorkload extends Workload {
         fields.add(tagKeys[i]);
       } else {
         fields.add(tagKeys[i] + tagPairDelimiter + 
-            tagValues[random.nextInt(tagCardinality[i])]);
+            tagValue(i, random.nextInt(tagCardinality[i])));
       }
     }
     
@@ -847,8 +932,8 @@ public class TimeSeriesWorkload extends Workload {
   
   protected void doTransactionDelete(final DB db, Object threadstate) {
     final ThreadState state = (ThreadState) threadstate;
-    final Random random = ThreadLocalRandom.current();
-    final StringBuilder buf = new StringBuilder().append(keys[random.nextInt(keys.length)]);
+    final Random random = Utils.random();
+    final StringBuilder buf = new StringBuilder().append(key(random.nextInt(numKeys)));
     
     int offsets = random.nextInt(maxOffsets - 1);
     final long startTimestamp;
@@ -865,7 +950,7 @@ public class TimeSeriesWorkload extends Workload {
            .append(tagKeys[i]);
       } else {
         buf.append(deleteDelimiter).append(tagKeys[i] + tagPairDelimiter + 
-            tagValues[random.nextInt(tagCardinality[i])]);
+            tagValue(i, random.nextInt(tagCardinality[i])));
       }
     }
     
@@ -934,7 +1019,7 @@ public class TimeSeriesWorkload extends Workload {
    */
   protected long validationFunction(final String key, final long timestamp, 
                                     final TreeMap<String, String> tags) {
-    final StringBuilder validationBuffer = new StringBuilder(keys[0].length() + 
+    final StringBuilder validationBuffer = new StringBuilder(key(0).length() + 
         (tagPairs * tagKeys[0].length()) + (tagPairs * tagCardinality[1]));
     for (final Entry<String, String> pair : tags.entrySet()) {
       validationBuffer.append(pair.getKey()).append(pair.getValue());
@@ -955,6 +1040,8 @@ public class TimeSeriesWorkload extends Workload {
         TAG_KEY_LENGTH_PROPERTY, TAG_KEY_LENGTH_PROPERTY_DEFAULT));
     final int tagValueLength = Integer.parseInt(properties.getProperty(
         TAG_VALUE_LENGTH_PROPERTY, TAG_VALUE_LENGTH_PROPERTY_DEFAULT));
+    highCardinality = Boolean.parseBoolean(properties.getProperty(HIGH_CARDINALITY_PROPERTY, 
+        HIGH_CARDINALITY_PROPERTY_DEFAULT));
     
     keyGenerator = new IncrementingPrintableStringGenerator(keyLength);
     tagKeyGenerator = new IncrementingPrintableStringGenerator(tagKeyLength);
@@ -969,6 +1056,7 @@ public class TimeSeriesWorkload extends Workload {
     totalCardinality = numKeys;
     perKeyCardinality = 1;
     int maxCardinality = 0;
+    final long maxSeries = Long.MAX_VALUE / Math.max(1, numKeys);
     for (final String card : tagCardinalityParts) {
       try {
         tagCardinality[idx] = Integer.parseInt(card.trim());
@@ -980,6 +1068,9 @@ public class TimeSeriesWorkload extends Workload {
         throw new WorkloadException("Cardinality must be greater than zero: " + 
             tagCardinality[idx]);
       }
+      if (perKeyCardinality > maxSeries / tagCardinality[idx]) {
+        throw new WorkloadException("The product of the cardinalities is too large.");
+      }
       totalCardinality *= tagCardinality[idx];
       perKeyCardinality *= tagCardinality[idx];
       if (tagCardinality[idx] > maxCardinality) {
@@ -1009,35 +1100,41 @@ public class TimeSeriesWorkload extends Workload {
       }
     }
     
-    keys = new String[numKeys];
     tagKeys = new String[tagPairs];
-    tagValues = new String[maxCardinality];
-    for (int i = 0; i < numKeys; ++i) {
-      keys[i] = keyGenerator.nextString();
-    }
-
     for (int i = 0; i < tagPairs; ++i) {
       tagKeys[i] = tagKeyGenerator.nextString();
     }
     
-    for (int i = 0; i < maxCardinality; i++) {
-      tagValues[i] = tagValueGenerator.nextString();
-    }
-    if (randomizeTimeseriesOrder) {
-      Utils.shuffleArray(keys);
-      Utils.shuffleArray(tagValues);
+    if (highCardinality) {
+      initComputedKeysAndTags(maxCardinality);
+    } else {
+      keys = new String[numKeys];
+      tagValues = new String[maxCardinality];
+      for (int i = 0; i < numKeys; ++i) {
+        keys[i] = keyGenerator.nextString();
+      }
+      
+      for (int i = 0; i < maxCardinality; i++) {
+        tagValues[i] = tagValueGenerator.nextString();
+      }
+      if (randomizeTimeseriesOrder) {
+        Utils.shuffleArray(keys);
+        Utils.shuffleArray(tagValues);
+      }
     }
     
-    maxOffsets = (recordcount / totalCardinality) + 1;
+    // Every insert writes insertBatchSize data points.
+    maxOffsets = (int) Math.min(Integer.MAX_VALUE - 1, 
+        (long) recordcount * Math.max(1, insertBatchSize) / totalCardinality + 1);
     final int[] keyAndTagCardinality = new int[tagPairs + 1];
     keyAndTagCardinality[0] = numKeys;
     for (int i = 0; i < tagPairs; i++) {
       keyAndTagCardinality[i + 1] = tagCardinality[i];
     }
     
-    cumulativeCardinality = new int[keyAndTagCardinality.length];
+    cumulativeCardinality = new long[keyAndTagCardinality.length];
     for (int i = 0; i < keyAndTagCardinality.length; i++) {
-      int cumulation = 1;
+      long cumulation = 1;
       for (int x = i; x <= keyAndTagCardinality.length - 1; x++) {
         cumulation *= keyAndTagCardinality[x];
       }
@@ -1048,11 +1145,88 @@ public class TimeSeriesWorkload extends Workload {
     cumulativeCardinality[cumulativeCardinality.length - 1] = 1;
   }
   
+  /**
+   * Sets up computing time series keys and tag values from their index, so no
+   * memory is spent on them however high the cardinality. Index <i>i</i> is 
+   * decoded into the string the key or tag value generator would have produced 
+   * after <i>i</i> calls. When the time series order is randomized, indices are 
+   * first mapped through a permutation of the key or tag's cardinality, an affine
+   * function with a multiplier and offset derived from a hash of the key or tag's
+   * position, so every process of a run computes the same order.
+   * @param maxCardinality The highest tag cardinality.
+   * @throws WorkloadException If the keys or tag values are too short to be unique.
+   */
+  protected void initComputedKeysAndTags(final int maxCardinality) throws WorkloadException {
+    computedKeys = (IncrementingPrintableStringGenerator) keyGenerator;
+    computedTagValues = (IncrementingPrintableStringGenerator) tagValueGenerator;
+    if (computedKeys.distinctValues() < numKeys) {
+      throw new WorkloadException("The field length is too short for " + numKeys + " unique keys.");
+    }
+    if (computedTagValues.distinctValues() < maxCardinality) {
+      throw new WorkloadException("The tag value length is too short for " + maxCardinality 
+          + " unique tag values.");
+    }
+    permutationMultipliers = new long[tagPairs + 1];
+    permutationOffsets = new long[tagPairs + 1];
+    for (int i = 0; i <= tagPairs; i++) {
+      final long cardinality = i == 0 ? numKeys : tagCardinality[i - 1];
+      if (!randomizeTimeseriesOrder || cardinality == 1) {
+        permutationMultipliers[i] = 1;
+        continue;
+      }
+      final long hash = Utils.fnvhash64(i);
+      long multiplier = 1 + Math.floorMod(hash, cardinality - 1);
+      while (gcd(multiplier, cardinality) != 1) {
+        multiplier = multiplier % (cardinality - 1) + 1;
+      }
+      permutationMultipliers[i] = multiplier;
+      permutationOffsets[i] = Math.floorMod(Utils.fnvhash64(hash), cardinality);
+    }
+  }
+  
+  private static long gcd(final long a, final long b) {
+    return b == 0 ? a : gcd(b, a % b);
+  }
+  
+  /**
+   * @param index The index of the key, from 0 to the {@code fieldcount}.
+   * @return The time series key.
+   */
+  protected String key(final int index) {
+    if (!highCardinality) {
+      return keys[index];
+    }
+    return computedKeys.valueAt(permute(0, index, numKeys));
+  }
+  
+  /**
+   * @param tag The index of the tag key.
+   * @param index The index of the value, from 0 to the tag's cardinality.
+   * @return The tag value.
+   */
+  protected String tagValue(final int tag, final int index) {
+    if (!highCardinality) {
+      return tagValues[index];
+    }
+    return computedTagValues.valueAt(permute(tag + 1, index, tagCardinality[tag]));
+  }
+  
+  private long permute(final int position, final int index, final long cardinality) {
+    return (permutationMultipliers[position] * index + permutationOffsets[position]) % cardinality;
+  }
+  
   /**
    * Makes sure the settings as given are compatible.
    * @throws WorkloadException If one or more settings were invalid.
    */
   protected void validateSettings() throws WorkloadException {
+    if (insertBatchSize < 1) {
+      throw new WorkloadException("'" + INSERT_BATCH_SIZE_PROPERTY + "' must be at least 1.");
+    }
+    if (batchBySeries && (randomizeTimestampOrder || sparsity > 0)) {
+      throw new WorkloadException("Batches in series order write consecutive timestamps. "
+          + "'randomwritetimestamporder' must be false and 'sparsity' 0.");
+    }
     if (dataintegrity) {
       if (valueType != ValueType.INTEGERS) {
         throw new WorkloadException("Data integrity was enabled. 'valuetype' must "
@@ -1110,6 +1284,20 @@ public class TimeSeriesWorkload extends Workload {
     /** The starting timestamp. */
     protected long startTimestamp;
     
+    /** The key, tag values and their indices, timestamp and value of the last 
+     * generated data point. */
+    private String pointKey;
+    private int pointKeyIdx;
+    private final String[] pointTags = new String[tagPairs];
+    private final int[] pointTagIdxs = new int[tagPairs];
+    private long pointTimestamp;
+    private boolean pointFloat;
+    private long pointLong;
+    private double pointDouble;
+    
+    /** The batch reused for inserts in batch mode. */
+    private TimeSeriesBatch batch;
+    
     /**
      * Default ctor.
      * @param threadID The zero based thread ID.
@@ -1123,16 +1311,16 @@ public class TimeSeriesWorkload extends Workload {
         throw new IllegalStateException("Thread ID " + threadID + " cannot be greater "
             + "than or equal than the thread count " + totalThreads);
       }
-      if (keys.length < threadCount) {
+      if (numKeys < threadCount) {
         throw new WorkloadException("Thread count " + totalThreads + " must be greater "
-            + "than or equal to key count " + keys.length);
+            + "than or equal to key count " + numKeys);
       }
       
-      int keysPerThread = keys.length / totalThreads;
+      int keysPerThread = numKeys / totalThreads;
       keyIdx = keysPerThread * threadID;
       keyIdxStart = keyIdx;
       if (totalThreads - 1 == threadID) {
-        keyIdxEnd = keys.length;
+        keyIdxEnd = numKeys;
       } else {
         keyIdxEnd = keyIdxStart + keysPerThread;
       }
@@ -1173,7 +1361,70 @@ public class TimeSeriesWorkload extends Workload {
      * @return The next key to write.
      */
     protected String nextDataPoint(final Map<String, ByteIterator> map, final boolean isInsert) {
-      final Random random = ThreadLocalRandom.current();
+      final String key = nextPoint(isInsert);
+      for (int i = 0; i < tagPairs; ++i) {
+        map.put(tagKeys[i], new StringByteIterator(pointTags[i]));
+      }
+      map.put(timestampKey, new NumericByteIterator(pointTimestamp));
+      map.put(valueKey, pointFloat ? new NumericByteIterator(pointDouble) : new NumericByteIterator(pointLong));
+      return key;
+    }
+    
+    /**
+     * Generates the thread's next {@code insertbatchsize} data points for inserts.
+     * @return The thread's batch, filled with the points.
+     */
+    protected TimeSeriesBatch nextBatch() {
+      if (batch == null) {
+        batch = new TimeSeriesBatch(tagKeys, insertBatchSize);
+      }
+      batch.clear();
+      if (!batchBySeries) {
+        for (int i = 0; i < insertBatchSize; i++) {
+          addPoint(nextPoint(true));
+        }
+        return batch;
+      }
+      
+      // Consecutive timestamps of the next series. Once every series has been
+      // written, the next batches start insertBatchSize intervals later.
+      if (rollover) {
+        for (int i = 1; i < insertBatchSize; i++) {
+          timestampGenerator.nextValue();
+        }
+      }
+      final String key = nextPoint(true);
+      addPoint(key);
+      final long firstTimestamp = pointTimestamp;
+      final long seriesTimestamp = timestampGenerator.currentValue();
+      final TreeMap<String, String> validationTags = dataintegrity ? new TreeMap<String, String>() : null;
+      for (int i = 0; dataintegrity && i < tagPairs; i++) {
+        validationTags.put(tagKeys[i], pointTags[i]);
+      }
+      for (int i = 1; i < insertBatchSize; i++) {
+        pointTimestamp = firstTimestamp + (long) timestampInterval * i;
+        nextValue(key, seriesTimestamp + (long) timestampInterval * i, validationTags);
+        addPoint(key);
+      }
+      return batch;
+    }
+    
+    private void addPoint(final String key) {
+      if (pointFloat) {
+        batch.add(key, pointTags, pointTimestamp, pointDouble);
+      } else {
+        batch.add(key, pointTags, pointTimestamp, pointLong);
+      }
+    }
+    
+    /**
+     * Generates the next write value for thread into the point fields.
+     * @param isInsert Whether or not it's an insert or an update. Updates will pick
+     * an older timestamp (if random isn't enabled).
+     * @return The next key to write.
+     */
+    private String nextPoint(final boolean isInsert) {
+      final Random random = Utils.random();
       int iterations = sparsity <= 0 ? 1 : random.nextInt((int) ((double) perKeyCardinality * sparsity));
       if (iterations < 1) {
         iterations = 1;
@@ -1192,13 +1443,22 @@ public class TimeSeriesWorkload extends Workload {
           } else {
             validationTags = null;
           }
-          key = keys[keyIdx];
-          int overallIdx = keyIdx * cumulativeCardinality[0];
+          // Only look up what changed since the last point, as keys and tag values
+          // may be computed.
+          if (keyIdx != pointKeyIdx || pointKey == null) {
+            pointKey = key(keyIdx);
+            pointKeyIdx = keyIdx;
+          }
+          key = pointKey;
+          long overallIdx = keyIdx * cumulativeCardinality[0];
           for (int i = 0; i < tagPairs; ++i) {
             int tvidx = tagValueIdxs[i];
-            map.put(tagKeys[i], new StringByteIterator(tagValues[tvidx]));
+            if (tvidx != pointTagIdxs[i] || pointTags[i] == null) {
+              pointTags[i] = tagValue(i, tvidx);
+              pointTagIdxs[i] = tvidx;
+            }
             if (dataintegrity) {
-              validationTags.put(tagKeys[i], tagValues[tvidx]);
+              validationTags.put(tagKeys[i], pointTags[i]);
             }
             if (delayedSeries > 0) {
               overallIdx += (tvidx * cumulativeCardinality[i + 1]);
@@ -1208,48 +1468,25 @@ public class TimeSeriesWorkload extends Workload {
           if (!isInsert) {
             final long delta = (timestampGenerator.currentValue() - startTimestamp) / timestampInterval;
             final int intervals = random.nextInt((int) delta);
-            map.put(timestampKey, new NumericByteIterator(startTimestamp + (intervals * timestampInterval)));
+            pointTimestamp = startTimestamp + (intervals * timestampInterval);
           } else if (delayedSeries > 0) {
             // See if the series falls in a delay bucket and calculate an offset earlier
             // than the current timestamp value if so.
             double pct = (double) overallIdx / (double) totalCardinality;
             if (pct < delayedSeries) {
-              int modulo = overallIdx % delayedIntervals;
+              int modulo = (int) (overallIdx % delayedIntervals);
               if (modulo < 0) {
                 modulo *= -1;
               }
-              map.put(timestampKey, new NumericByteIterator(timestampGenerator.currentValue() - 
-                  timestampInterval * modulo));
+              pointTimestamp = timestampGenerator.currentValue() - timestampInterval * modulo;
             } else {
-              map.put(timestampKey, new NumericByteIterator(timestampGenerator.currentValue()));
+              pointTimestamp = timestampGenerator.currentValue();
             }
           } else {
-            map.put(timestampKey, new NumericByteIterator(timestampGenerator.currentValue()));
+            pointTimestamp = timestampGenerator.currentValue();
           }
           
-          if (dataintegrity) {
-            map.put(valueKey, new NumericByteIterator(validationFunction(key, 
-                timestampGenerator.currentValue(), validationTags)));
-          } else {
-            switch (valueType) {
-            case INTEGERS:
-              map.put(valueKey, new NumericByteIterator(random.nextInt()));
-              break;
-            case FLOATS:
-              map.put(valueKey, new NumericByteIterator(random.nextDouble() * (double) 100000));
-              break;
-            case MIXED:
-              if (random.nextBoolean()) {
-                map.put(valueKey, new NumericByteIterator(random.nextInt()));
-              } else {
-                map.put(valueKey, new NumericByteIterator(random.nextDouble() * (double) 100000));
-              }
-              break;
-            default:
-              throw new IllegalStateException("Somehow we didn't have a value "
-                  + "type configured that we support: " + valueType);
-            }        
-          }
+          nextValue(key, timestampGenerator.currentValue(), validationTags);
         }
         
         boolean tagRollover = false;
@@ -1284,6 +1521,41 @@ public class TimeSeriesWorkload extends Workload {
         }
       }
     }
+    
+    /**
+     * Generates the value of a data point into the point fields.
+     * @param key The time series key.
+     * @param timestamp The timestamp for the data integrity hash.
+     * @param validationTags The tags for the data integrity hash, if enabled.
+     */
+    private void nextValue(final String key, final long timestamp, final TreeMap<String, String> validationTags) {
+      final Random random = Utils.random();
+      if (dataintegrity) {
+        pointFloat = false;
+        pointLong = validationFunction(key, timestamp, validationTags);
+      } else {
+        switch (valueType) {
+        case INTEGERS:
+          pointFloat = false;
+          pointLong = random.nextInt();
+          break;
+        case FLOATS:
+          pointFloat = true;
+          pointDouble = random.nextDouble() * (double) 100000;
+          break;
+        case MIXED:
+          pointFloat = !random.nextBoolean();
+          if (pointFloat) {
+            pointDouble = random.nextDouble() * (double) 100000;
+          } else {
+            pointLong = random.nextInt();
+          }
+          break;
+        default:
+          throw new IllegalStateException("Somehow we didn't have a value "
+              + "type configured that we support: " + valueType);
+        }
+      }
+    }
   }
-
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import site.ycsb.ByteArrayByteIterator;
+import site.ycsb.ByteIterator;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.Utils;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * A workload of optimistic multi-key transactions, run through
+ * {@link DB#transaction(String, Set, Map)}. Each transaction reads a set of
+ * records and updates another set, and commits only if none of them was
+ * modified concurrently; aborted transactions are retried on the same records.
+ * Records are loaded and chosen like in {@link CoreWorkload}, whose properties
+ * all apply. In addition:
+ * <UL>
+ * <LI><b>txnreadkeys</b>: the number of records a transaction only reads (default: 2)
+ * <LI><b>txnwritekeys</b>: the number of records a transaction updates (default: 2)
+ * <LI><b>txnhotkeys</b>: the number of records, from the start of the keyspace, forming a hot set
+ * (default: 0)
+ * <LI><b>txnhotproportion</b>: the probability that each record of a transaction is drawn from the hot
+ * set instead of the request distribution; together with the number of threads and the size of the hot
+ * set this controls the conflict rate (default: 0)
+ * <LI><b>txnmaxretries</b>: how many times an aborted transaction is retried before giving up (default: 3)
+ * </ul>
+ * Besides the TXN measurement of every attempt, transactions are measured as
+ * TXN-COMMIT, the latency from the first attempt to the commit, and TXN-ABORT,
+ * the latency of transactions that gave up. TXN-RETRIES records the number of
+ * retries of each transaction and counts its outcome as a return code, OK for
+ * commits and CONFLICT for aborts, so the abort rate and the goodput, committed
+ * transactions per second, follow from the exported results. When the run ends,
+ * the commit, abort and retry rates and the goodput are also printed to stderr.
+ */
+public class TransactionalWorkload extends CoreWorkload {
+
+  /**
+   * The name of the property for the number of records a transaction only reads.
+   */
+  public static final String TXN_READ_KEYS_PROPERTY = "txnreadkeys";
+
+  /**
+   * The default number of records a transaction only reads.
+   */
+  public static final String TXN_READ_KEYS_PROPERTY_DEFAULT = "2";
+
+  /**
+   * The name of the property for the number of records a transaction updates.
+   */
+  public static final String TXN_WRITE_KEYS_PROPERTY = "txnwritekeys";
+
+  /**
+   * The default number of records a transaction updates.
+   */
+  public static final String TXN_WRITE_KEYS_PROPERTY_DEFAULT = "2";
+
+  /**
+   * The name of the property for the size of the hot set.
+   */
+  public static final String TXN_HOT_KEYS_PROPERTY = "txnhotkeys";
+
+  /**
+   * The default size of the hot set.
+   */
+  public static final String TXN_HOT_KEYS_PROPERTY_DEFAULT = "0";
+
+  /**
+   * The name of the property for the probability of drawing a record from the hot set.
+   */
+  public static final String TXN_HOT_PROPORTION_PROPERTY = "txnhotproportion";
+
+  /**
+   * The default probability of drawing a record from the hot set.
+   */
+  public static final String TXN_HOT_PROPORTION_PROPERTY_DEFAULT = "0";
+
+  /**
+   * The name of the property for the number of retries of an aborted transaction.
+   */
+  public static final String TXN_MAX_RETRIES_PROPERTY = "txnmaxretries";
+
+  /**
+   * The default number of retries of an aborted transaction.
+   */
+  public static final String TXN_MAX_RETRIES_PROPERTY_DEFAULT = "3";
+
+  private int readkeys;
+  private int writekeys;
+  private long hotkeys;
+  private double hotproportion;
+  private int maxretries;
+
+  private final Measurements measurements = Measurements.getMeasurements();
+  private final AtomicLong committed = new AtomicLong();
+  private final AtomicLong aborted = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong conflicts = new AtomicLong();
+  private final AtomicLong attempts = new AtomicLong();
+  private final AtomicLong firststart = new AtomicLong();
+  private final AtomicLong lastend = new AtomicLong();
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    super.init(p);
+    readkeys = Integer.parseInt(p.getProperty(TXN_READ_KEYS_PROPERTY, TXN_READ_KEYS_PROPERTY_DEFAULT));
+    writekeys = Integer.parseInt(p.getProperty(TXN_WRITE_KEYS_PROPERTY, TXN_WRITE_KEYS_PROPERTY_DEFAULT));
+    hotkeys = Long.parseLong(p.getProperty(TXN_HOT_KEYS_PROPERTY, TXN_HOT_KEYS_PROPERTY_DEFAULT));
+    hotproportion = Double.parseDouble(
+        p.getProperty(TXN_HOT_PROPORTION_PROPERTY, TXN_HOT_PROPORTION_PROPERTY_DEFAULT));
+    maxretries = Integer.parseInt(p.getProperty(TXN_MAX_RETRIES_PROPERTY, TXN_MAX_RETRIES_PROPERTY_DEFAULT));
+    if (readkeys < 0 || writekeys < 1) {
+      throw new WorkloadException("A transaction needs at least one record to update and no negative "
+          + "number of records to read");
+    }
+    if (readkeys + writekeys > recordcount) {
+      throw new WorkloadException("A transaction cannot touch more than the " + recordcount + " records");
+    }
+    if (hotproportion > 0 && (hotkeys < 1 || hotkeys > recordcount)) {
+      throw new WorkloadException("The hot set must hold between 1 and " + recordcount + " records");
+    }
+    if (hotproportion >= 1 && hotkeys < readkeys + writekeys) {
+      throw new WorkloadException("A transaction cannot touch more than the " + hotkeys + " hot records");
+    }
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    if (arrivalgenerator != null) {
+      awaitNextArrival();
+    }
+    doMultiKeyTransaction(db);
+    return true;
+  }
+
+  /**
+   * Runs one transaction, retrying it on conflicts.
+   */
+  protected void doMultiKeyTransaction(DB db) {
+    Set<String> chosen = new HashSet<>();
+    Set<String> reads = new HashSet<>();
+    Map<String, Map<String, ByteIterator>> writes = new HashMap<>();
+    while (chosen.size() < readkeys + writekeys) {
+      String key = CoreWorkload.buildKeyName(nextTransactionKeynum(), zeropadding, orderedinserts, keyprefix);
+      if (!chosen.add(key)) {
+        continue;
+      }
+      if (writes.size() < writekeys) {
+        // Bindings consume the values on every attempt, so keep them in arrays that can be read again.
+        Map<String, ByteIterator> values = writeallfields ? buildValues(key, null) : buildSingleValue(key, null);
+        Map<String, ByteIterator> copy = new HashMap<>();
+        for (Map.Entry<String, ByteIterator> value : values.entrySet()) {
+          copy.put(value.getKey(), new ByteArrayByteIterator(value.getValue().toArray()));
+        }
+        writes.put(key, copy);
+      } else {
+        reads.add(key);
+      }
+    }
+
+    long ist = measurements.getIntendedStartTimeNs();
+    long st = System.nanoTime();
+    firststart.compareAndSet(0, st);
+    int retries = 0;
+    Status status;
+    while (true) {
+      attempts.incrementAndGet();
+      for (Map<String, ByteIterator> values : writes.values()) {
+        for (ByteIterator value : values.values()) {
+          value.reset();
+        }
+      }
+      status = db.transaction(table, reads, writes);
+      if (status != Status.CONFLICT) {
+        break;
+      }
+      conflicts.incrementAndGet();
+      if (retries == maxretries) {
+        break;
+      }
+      retries++;
+    }
+    long en = System.nanoTime();
+    lastend.accumulateAndGet(en, Math::max);
+
+    String measurementName;
+    if (status != null && status.isOk()) {
+      committed.incrementAndGet();
+      measurementName = "TXN-COMMIT";
+    } else if (status == Status.CONFLICT) {
+      aborted.incrementAndGet();
+      measurementName = "TXN-ABORT";
+    } else {
+      failed.incrementAndGet();
+      measurementName = "TXN-FAILED";
+    }
+    measurements.measure(measurementName, (int) ((en - st) / 1000));
+    measurements.measureIntended(measurementName, (int) ((en - ist) / 1000));
+    measurements.measure("TXN-RETRIES", retries);
+    measurements.reportStatus("TXN-RETRIES", status != null ? status : Status.ERROR);
+  }
+
+  /**
+   * @return the record number of the next record of a transaction.
+   */
+  private long nextTransactionKeynum() {
+    if (hotproportion > 0 && Utils.random().nextDouble() < hotproportion) {
+      return Utils.random().nextInt((int) Math.min(hotkeys, Integer.MAX_VALUE));
+    }
+    return nextKeynum();
+  }
+
+  /**
+   * Prints the transaction outcome rates and the goodput.
+   */
+  @Override
+  public void cleanup() throws WorkloadException {
+    super.cleanup();
+    long transactions = committed.get() + aborted.get() + failed.get();
+    if (transactions == 0) {
+      return;
+    }
+    double seconds = (lastend.get() - firststart.get()) / 1e9;
+    System.err.println(String.format("Transactions: %d committed, %d aborted, %d failed; "
+            + "abort rate %.4f, conflicts per attempt %.4f, retries per transaction %.4f, "
+            + "goodput %.2f committed/s",
+        committed.get(), aborted.get(), failed.get(),
+        (double) aborted.get() / transactions,
+        (double) conflicts.get() / attempts.get(),
+        (double) (attempts.get() - transactions) / transactions,
+        seconds > 0 ? committed.get() / seconds : 0.0));
+  }
+}
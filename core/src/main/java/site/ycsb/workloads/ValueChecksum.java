@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.RandomByteIterator;
+import site.ycsb.Utils;
+
+/**
+ * Self-verifying field values for the checksum data integrity mode. A value is
+ * a random printable payload followed by a {@value #STAMP_LENGTH} character hex
+ * trailer holding a 64 bit FNV-1a hash of the payload, seeded with the record
+ * key and field name, so a value returned for the wrong record or field fails
+ * verification too. Verification streams the value through a small per-thread
+ * buffer and never builds a String.
+ */
+final class ValueChecksum {
+  /** Length of the hex trailer. */
+  static final int STAMP_LENGTH = 16;
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes();
+  private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[512];
+    }
+  };
+
+  private ValueChecksum() {
+    // not used
+  }
+
+  /**
+   * Fills a buffer with a stamped value of at least {@value #STAMP_LENGTH} bytes.
+   *
+   * @param key The record key.
+   * @param field The field name.
+   * @param buf The buffer to fill, at least len bytes long.
+   * @param len The length of the value.
+   */
+  static void fill(String key, String field, byte[] buf, int len) {
+    int payload = len - STAMP_LENGTH;
+    RandomByteIterator.fill(buf, 0, payload);
+    long hash = hash(seed(key, field), buf, 0, payload);
+    for (int i = STAMP_LENGTH - 1; i >= 0; i--) {
+      buf[payload + i] = HEX[(int) (hash & 0xf)];
+      hash >>>= 4;
+    }
+  }
+
+  /**
+   * Checks a value read back from the database, consuming the iterator.
+   *
+   * @param key The record key.
+   * @param field The field name.
+   * @param value The value.
+   * @return true if the trailer matches the payload.
+   */
+  static boolean verify(String key, String field, ByteIterator value) {
+    long payload = value.bytesLeft() - STAMP_LENGTH;
+    if (payload < 0) {
+      return false;
+    }
+    byte[] scratch = SCRATCH.get();
+    long hash = seed(key, field);
+    while (payload > 0) {
+      int n = (int) Math.min(scratch.length, payload);
+      int start = scratch.length - n;
+      int end = value.nextBuf(scratch, start);
+      if (end == start) {
+        return false;
+      }
+      hash = hash(hash, scratch, start, end - start);
+      payload -= end - start;
+    }
+    int start = scratch.length - STAMP_LENGTH;
+    if (value.nextBuf(scratch, start) != scratch.length) {
+      return false;
+    }
+    for (int i = scratch.length - 1; i >= start; i--) {
+      if (scratch[i] != HEX[(int) (hash & 0xf)]) {
+        return false;
+      }
+      hash >>>= 4;
+    }
+    return true;
+  }
+
+  private static long seed(String key, String field) {
+    return Utils.fnvhash64(((long) key.hashCode() << 32) ^ (field.hashCode() & 0xffffffffL));
+  }
+
+  private static long hash(long hash, byte[] buf, int off, int len) {
+    for (int i = off; i < off + len; i++) {
+      hash ^= buf[i] & 0xff;
+      hash *= Utils.FNV_PRIME_64;
+    }
+    return hash;
+  }
+}
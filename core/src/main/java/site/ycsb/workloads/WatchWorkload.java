@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.WatchListener;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * Measures change notifications through {@link DB#watch}. The first
+ * <b>watchthreads</b> client threads are watchers: each registers
+ * <b>watchesperthread</b> listeners on all records and then waits while the
+ * other threads, the writers, keep overwriting records of their partition with
+ * values stamped with a per-record version and the write time. Writers start
+ * once every listener is registered and, like in {@link CoreWorkload}, choose
+ * records with the request distribution and may be throttled with the target
+ * or the arrival process. Each writer does its share, operationcount divided
+ * by the number of threads, of writes, and a writer whose share is empty is
+ * done from the start; once all writers are done the watchers wait
+ * <b>watchdrainms</b> milliseconds (default: 1000) for late notifications and
+ * unregister.
+ * <p>
+ * WATCH measures the registration of a listener, WATCH-LATENCY the time from
+ * a write to each notification of it, and WATCH-FANOUT the time from a write
+ * until every listener had been notified of it or of a later write to the same
+ * record, which shows the cost of fanning a change out to many watchers. When
+ * the run ends, the number of notifications is printed together with the
+ * writes that were coalesced into a notification of a later write, those that
+ * were notified more than once or out of order, and those that were never
+ * notified at all.
+ * </p>
+ * <p>
+ * Versions are tracked in memory, so writers and watchers must run in the same
+ * client process. Every listener watches every record, so keep recordcount
+ * small; all core properties apply except the operation mix.
+ * </p>
+ */
+public class WatchWorkload extends CoreWorkload {
+
+  /**
+   * The name of the property for the number of watcher threads.
+   */
+  public static final String WATCH_THREADS_PROPERTY = "watchthreads";
+
+  /**
+   * The default number of watcher threads.
+   */
+  public static final String WATCH_THREADS_PROPERTY_DEFAULT = "1";
+
+  /**
+   * The name of the property for the number of listeners each watcher thread registers.
+   */
+  public static final String WATCHES_PER_THREAD_PROPERTY = "watchesperthread";
+
+  /**
+   * The default number of listeners each watcher thread registers.
+   */
+  public static final String WATCHES_PER_THREAD_PROPERTY_DEFAULT = "1";
+
+  /**
+   * The name of the property for how long watchers wait for notifications after the writers finished.
+   */
+  public static final String WATCH_DRAIN_PROPERTY = "watchdrainms";
+
+  /**
+   * The default time watchers wait for notifications after the writers finished.
+   */
+  public static final String WATCH_DRAIN_PROPERTY_DEFAULT = "1000";
+
+  private int watchthreads;
+  private int watchesperthread;
+  private long drainms;
+  private long operationcount;
+  private String fieldname;
+  private Set<String> keys;
+  private Map<String, Integer> records;
+  /** The latest acknowledged version of each record. */
+  private AtomicLongArray versions;
+
+  private int writers;
+  private CountDownLatch registered;
+  private CountDownLatch writersdone;
+  private final AtomicInteger listenercount = new AtomicInteger();
+  private final Queue<Listener> listeners = new ConcurrentLinkedQueue<>();
+  /** The fan-outs still in progress, by record and version. */
+  private final Map<Long, Fanout> fanouts = new ConcurrentHashMap<>();
+
+  private final AtomicLong notifications = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong duplicates = new AtomicLong();
+  private final Measurements measurements = Measurements.getMeasurements();
+
+  /**
+   * The role of a client thread.
+   */
+  private static final class ThreadState {
+    private final int writer;
+    private long remaining;
+    private boolean started;
+
+    private ThreadState(int writer, long remaining) {
+      this.writer = writer;
+      this.remaining = remaining;
+    }
+  }
+
+  /**
+   * A write being fanned out to the listeners.
+   */
+  private static final class Fanout {
+    private final long start;
+    private final AtomicInteger remaining;
+
+    private Fanout(long start, int listeners) {
+      this.start = start;
+      this.remaining = new AtomicInteger(listeners);
+    }
+  }
+
+  /**
+   * Tracks the versions one listener was notified of.
+   */
+  private final class Listener implements WatchListener {
+    /** The latest version notified, by record. */
+    private final long[] seen = new long[versions.length()];
+
+    @Override
+    public synchronized void onChange(String key, Map<String, ByteIterator> values) {
+      long now = System.nanoTime();
+      Integer record = records.get(key);
+      if (record == null || values == null) {
+        return;
+      }
+      long version = -1;
+      long time = 0;
+      for (ByteIterator value : values.values()) {
+        String s = value.toString();
+        version = StalenessWorkload.versionOf(s);
+        if (version >= 0) {
+          time = StalenessWorkload.timeOf(s);
+          break;
+        }
+      }
+      if (version < 0) {
+        measurements.reportStatus("WATCH-LATENCY", Status.UNEXPECTED_STATE);
+        return;
+      }
+
+      notifications.incrementAndGet();
+      measurements.measure("WATCH-LATENCY", (int) Math.min((now - time) / 1000, Integer.MAX_VALUE));
+      long last = seen[record];
+      if (version <= last) {
+        duplicates.incrementAndGet();
+        return;
+      }
+      coalesced.addAndGet(version - last - 1);
+      seen[record] = version;
+      // This notification also covers the writes it coalesced.
+      for (long v = last + 1; v <= version; v++) {
+        Long id = fanoutId(record, v);
+        Fanout fanout = fanouts.get(id);
+        if (fanout != null && fanout.remaining.decrementAndGet() == 0) {
+          fanouts.remove(id);
+          measurements.measure("WATCH-FANOUT", (int) Math.min((now - fanout.start) / 1000, Integer.MAX_VALUE));
+        }
+      }
+    }
+
+    /**
+     * @return the number of acknowledged writes this listener was never notified of.
+     */
+    private synchronized long missed() {
+      long missed = 0;
+      for (int record = 0; record < seen.length; record++) {
+        missed += Math.max(0, versions.get(record) - seen[record]);
+      }
+      return missed;
+    }
+  }
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    super.init(p);
+    watchthreads = Integer.parseInt(p.getProperty(WATCH_THREADS_PROPERTY, WATCH_THREADS_PROPERTY_DEFAULT));
+    watchesperthread = Integer.parseInt(
+        p.getProperty(WATCHES_PER_THREAD_PROPERTY, WATCHES_PER_THREAD_PROPERTY_DEFAULT));
+    drainms = Long.parseLong(p.getProperty(WATCH_DRAIN_PROPERTY, WATCH_DRAIN_PROPERTY_DEFAULT));
+    operationcount = Long.parseLong(p.getProperty(Client.OPERATION_COUNT_PROPERTY, "0"));
+    if (watchthreads < 1 || watchesperthread < 1) {
+      throw new WorkloadException("The watch workload needs at least one watcher thread and listener");
+    }
+    if (recordcount > Integer.MAX_VALUE) {
+      throw new WorkloadException("The watch workload watches at most " + Integer.MAX_VALUE + " records");
+    }
+    fieldname = p.getProperty(FIELD_NAME_PREFIX, FIELD_NAME_PREFIX_DEFAULT) + "0";
+    versions = new AtomicLongArray((int) recordcount);
+    Set<String> keyset = new LinkedHashSet<>();
+    records = new HashMap<>();
+    for (int record = 0; record < recordcount; record++) {
+      String key = CoreWorkload.buildKeyName(record, zeropadding, orderedinserts, keyprefix);
+      keyset.add(key);
+      records.put(key, record);
+    }
+    keys = Collections.unmodifiableSet(keyset);
+    registered = new CountDownLatch(watchthreads);
+  }
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    if (threadcount <= watchthreads) {
+      throw new WorkloadException("The watch workload needs more than the " + watchthreads + " watcher threads");
+    }
+    synchronized (this) {
+      if (writersdone == null) {
+        writers = threadcount - watchthreads;
+        writersdone = new CountDownLatch(writers);
+      }
+    }
+    if (mythreadid < watchthreads) {
+      return new ThreadState(-1, 0);
+    }
+    // The same share of the operations the client gives this thread.
+    long share = operationcount / threadcount + (mythreadid < operationcount % threadcount ? 1 : 0);
+    if (share <= 0) {
+      // No writes will count this writer down, and the watchers must not wait for it.
+      writersdone.countDown();
+    }
+    return new ThreadState(mythreadid - watchthreads, share);
+  }
+
+  @Override
+  public boolean doInsert(DB db, Object threadstate) {
+    int keynum = keysequence.nextValue().intValue();
+    String key = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts, keyprefix);
+    Status status = db.insert(table, key, StalenessWorkload.stamp(fieldname, nextFieldLength(), 0));
+    return null != status && status.isOk();
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    ThreadState state = (ThreadState) threadstate;
+    if (state.writer < 0) {
+      watch(db);
+      return false;
+    }
+    if (!state.started) {
+      state.started = true;
+      await(registered);
+    }
+    if (arrivalgenerator != null) {
+      awaitNextArrival();
+    }
+    doStampedWrite(db, state.writer);
+    if (--state.remaining == 0) {
+      writersdone.countDown();
+    }
+    return true;
+  }
+
+  /**
+   * Registers the listeners of a watcher thread and keeps them registered until the writers are done.
+   */
+  private void watch(DB db) {
+    Listener[] registrations = new Listener[watchesperthread];
+    int count = 0;
+    try {
+      for (; count < watchesperthread; count++) {
+        registrations[count] = new Listener();
+        Status status = db.watch(table, keys, registrations[count]);
+        if (null == status || !status.isOk()) {
+          System.err.println("Registering a watch failed: " + status);
+          break;
+        }
+        listeners.add(registrations[count]);
+      }
+      listenercount.addAndGet(count);
+    } finally {
+      registered.countDown();
+    }
+
+    await(writersdone);
+    try {
+      Thread.sleep(drainms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (int i = 0; i < count; i++) {
+      db.unwatch(table, registrations[i]);
+    }
+  }
+
+  /**
+   * Waits for a latch, giving up when the run is stopped.
+   */
+  private void await(CountDownLatch latch) {
+    try {
+      boolean done = false;
+      while (!done && !isStopRequested()) {
+        done = latch.await(100, TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Writes the next version of a record of the writer's partition.
+   */
+  private void doStampedWrite(DB db, int writer) {
+    int record = (int) (nextKeynum() / writers * writers + writer);
+    if (record >= versions.length()) {
+      record -= writers;
+    }
+    if (record < 0) {
+      // More writers than records; this writer has nothing to write.
+      return;
+    }
+    long version = versions.get(record) + 1;
+    String key = CoreWorkload.buildKeyName(record, zeropadding, orderedinserts, keyprefix);
+    Long id = fanoutId(record, version);
+    if (listenercount.get() > 0) {
+      // Track the fan-out before writing, since notifications may arrive before the write returns.
+      fanouts.put(id, new Fanout(System.nanoTime(), listenercount.get()));
+    }
+    Status status = db.update(table, key, StalenessWorkload.stamp(fieldname, nextFieldLength(), version));
+    if (null != status && status.isOk()) {
+      versions.set(record, version);
+    } else {
+      fanouts.remove(id);
+    }
+  }
+
+  private Long fanoutId(int record, long version) {
+    return version * versions.length() + record;
+  }
+
+  private int nextFieldLength() {
+    return fieldlengthgenerator.nextValue().intValue();
+  }
+
+  /**
+   * @return the number of notifications received by all listeners.
+   */
+  long notifications() {
+    return notifications.get();
+  }
+
+  /**
+   * @return the number of writes some listener was notified of only through a later write.
+   */
+  long coalesced() {
+    return coalesced.get();
+  }
+
+  /**
+   * @return the number of notifications of writes a listener had already seen.
+   */
+  long duplicates() {
+    return duplicates.get();
+  }
+
+  /**
+   * @return the number of acknowledged writes some listener was never notified of.
+   */
+  long missed() {
+    long missed = 0;
+    for (Listener listener : listeners) {
+      missed += listener.missed();
+    }
+    return missed;
+  }
+
+  /**
+   * Prints how many writes were notified, coalesced, duplicated and missed.
+   */
+  @Override
+  public void cleanup() throws WorkloadException {
+    super.cleanup();
+    if (listeners.isEmpty()) {
+      return;
+    }
+    System.err.println(String.format("Watch notifications: %d to %d listeners; %d writes coalesced, "
+            + "%d notified again or out of order, %d never notified; %d fan-outs incomplete",
+        notifications.get(), listeners.size(), coalesced.get(), duplicates.get(), missed(), fanouts.size()));
+  }
+}
@@ -17,6 +17,8 @@
 
 package site.ycsb;
 
+import java.util.SplittableRandom;
+
 import org.testng.annotations.Test;
 import static org.testng.AssertJUnit.*;
 
@@ -36,4 +38,26 @@ public class TestByteIterator {
     assertFalse(itor.hasNext());
     assertEquals(0, itor.bytesLeft());
   }
+
+  @Test
+  public void testFillMatchesRandomByteIterator() {
+    int size = 100;
+    try {
+      Utils.setThreadRandom(new SplittableRandom(42));
+      ByteIterator itor = new RandomByteIterator(size);
+      byte[] expected = new byte[size];
+      for (int i = 0; i < size; i++) {
+        expected[i] = itor.nextByte();
+      }
+
+      Utils.setThreadRandom(new SplittableRandom(42));
+      byte[] filled = new byte[size + 2];
+      RandomByteIterator.fill(filled, 1, size);
+      assertEquals(0, filled[0]);
+      assertEquals(0, filled[size + 1]);
+      assertEquals(new String(expected), new String(filled, 1, size));
+    } finally {
+      Utils.setThreadRandom(null);
+    }
+  }
 }
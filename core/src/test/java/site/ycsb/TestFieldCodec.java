@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+public class TestFieldCodec {
+
+  private static Map<String, ByteIterator> record() {
+    Map<String, ByteIterator> values = new HashMap<>();
+    values.put("field0", new StringByteIterator("value0"));
+    values.put("field1", new ByteArrayByteIterator(new byte[300]));
+    values.put("f\u00e9ld2", new StringByteIterator(""));
+    return values;
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    byte[] data = FieldCodec.encode(record());
+    assertTrue(FieldCodec.isEncoded(data));
+
+    Map<String, ByteIterator> result = new HashMap<>();
+    FieldCodec.decode(data, null, result);
+    assertEquals(result.keySet(), record().keySet());
+    assertEquals(result.get("field0").toString(), "value0");
+    assertEquals(result.get("field1").toArray(), new byte[300]);
+    assertEquals(result.get("f\u00e9ld2").bytesLeft(), 0);
+  }
+
+  @Test
+  public void decodesRequestedFields() throws Exception {
+    byte[] data = FieldCodec.encode(record());
+    Map<String, ByteIterator> result = new HashMap<>();
+    FieldCodec.decode(data, new HashSet<>(Arrays.asList("field0", "missing")), result);
+    assertEquals(result.keySet(), Collections.singleton("field0"));
+    assertEquals(result.get("field0").toString(), "value0");
+  }
+
+  @Test
+  public void propertiesAreNotEncoded() {
+    assertFalse(FieldCodec.isEncoded("#comment\nfield0=value0\n".getBytes()));
+    assertFalse(FieldCodec.isEncoded(new byte[0]));
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void truncatedRecord() throws Exception {
+    byte[] data = FieldCodec.encode(record());
+    FieldCodec.decode(Arrays.copyOf(data, data.length - 1), null, new HashMap<String, ByteIterator>());
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+public class TestRandomValuePool {
+  @Test
+  public void testSliceLength() {
+    RandomValuePool pool = new RandomValuePool(1024, 0.0, 1L);
+    ByteIterator itor = pool.next(100);
+    assertEquals(100, itor.bytesLeft());
+    byte[] bytes = itor.toArray();
+    assertEquals(100, bytes.length);
+    assertFalse(itor.hasNext());
+    for (byte b : bytes) {
+      assertTrue(b >= ' ' && b < ' ' + 64);
+    }
+  }
+
+  @Test
+  public void testWholePoolAndFallback() {
+    RandomValuePool pool = new RandomValuePool(256, 0.0, 1L);
+    assertEquals(256, pool.next(256).toArray().length);
+    ByteIterator large = pool.next(1000);
+    assertTrue(large instanceof RandomByteIterator);
+    assertEquals(1000, large.toArray().length);
+  }
+
+  @Test
+  public void testNextBuf() {
+    RandomValuePool pool = new RandomValuePool(1024, 0.0, 1L);
+    ByteIterator itor = pool.next(300);
+    byte[] buf = new byte[128];
+    int total = 0;
+    while (itor.hasNext()) {
+      total += itor.nextBuf(buf, 0);
+    }
+    assertEquals(300, total);
+    assertEquals(0, itor.bytesLeft());
+  }
+
+  @Test
+  public void testCompressibility() {
+    int incompressible = compressedSize(new RandomValuePool(1 << 16, 0.0, 1L));
+    int compressible = compressedSize(new RandomValuePool(1 << 16, 0.5, 1L));
+    assertTrue(compressible < incompressible * 0.7);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidCompressibility() {
+    new RandomValuePool(1024, 1.5);
+  }
+
+  private static int compressedSize(RandomValuePool pool) {
+    byte[] data = pool.next(pool.size()).toArray();
+    Deflater deflater = new Deflater();
+    deflater.setInput(data);
+    deflater.finish();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[4096];
+    while (!deflater.finished()) {
+      out.write(buf, 0, deflater.deflate(buf));
+    }
+    deflater.end();
+    return out.size();
+  }
+}
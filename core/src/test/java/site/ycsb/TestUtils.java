@@ -21,9 +21,13 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import org.testng.annotations.Test;
 
+import site.ycsb.generator.UniformLongGenerator;
+import site.ycsb.generator.ZipfianGenerator;
+
 public class TestUtils {
 
   @Test
@@ -143,4 +147,28 @@ public class TestUtils {
       }
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void seededThreadRandomIsReproducible() {
+    UniformLongGenerator uniform = new UniformLongGenerator(0, 1000000);
+    ZipfianGenerator zipfian = new ZipfianGenerator(1000000);
+    long[] first = new long[100];
+    long[] second = new long[100];
+    try {
+      Utils.setThreadRandom(new SplittableRandom(42));
+      for (int i = 0; i < first.length; i += 2) {
+        first[i] = uniform.nextValue();
+        first[i + 1] = zipfian.nextValue();
+      }
+      Utils.setThreadRandom(new SplittableRandom(42));
+      for (int i = 0; i < second.length; i += 2) {
+        second[i] = uniform.nextValue();
+        second[i + 1] = zipfian.nextValue();
+      }
+    } finally {
+      Utils.setThreadRandom(null);
+    }
+    assertTrue(Arrays.equals(first, second));
+    assertTrue(Utils.random() instanceof java.util.concurrent.ThreadLocalRandom);
+  }
+}
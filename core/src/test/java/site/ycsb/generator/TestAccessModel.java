@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.testng.annotations.Test;
+
+public class TestAccessModel {
+
+  /**
+   * A log of 1000 accesses, 900 of them to one hot key and the rest to 100 cold keys.
+   */
+  private static AccessModel fitSkewedLog() throws IOException {
+    StringBuilder log = new StringBuilder("# timestamp op key size\n");
+    for (int i = 0; i < 1000; i++) {
+      String key = i % 10 == 0 ? "cold" + (i / 10) : "hot";
+      String op = i % 4 == 0 ? "update" : "read";
+      log.append(i * 100).append(' ').append(op).append(' ').append(key).append(" 1000\n");
+    }
+    return AccessModelFitter.fit(new BufferedReader(new StringReader(log.toString())));
+  }
+
+  @Test
+  public void testFit() throws IOException {
+    AccessModel model = fitSkewedLog();
+    assertEquals(101, model.getKeys());
+    assertEquals(1000, model.getKeyPopularity().total());
+    assertEquals(900, model.getKeyPopularity().count(0));
+    assertEquals(750L, model.getOperations().get("READ").longValue());
+    assertEquals(250L, model.getOperations().get("UPDATE").longValue());
+    assertEquals(999, model.getInterArrivalMicros().total());
+    double gap = model.getInterArrivalMicros().mean();
+    assertTrue("mean gap " + gap, gap >= 100 && gap < 125);
+  }
+
+  @Test
+  public void testSaveAndLoad() throws IOException {
+    AccessModel model = fitSkewedLog();
+    File file = File.createTempFile("accessmodel", ".txt");
+    try {
+      model.save(file.getPath());
+      AccessModel loaded = AccessModel.load(file.getPath());
+      assertEquals(model.getKeys(), loaded.getKeys());
+      assertEquals(model.getOperations(), loaded.getOperations());
+      assertEquals(model.getKeyPopularity().size(), loaded.getKeyPopularity().size());
+      assertEquals(model.getValueSizes().mean(), loaded.getValueSizes().mean(), 1e-9);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testKeysScaleToKeyspace() throws IOException {
+    // Scaled to 101000 items the hot key becomes the hottest 1000 items.
+    ModelKeyGenerator gen = new ModelKeyGenerator(fitSkewedLog(), 10, 101009);
+    int hot = 0;
+    for (int i = 0; i < 10000; i++) {
+      long rank = gen.nextRank();
+      assertTrue(rank >= 0 && rank < 101000);
+      if (rank < 1000) {
+        hot++;
+      }
+      long value = gen.nextValue();
+      assertTrue(value >= 10 && value <= 101009);
+    }
+    assertTrue("hot draws " + hot, hot > 8500 && hot < 9500);
+  }
+
+  @Test
+  public void testValueSizesSplitAcrossFields() throws IOException {
+    ModelHistogramGenerator gen = new ModelHistogramGenerator(fitSkewedLog().getValueSizes(), 10, 1);
+    for (int i = 0; i < 1000; i++) {
+      long length = gen.nextValue();
+      // 1000 bytes fall into a bucket at most 25% wide
+      assertTrue("length " + length, length >= 80 && length <= 125);
+    }
+  }
+}
@@ -55,6 +55,18 @@ public class TestIncrementingPrintableStringGenerator {
     assertEquals(gen.lastValue(), "AA");
   }
   
+  @Test
+  public void valueAt() throws Exception {
+    final IncrementingPrintableStringGenerator gen = 
+        new IncrementingPrintableStringGenerator(2, ATOC);
+    assertEquals(gen.distinctValues(), 9);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(gen.valueAt(i), gen.nextValue());
+    }
+    assertNull(new IncrementingPrintableStringGenerator(2, ATOC).lastValue());
+    assertEquals(new IncrementingPrintableStringGenerator(64).distinctValues(), Long.MAX_VALUE);
+  }
+  
   @Test
   public void rolloverOneCharacterOK() throws Exception {
     // It would be silly to create a generator with one character.
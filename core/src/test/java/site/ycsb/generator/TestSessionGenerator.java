@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+public class TestSessionGenerator {
+
+  @Test
+  public void testNeighborScanWrapsAround() {
+    SessionGenerator gen = new SessionGenerator(new ConstantIntegerGenerator(8), 5, 9,
+        0.0, 1.0, 1000000, 4);
+    assertEquals(8L, gen.nextValue().longValue());
+    assertEquals(9L, gen.nextValue().longValue());
+    assertEquals(5L, gen.nextValue().longValue());
+    assertEquals(6L, gen.nextValue().longValue());
+  }
+
+  @Test
+  public void testRereferenceStaysInSession() {
+    SessionGenerator gen = new SessionGenerator(new UniformLongGenerator(0, 1000000), 0, 1000000,
+        1.0, 0.0, 1000000, 4);
+    long first = gen.nextValue();
+    for (int i = 0; i < 100; i++) {
+      assertEquals(first, gen.nextValue().longValue());
+    }
+  }
+
+  @Test
+  public void testSessionsEnd() {
+    SessionGenerator gen = new SessionGenerator(new UniformLongGenerator(0, 1000000), 0, 1000000,
+        1.0, 0.0, 1, 4);
+    Set<Long> seen = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      seen.add(gen.nextValue());
+    }
+    assertTrue(seen.size() > 50);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidProbabilities() {
+    new SessionGenerator(new ConstantIntegerGenerator(0), 0, 10, 0.6, 0.6, 10, 4);
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.generator.ShiftingHotspotGenerator.ShiftMode;
+
+public class TestShiftingHotspotGenerator {
+
+  @Test
+  public void testRotate() {
+    AtomicLong clock = new AtomicLong(0);
+    ShiftingHotspotGenerator gen =
+        new ShiftingHotspotGenerator(0, 999, 0.1, 1.0, ShiftMode.ROTATE, 1000, clock::get);
+    assertHotset(gen, 0);
+    clock.set(1500);
+    assertHotset(gen, 100);
+    clock.set(9999);
+    assertHotset(gen, 900);
+    clock.set(10000);
+    assertHotset(gen, 0);
+  }
+
+  @Test
+  public void testDiurnal() {
+    AtomicLong clock = new AtomicLong(0);
+    ShiftingHotspotGenerator gen =
+        new ShiftingHotspotGenerator(0, 999, 0.1, 1.0, ShiftMode.DIURNAL, 1000, clock::get);
+    assertEquals(0, gen.hotsetOffset());
+    clock.set(500);
+    assertEquals(900, gen.hotsetOffset());
+    clock.set(1000);
+    assertEquals(0, gen.hotsetOffset());
+  }
+
+  @Test
+  public void testJumpIsStableWithinPeriod() {
+    AtomicLong clock = new AtomicLong(0);
+    ShiftingHotspotGenerator gen =
+        new ShiftingHotspotGenerator(100, 1099, 0.1, 1.0, ShiftMode.JUMP, 1000, clock::get);
+    clock.set(3100);
+    long offset = gen.hotsetOffset();
+    clock.set(3900);
+    assertEquals(offset, gen.hotsetOffset());
+    for (int i = 0; i < 1000; i++) {
+      long value = gen.nextValue();
+      assertTrue(value >= 100 && value <= 1099);
+      assertTrue((value - 100 - offset + 1000) % 1000 < 100);
+    }
+  }
+
+  @Test
+  public void testColdSetStaysInBounds() {
+    ShiftingHotspotGenerator gen =
+        new ShiftingHotspotGenerator(10, 19, 0.5, 0.0, ShiftMode.ROTATE, 1, () -> 7);
+    for (int i = 0; i < 1000; i++) {
+      long value = gen.nextValue();
+      assertTrue(value >= 10 && value <= 19);
+    }
+  }
+
+  private static void assertHotset(ShiftingHotspotGenerator gen, long start) {
+    for (int i = 0; i < 1000; i++) {
+      long value = gen.nextValue();
+      assertTrue(value + " not in hot set starting at " + start, value >= start && value < start + 100);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.Status;
+
+public class TestAvailability {
+
+  private static final long SECOND = 1000000000L;
+
+  private static String write(Availability availability, long end) {
+    StringWriter out = new StringWriter();
+    availability.write(new PrintWriter(out), end);
+    return out.toString();
+  }
+
+  @Test
+  public void recordsWindowsAndTimeline() {
+    Properties p = new Properties();
+    p.setProperty(Availability.AVAILABILITY_TRACK_PROPERTY, "true");
+    Measurements.setProperties(p);
+    Availability availability = new Availability(p);
+    long start = System.nanoTime();
+    availability.operation(Status.OK, start, start + 1);
+    availability.operation(Status.ERROR, start + SECOND / 2, start + SECOND);
+    availability.operation(Status.SERVICE_UNAVAILABLE, start + SECOND, start + SECOND + 2);
+    availability.operation(Status.NOT_FOUND, start + 2 * SECOND, start + 2 * SECOND + 1000000);
+    availability.operation(Status.OK, start + 3 * SECOND, start + 3 * SECOND + 1);
+
+    String report = write(availability, start + 4 * SECOND);
+    assertTrue(report.contains("\n0,0.500,2.001,1501.0\n"), report);
+    // Second 0 starts with the first operation.
+    assertTrue(report.contains("\n0,1,1,0,0,0.5000,1\n"), report);
+    assertTrue(report.contains("\n1,0,1,0,0,0.0000,0\n"), report);
+    assertTrue(report.contains("\n2,1,0,0,0,1.0000,1\n"), report);
+    assertTrue(report.contains("\n3,1,0,0,0,1.0000,1\n"), report);
+    assertTrue(report.contains("# 1 unavailability windows, longest 1501.0 ms"), report);
+  }
+
+  @Test
+  public void retriesOpenWindows() {
+    Properties p = new Properties();
+    p.setProperty(Availability.AVAILABILITY_TRACK_PROPERTY, "true");
+    Measurements.setProperties(p);
+    Availability availability = new Availability(p);
+    availability.start();
+    long attempt = System.nanoTime();
+    availability.retry(attempt);
+    availability.redirect(attempt);
+
+    // The thread is still retrying when the run ends.
+    String report = write(availability, attempt + SECOND);
+    assertTrue(report.contains("\n0,0,0,1,1,0.0000,0\n"), report);
+    assertTrue(report.contains("# 1 unavailability windows"), report);
+  }
+
+  @Test
+  public void disabledByDefault() {
+    Availability availability = new Availability(new Properties());
+    availability.operation(Status.ERROR, 1, 2);
+    assertEquals(write(availability, 3).split("\n").length, 3);
+  }
+}
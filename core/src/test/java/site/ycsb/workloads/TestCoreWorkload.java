@@ -16,13 +16,30 @@
  */
 package site.ycsb.workloads;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
 
 import org.testng.annotations.Test;
 
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.generator.AccessModelFitter;
 import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.measurements.Measurements;
 
 public class TestCoreWorkload {
 
@@ -67,4 +84,89 @@ public class TestCoreWorkload {
   public void createOperationChooserNullProperties() {
     CoreWorkload.createOperationGenerator(null);
   }
+
+  @Test
+  public void sessionsOverAccessModel() throws Exception {
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      log.append(i * 100).append(" read key").append(i % 10).append(" 100\n");
+    }
+    File model = File.createTempFile("accessmodel", ".txt");
+    model.deleteOnExit();
+    AccessModelFitter.fit(new BufferedReader(new StringReader(log.toString()))).save(model.getPath());
+
+    final Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    p.setProperty(Client.OPERATION_COUNT_PROPERTY, "100");
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "session");
+    p.setProperty(CoreWorkload.SESSION_BASE_DISTRIBUTION, "model");
+    p.setProperty(CoreWorkload.FIELD_LENGTH_DISTRIBUTION_PROPERTY, "model");
+    p.setProperty(CoreWorkload.ACCESS_MODEL_FILE_PROPERTY, model.getPath());
+    Measurements.setProperties(p);
+    final CoreWorkload workload = new CoreWorkload();
+    workload.init(p);
+    for (int i = 0; i < 100; i++) {
+      long key = workload.keychooser.nextValue().longValue();
+      assertTrue(key >= 0 && key < 100);
+    }
+  }
+
+  @Test
+  public void reusedRecordBuffers() throws Exception {
+    final Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    p.setProperty(Client.OPERATION_COUNT_PROPERTY, "100");
+    p.setProperty(CoreWorkload.FIELD_COUNT_PROPERTY, "3");
+    p.setProperty(CoreWorkload.FIELD_LENGTH_PROPERTY, "50");
+    p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0");
+    p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "1");
+    p.setProperty(CoreWorkload.REUSE_RECORD_BUFFERS_PROPERTY, "true");
+    Measurements.setProperties(p);
+    final CoreWorkload workload = new CoreWorkload();
+    workload.init(p);
+    final Object threadstate = workload.initThread(p, 0, 1);
+
+    final List<Map<String, ByteIterator>> written = new ArrayList<>();
+    final DB db = new DB() {
+      @Override
+      public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+        return Status.OK;
+      }
+
+      @Override
+      public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                         Vector<HashMap<String, ByteIterator>> result) {
+        return Status.OK;
+      }
+
+      @Override
+      public Status update(String table, String key, Map<String, ByteIterator> values) {
+        written.add(values);
+        assertEquals(values.size(), 1);
+        for (ByteIterator value : values.values()) {
+          assertEquals(value.toArray().length, 50);
+        }
+        return Status.OK;
+      }
+
+      @Override
+      public Status insert(String table, String key, Map<String, ByteIterator> values) {
+        written.add(values);
+        assertEquals(values.size(), 3);
+        return Status.OK;
+      }
+
+      @Override
+      public Status delete(String table, String key) {
+        return Status.OK;
+      }
+    };
+    assertTrue(workload.doInsert(db, threadstate));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(workload.doTransaction(db, threadstate));
+    }
+    for (Map<String, ByteIterator> values : written) {
+      assertSame(values, written.get(0));
+    }
+  }
 }
\ No newline at end of file
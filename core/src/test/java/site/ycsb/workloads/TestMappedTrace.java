@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.annotations.Test;
+
+public class TestMappedTrace {
+
+  private static File writeTrace(String contents) throws IOException {
+    File file = File.createTempFile("trace", ".txt");
+    file.deleteOnExit();
+    new File(file.getPath() + ".idx").deleteOnExit();
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write(contents.getBytes(StandardCharsets.UTF_8));
+    }
+    return file;
+  }
+
+  @Test
+  public void linesAreTrimmed() throws IOException {
+    File file = writeTrace("/a/1\r\n  /b/2 \n\n/c/3");
+    MappedTrace trace = MappedTrace.open(file.getPath(), Integer.MAX_VALUE);
+    assertEquals(trace.size(), 4);
+    assertEquals(trace.get(0), "/a/1");
+    assertEquals(trace.get(1), "/b/2");
+    assertEquals(trace.get(2), "");
+    assertEquals(trace.get(3), "/c/3");
+    assertNull(trace.get(4));
+    assertNull(trace.get(-1));
+  }
+
+  @Test
+  public void multibyteCharactersAreKept() throws IOException {
+    File file = writeTrace("\u00e9/a/\u00e9\n /b/\u20ac \n");
+    MappedTrace trace = MappedTrace.open(file.getPath(), Integer.MAX_VALUE);
+    assertEquals(trace.get(0), "\u00e9/a/\u00e9");
+    assertEquals(trace.get(1), "/b/\u20ac");
+  }
+
+  @Test
+  public void limitCapsSize() throws IOException {
+    File file = writeTrace("/a\n/b\n/c\n");
+    MappedTrace trace = MappedTrace.open(file.getPath(), 2);
+    assertEquals(trace.size(), 2);
+    assertNull(trace.get(2));
+  }
+
+  @Test
+  public void indexIsReusedUntilTraceChanges() throws IOException {
+    File file = writeTrace("/a\n/b\n");
+    MappedTrace.open(file.getPath(), Integer.MAX_VALUE);
+    File index = new File(file.getPath() + ".idx");
+    assertTrue(index.isFile());
+    long indexed = index.lastModified();
+    assertEquals(MappedTrace.open(file.getPath(), Integer.MAX_VALUE).get(1), "/b");
+    assertEquals(index.lastModified(), indexed);
+
+    try (FileOutputStream out = new FileOutputStream(file, true)) {
+      out.write("/c\n".getBytes(StandardCharsets.UTF_8));
+    }
+    MappedTrace trace = MappedTrace.open(file.getPath(), Integer.MAX_VALUE);
+    assertEquals(trace.size(), 3);
+    assertEquals(trace.get(2), "/c");
+  }
+
+  @Test
+  public void partialIndexIsRebuilt() throws IOException {
+    File file = writeTrace("/a\n/b\n/c\n");
+    // The header of a current index followed by only the first line offset, as
+    // left by a build that was interrupted.
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file.getPath() + ".idx"))) {
+      out.writeLong(0x5943534254524331L);
+      out.writeLong(file.length());
+      out.writeLong(file.lastModified());
+      out.writeLong(0);
+      out.writeLong(3);
+    }
+    MappedTrace trace = MappedTrace.open(file.getPath(), Integer.MAX_VALUE);
+    assertEquals(trace.size(), 3);
+    assertEquals(trace.get(2), "/c");
+  }
+
+  @Test
+  public void emptyTrace() throws IOException {
+    File file = writeTrace("");
+    assertEquals(MappedTrace.open(file.getPath(), Integer.MAX_VALUE).size(), 0);
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+public class TestMultiTenantWorkload {
+
+  /**
+   * Counts operations per table and checks keys carry the table's prefix.
+   */
+  private static class CountingDB extends DB {
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    private Status count(String table, String key) {
+      assertTrue(key.startsWith(table.equals("bigtable") ? "b" : table), key);
+      counts.merge(table, 1, Integer::sum);
+      return Status.OK;
+    }
+
+    @Override
+    public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+      return count(table, key);
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      return count(table, startkey);
+    }
+
+    @Override
+    public Status update(String table, String key, Map<String, ByteIterator> values) {
+      return count(table, key);
+    }
+
+    @Override
+    public Status insert(String table, String key, Map<String, ByteIterator> values) {
+      return count(table, key);
+    }
+
+    @Override
+    public Status delete(String table, String key) {
+      return count(table, key);
+    }
+  }
+
+  private static MultiTenantWorkload workload(Properties spec) throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    p.setProperty(CoreWorkload.FIELD_COUNT_PROPERTY, "2");
+    p.setProperty(CoreWorkload.FIELD_LENGTH_PROPERTY, "10");
+    Measurements.setProperties(p);
+    MultiTenantWorkload workload = new MultiTenantWorkload();
+    workload.init(p, spec);
+    return workload;
+  }
+
+  private static Properties spec() {
+    Properties spec = new Properties();
+    spec.setProperty("tenants", "small, big");
+    spec.setProperty("small.recordcount", "3");
+    spec.setProperty("small.readproportion", "1");
+    spec.setProperty("small.updateproportion", "0");
+    spec.setProperty("small.share", "1");
+    spec.setProperty("big.recordcount", "5");
+    spec.setProperty("big.table", "bigtable");
+    spec.setProperty("big.keyprefix", "b");
+    spec.setProperty("big.requestdistribution", "uniform");
+    spec.setProperty("big.share", "3");
+    return spec;
+  }
+
+  @Test
+  public void loadsEveryTenant() throws Exception {
+    MultiTenantWorkload workload = workload(spec());
+    assertEquals(workload.getTenants().size(), 2);
+    Object threadstate = workload.initThread(new Properties(), 0, 1);
+    CountingDB db = new CountingDB();
+    for (int i = 0; i < 8; i++) {
+      assertTrue(workload.doInsert(db, threadstate));
+    }
+    assertFalse(workload.doInsert(db, threadstate));
+    assertEquals(db.counts.get("small").intValue(), 3);
+    assertEquals(db.counts.get("bigtable").intValue(), 5);
+  }
+
+  @Test
+  public void loadsEachTenantOnlyOnce() throws Exception {
+    // The global counts are sums over the tenants, not what each of them loads.
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "10");
+    p.setProperty(Client.INSERT_COUNT_PROPERTY, "10");
+    p.setProperty(CoreWorkload.FIELD_COUNT_PROPERTY, "2");
+    p.setProperty(CoreWorkload.FIELD_LENGTH_PROPERTY, "10");
+    Measurements.setProperties(p);
+    Properties spec = new Properties();
+    spec.setProperty("tenants", "own, rest");
+    spec.setProperty("own.recordcount", "4");
+    MultiTenantWorkload workload = new MultiTenantWorkload();
+    workload.init(p, spec);
+    Object threadstate = workload.initThread(new Properties(), 0, 1);
+    CountingDB db = new CountingDB();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(workload.doInsert(db, threadstate));
+    }
+    assertFalse(workload.doInsert(db, threadstate));
+    assertEquals(db.counts.get("own").intValue(), 4);
+    assertEquals(db.counts.get("rest").intValue(), 6);
+  }
+
+  @Test
+  public void splitsTransactionsByShare() throws Exception {
+    MultiTenantWorkload workload = workload(spec());
+    Object threadstate = workload.initThread(new Properties(), 0, 1);
+    CountingDB db = new CountingDB();
+    for (int i = 0; i < 4000; i++) {
+      assertTrue(workload.doTransaction(db, threadstate));
+    }
+    int small = db.counts.get("small");
+    int big = db.counts.get("bigtable");
+    assertEquals(small + big, 4000);
+    // 1000 expected for the small tenant; far more than 10 standard deviations.
+    assertTrue(small > 800 && small < 1200, "small tenant ran " + small);
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void rejectsEmptySpec() throws Exception {
+    workload(new Properties());
+  }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.StringByteIterator;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+public class TestStalenessWorkload {
+
+  /**
+   * A store with an up to date replica 0 and a replica 1 that never applies updates.
+   */
+  private static class LaggingDB extends DB {
+    private final Map<String, String> primary = new HashMap<>();
+    private final Map<String, String> stale = new HashMap<>();
+
+    @Override
+    public int replicaCount() {
+      return 2;
+    }
+
+    @Override
+    public Status readReplica(String table, String key, int replica, Set<String> fields,
+                              Map<String, ByteIterator> result) {
+      String value = (replica == 0 ? primary : stale).get(key);
+      if (value == null) {
+        return Status.NOT_FOUND;
+      }
+      result.put("value", new StringByteIterator("{\"field0\":\"" + value + "\"}"));
+      return Status.OK;
+    }
+
+    @Override
+    public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+      return readReplica(table, key, 0, fields, result);
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      return Status.NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public Status update(String table, String key, Map<String, ByteIterator> values) {
+      primary.put(key, values.get("field0").toString());
+      return Status.OK;
+    }
+
+    @Override
+    public Status insert(String table, String key, Map<String, ByteIterator> values) {
+      String value = values.get("field0").toString();
+      primary.put(key, value);
+      stale.put(key, value);
+      return Status.OK;
+    }
+
+    @Override
+    public Status delete(String table, String key) {
+      return Status.NOT_IMPLEMENTED;
+    }
+  }
+
+  /**
+   * Collects the measured lags instead of measuring them.
+   */
+  private static class RecordingWorkload extends StalenessWorkload {
+    private final List<long[]> lags = new ArrayList<>();
+
+    @Override
+    void measureLag(int replica, long versionlag, long timelag) {
+      lags.add(new long[]{replica, versionlag, timelag});
+    }
+  }
+
+  @Test
+  public void measuresLagPerReplica() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "1");
+    p.setProperty(CoreWorkload.FIELD_LENGTH_PROPERTY, "40");
+    p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+    Measurements.setProperties(p);
+    RecordingWorkload workload = new RecordingWorkload();
+    workload.init(p);
+    Object writer = workload.initThread(p, 0, 3);
+    Object fresh = workload.initThread(p, 1, 3);
+    Object lagging = workload.initThread(p, 2, 3);
+
+    LaggingDB db = new LaggingDB();
+    assertTrue(workload.doInsert(db, writer));
+    assertEquals(db.primary.get("user0").length(), 40);
+    for (int i = 0; i < 5; i++) {
+      workload.doTransaction(db, writer);
+    }
+    assertTrue(db.primary.get("user0").startsWith("#v=5,"));
+
+    Thread.sleep(2);
+    workload.doTransaction(db, fresh);
+    workload.doTransaction(db, lagging);
+    assertEquals(workload.lags.size(), 2);
+    assertEquals(workload.lags.get(0)[0], 0);
+    assertEquals(workload.lags.get(0)[1], 0);
+    assertEquals(workload.lags.get(0)[2], 0);
+    assertEquals(workload.lags.get(1)[0], 1);
+    assertEquals(workload.lags.get(1)[1], 5);
+    // Version 1 was acknowledged at least 2 ms before the read.
+    assertTrue(workload.lags.get(1)[2] >= 2000, "time lag " + workload.lags.get(1)[2]);
+  }
+
+  @Test
+  public void parsesStamps() {
+    assertEquals(StalenessWorkload.versionOf("{field0=#v=12,t=-34#xxx}"), 12);
+    assertEquals(StalenessWorkload.versionOf("no stamp"), -1);
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void needsReaders() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "10");
+    Measurements.setProperties(p);
+    StalenessWorkload workload = new StalenessWorkload();
+    workload.init(p);
+    workload.initThread(p, 0, 1);
+  }
+}
@@ -24,6 +24,7 @@ import static org.testng.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,6 +40,7 @@ import site.ycsb.DB;
 import site.ycsb.NumericByteIterator;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.TimeSeriesBatch;
 import site.ycsb.Utils;
 import site.ycsb.WorkloadException;
 import site.ycsb.measurements.Measurements;
@@ -485,6 +487,180 @@ public class TestTimeSeriesWorkload {
     } catch (WorkloadException e) { }
   }
   
+  @Test
+  public void insertBatchesInWriteOrder() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(CoreWorkload.FIELD_COUNT_PROPERTY, "1");
+    p.put(TimeSeriesWorkload.INSERT_BATCH_SIZE_PROPERTY, "4");
+    final TimeSeriesWorkload wl = getWorkload(p, true);
+    final Object threadState = wl.initThread(p, 0, 1);
+    
+    final MockDB db = new MockDB();
+    for (int i = 0; i < 5; i++) {
+      assertTrue(wl.doInsert(db, threadState));
+    }
+    
+    // The same points as one insert per point, written by the default DB#insertBatch.
+    assertEquals(db.keys.size(), 20);
+    long timestamp = 1451606400;
+    for (int i = 0; i < db.keys.size(); i++) {
+      assertEquals(db.keys.get(i), "AAAA");
+      assertEquals(db.values.get(i).get("AA").toString(), "AAAA");
+      assertEquals(Utils.bytesToLong(db.values.get(i).get(
+          TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY_DEFAULT).toArray()), timestamp);
+      assertTrue(((NumericByteIterator) db.values.get(i)
+          .get(TimeSeriesWorkload.VALUE_KEY_PROPERTY_DEFAULT)).isFloatingPoint());
+      if (i % 2 == 0) {
+        assertEquals(db.values.get(i).get("AB").toString(), "AAAA");
+      } else {
+        assertEquals(db.values.get(i).get("AB").toString(), "AAAB");
+        timestamp += 60;
+      }
+    }
+    wl.cleanup();
+  }
+  
+  @Test
+  public void insertBatchesMeasured() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(CoreWorkload.FIELD_COUNT_PROPERTY, "1");
+    p.put(TimeSeriesWorkload.INSERT_BATCH_SIZE_PROPERTY, "4");
+    final TimeSeriesWorkload wl = getWorkload(p, true);
+    wl.measurements = new Measurements(p);
+    final Object threadState = wl.initThread(p, 0, 1);
+    
+    // A native batch insert may defer the write and acknowledge it as batched.
+    final MockDB db = new MockDB() {
+      @Override
+      public Status insertBatch(String table, TimeSeriesBatch batch) {
+        return Status.BATCHED_OK;
+      }
+    };
+    for (int i = 0; i < 3; i++) {
+      assertTrue(wl.doInsert(db, threadState));
+    }
+    final String summary = wl.measurements.getSummary();
+    assertTrue(summary.contains("[INSERT-BATCH-POINTS: Count=3, Max=4, Min=4"), summary);
+    assertTrue(summary.contains("[INSERT-BATCH-BYTES: Count=3"), summary);
+  }
+  
+  @Test
+  public void insertBatchesBySeries() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(CoreWorkload.FIELD_COUNT_PROPERTY, "1");
+    p.put(TimeSeriesWorkload.INSERT_BATCH_SIZE_PROPERTY, "3");
+    p.put(TimeSeriesWorkload.INSERT_BATCH_ORDER_PROPERTY, "series");
+    p.put(TimeSeriesWorkload.VALUE_TYPE_PROPERTY, "integers");
+    p.put(CoreWorkload.DATA_INTEGRITY_PROPERTY, "true");
+    final TimeSeriesWorkload wl = getWorkload(p, true);
+    final Object threadState = wl.initThread(p, 0, 1);
+    
+    final MockDB db = new MockDB();
+    for (int i = 0; i < 4; i++) {
+      assertTrue(wl.doInsert(db, threadState));
+    }
+    
+    // Three consecutive timestamps of one series per batch, then of the next series.
+    assertEquals(db.keys.size(), 12);
+    for (int i = 0; i < db.keys.size(); i++) {
+      final long timestamp = 1451606400 + (i / 6) * 180 + (i % 3) * 60;
+      final String tag = (i / 3) % 2 == 0 ? "AAAA" : "AAAB";
+      assertEquals(db.keys.get(i), "AAAA");
+      assertEquals(db.values.get(i).get("AB").toString(), tag);
+      assertEquals(Utils.bytesToLong(db.values.get(i).get(
+          TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY_DEFAULT).toArray()), timestamp);
+      
+      final TreeMap<String, String> tags = new TreeMap<String, String>();
+      tags.put("AA", "AAAA");
+      tags.put("AB", tag);
+      assertEquals(((NumericByteIterator) db.values.get(i)
+          .get(TimeSeriesWorkload.VALUE_KEY_PROPERTY_DEFAULT)).getLong(),
+          wl.validationFunction("AAAA", timestamp, tags));
+    }
+  }
+  
+  @Test (expectedExceptions = WorkloadException.class)
+  public void insertBatchesBySeriesNotSparse() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(TimeSeriesWorkload.INSERT_BATCH_SIZE_PROPERTY, "3");
+    p.put(TimeSeriesWorkload.INSERT_BATCH_ORDER_PROPERTY, "series");
+    p.put(TimeSeriesWorkload.SPARSITY_PROPERTY, "0.5");
+    getWorkload(p, true);
+  }
+  
+  @Test
+  public void highCardinalityMatchesGeneratedSeries() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(TimeSeriesWorkload.TAG_CARDINALITY_PROPERTY, "3,5");
+    final MockDB generated = new MockDB();
+    TimeSeriesWorkload wl = getWorkload(p, true);
+    Object threadState = wl.initThread(p, 0, 1);
+    for (int i = 0; i < 40; i++) {
+      assertTrue(wl.doInsert(generated, threadState));
+    }
+    
+    p.put(TimeSeriesWorkload.HIGH_CARDINALITY_PROPERTY, "true");
+    final MockDB computed = new MockDB();
+    wl = getWorkload(p, true);
+    assertEquals(wl.keys, null);
+    assertEquals(wl.tagValues, null);
+    threadState = wl.initThread(p, 0, 1);
+    for (int i = 0; i < 40; i++) {
+      assertTrue(wl.doInsert(computed, threadState));
+    }
+    
+    assertEquals(computed.keys, generated.keys);
+    for (int i = 0; i < 40; i++) {
+      assertEquals(computed.values.get(i).get("AA").toString(), generated.values.get(i).get("AA").toString());
+      assertEquals(computed.values.get(i).get("AB").toString(), generated.values.get(i).get("AB").toString());
+      assertEquals(Utils.bytesToLong(computed.values.get(i).get(
+          TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY_DEFAULT).toArray()), 
+          Utils.bytesToLong(generated.values.get(i).get(
+          TimeSeriesWorkload.TIMESTAMP_KEY_PROPERTY_DEFAULT).toArray()));
+    }
+  }
+  
+  @Test
+  public void highCardinalityRandomOrder() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(TimeSeriesWorkload.HIGH_CARDINALITY_PROPERTY, "true");
+    p.put(TimeSeriesWorkload.RANDOMIZE_TIMESERIES_ORDER_PROPERTY, "true");
+    p.put(TimeSeriesWorkload.TAG_CARDINALITY_PROPERTY, "1000000,1000000");
+    p.put(TimeSeriesWorkload.DELAYED_SERIES_PROPERTY, "0.1");
+    final TimeSeriesWorkload wl = getWorkload(p, true);
+    assertEquals(wl.totalCardinality, 2000000000000L);
+    
+    // The same permutation of the values in every workload instance.
+    final TimeSeriesWorkload other = getWorkload(p, true);
+    final Set<String> values = new HashSet<String>();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(wl.tagValue(1, i), other.tagValue(1, i));
+      assertTrue(values.add(wl.tagValue(1, i)));
+    }
+    
+    // The first series of the first key only differ in the value of the second tag.
+    final Object threadState = wl.initThread(p, 0, 1);
+    final MockDB db = new MockDB();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(wl.doInsert(db, threadState));
+    }
+    values.clear();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(db.keys.get(i), wl.key(0));
+      assertEquals(db.values.get(i).get("AA").toString(), wl.tagValue(0, 0));
+      assertTrue(values.add(db.values.get(i).get("AB").toString()));
+    }
+  }
+  
+  @Test (expectedExceptions = WorkloadException.class)
+  public void highCardinalityTagValuesTooShort() throws Exception {
+    final Properties p = getUTProperties();
+    p.put(TimeSeriesWorkload.HIGH_CARDINALITY_PROPERTY, "true");
+    p.put(TimeSeriesWorkload.TAG_VALUE_LENGTH_PROPERTY, "2");
+    p.put(TimeSeriesWorkload.TAG_CARDINALITY_PROPERTY, "1,10000");
+    getWorkload(p, true);
+  }
+  
   /** Helper method that generates unit testing defaults for the properties map */
   private Properties getUTProperties() {
     final Properties p = new Properties();
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+public class TestTransactionalWorkload {
+
+  /**
+   * Records transactions, reporting a conflict for the first attempts of each.
+   */
+  private static class ConflictingDB extends DB {
+    private final int conflictsPerTransaction;
+    private int attempts;
+    private int commits;
+
+    ConflictingDB(int conflictsPerTransaction) {
+      this.conflictsPerTransaction = conflictsPerTransaction;
+    }
+
+    @Override
+    public Status transaction(String table, Set<String> readKeys, Map<String, Map<String, ByteIterator>> writes) {
+      assertEquals(readKeys.size(), 3);
+      assertEquals(writes.size(), 2);
+      for (String key : readKeys) {
+        assertFalse(writes.containsKey(key));
+      }
+      for (Map<String, ByteIterator> values : writes.values()) {
+        assertEquals(values.size(), 1);
+        // Consume the values like a binding does; every attempt must see them whole.
+        for (ByteIterator value : values.values()) {
+          assertTrue(value.toArray().length > 0);
+        }
+      }
+      if (++attempts <= conflictsPerTransaction) {
+        return Status.CONFLICT;
+      }
+      attempts = 0;
+      commits++;
+      return Status.OK;
+    }
+
+    @Override
+    public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status update(String table, String key, Map<String, ByteIterator> values) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status insert(String table, String key, Map<String, ByteIterator> values) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status delete(String table, String key) {
+      return Status.OK;
+    }
+  }
+
+  private static TransactionalWorkload workload(Properties p) throws WorkloadException {
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "10");
+    p.setProperty(TransactionalWorkload.TXN_READ_KEYS_PROPERTY, "3");
+    p.setProperty(TransactionalWorkload.TXN_WRITE_KEYS_PROPERTY, "2");
+    p.setProperty(TransactionalWorkload.TXN_MAX_RETRIES_PROPERTY, "2");
+    Measurements.setProperties(p);
+    TransactionalWorkload workload = new TransactionalWorkload();
+    workload.init(p);
+    return workload;
+  }
+
+  @Test
+  public void retriesConflicts() throws Exception {
+    TransactionalWorkload workload = workload(new Properties());
+    ConflictingDB db = new ConflictingDB(2);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(workload.doTransaction(db, null));
+    }
+    assertEquals(db.commits, 10);
+  }
+
+  @Test
+  public void abortsAfterMaxRetries() throws Exception {
+    TransactionalWorkload workload = workload(new Properties());
+    ConflictingDB db = new ConflictingDB(3);
+    assertTrue(workload.doTransaction(db, null));
+    assertEquals(db.commits, 0);
+    assertEquals(db.attempts, 3);
+  }
+
+  @Test
+  public void exportsOutcomes() throws Exception {
+    TransactionalWorkload workload = workload(new Properties());
+    long commits = outcomes("OK");
+    long aborts = outcomes("CONFLICT");
+    assertTrue(workload.doTransaction(new ConflictingDB(2), null));
+    assertTrue(workload.doTransaction(new ConflictingDB(3), null));
+    assertEquals(outcomes("OK"), commits + 1);
+    assertEquals(outcomes("CONFLICT"), aborts + 1);
+  }
+
+  /**
+   * @return the transactions with the outcome in the exported measurements so far.
+   */
+  private static long outcomes(String status) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    Measurements.getMeasurements().exportMeasurements(exporter);
+    exporter.close();
+    String prefix = "[TXN-RETRIES], Return=" + status + ", ";
+    for (String line : out.toString("UTF-8").split("\n")) {
+      if (line.startsWith(prefix)) {
+        return Long.parseLong(line.substring(prefix.length()).trim());
+      }
+    }
+    return 0;
+  }
+
+  @Test
+  public void drawsFromHotSet() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+    p.setProperty(TransactionalWorkload.TXN_HOT_KEYS_PROPERTY, "5");
+    p.setProperty(TransactionalWorkload.TXN_HOT_PROPORTION_PROPERTY, "1");
+    TransactionalWorkload workload = workload(p);
+    DB db = new ConflictingDB(0) {
+      @Override
+      public Status transaction(String table, Set<String> readKeys,
+                                Map<String, Map<String, ByteIterator>> writes) {
+        for (String key : readKeys) {
+          assertTrue(key.compareTo("user5") < 0, key);
+        }
+        for (String key : writes.keySet()) {
+          assertTrue(key.compareTo("user5") < 0, key);
+        }
+        return super.transaction(table, readKeys, writes);
+      }
+    };
+    for (int i = 0; i < 10; i++) {
+      assertTrue(workload.doTransaction(db, null));
+    }
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void rejectsTooSmallHotSet() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(TransactionalWorkload.TXN_HOT_KEYS_PROPERTY, "4");
+    p.setProperty(TransactionalWorkload.TXN_HOT_PROPORTION_PROPERTY, "1");
+    workload(p);
+  }
+}
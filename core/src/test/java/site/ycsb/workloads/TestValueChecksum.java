@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.ByteArrayByteIterator;
+import site.ycsb.StringByteIterator;
+
+public class TestValueChecksum {
+
+  @Test
+  public void stampedValuesVerify() {
+    for (int len : new int[]{16, 17, 100, 2000}) {
+      byte[] value = new byte[len];
+      ValueChecksum.fill("user1", "field0", value, len);
+      assertTrue(ValueChecksum.verify("user1", "field0", new ByteArrayByteIterator(value)));
+      // Bindings that store strings return the same characters.
+      assertTrue(ValueChecksum.verify("user1", "field0", new StringByteIterator(new String(value))));
+    }
+  }
+
+  @Test
+  public void corruptionIsDetected() {
+    byte[] value = new byte[100];
+    ValueChecksum.fill("user1", "field0", value, value.length);
+    assertFalse(ValueChecksum.verify("user2", "field0", new ByteArrayByteIterator(value)));
+    assertFalse(ValueChecksum.verify("user1", "field1", new ByteArrayByteIterator(value)));
+    assertFalse(ValueChecksum.verify("user1", "field0", new ByteArrayByteIterator(value, 0, 99)));
+    value[10]++;
+    assertFalse(ValueChecksum.verify("user1", "field0", new ByteArrayByteIterator(value)));
+    assertFalse(ValueChecksum.verify("user1", "field0", new StringByteIterator("short")));
+  }
+}
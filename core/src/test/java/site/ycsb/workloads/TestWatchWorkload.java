@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Client;
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.WatchListener;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+public class TestWatchWorkload {
+
+  /**
+   * Notifies the listeners synchronously of every update but those the test drops.
+   */
+  private static class NotifyingDB extends DB {
+    private final List<WatchListener> listeners = new CopyOnWriteArrayList<>();
+    private final int dropEvery;
+    private int updates;
+
+    NotifyingDB(int dropEvery) {
+      this.dropEvery = dropEvery;
+    }
+
+    @Override
+    public Status watch(String table, Set<String> keys, WatchListener listener) {
+      assertEquals(keys.size(), 2);
+      listeners.add(listener);
+      return Status.OK;
+    }
+
+    @Override
+    public Status unwatch(String table, WatchListener listener) {
+      assertTrue(listeners.remove(listener));
+      return Status.OK;
+    }
+
+    @Override
+    public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+      return Status.NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      return Status.NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public Status update(String table, String key, Map<String, ByteIterator> values) {
+      if (dropEvery == 0 || ++updates % dropEvery != 0) {
+        for (WatchListener listener : listeners) {
+          listener.onChange(key, values);
+        }
+      }
+      return Status.OK;
+    }
+
+    @Override
+    public Status insert(String table, String key, Map<String, ByteIterator> values) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status delete(String table, String key) {
+      return Status.NOT_IMPLEMENTED;
+    }
+  }
+
+  /**
+   * Runs one watcher thread with two listeners and one writer doing six writes.
+   */
+  private static WatchWorkload run(NotifyingDB db) throws Exception {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "2");
+    p.setProperty(Client.OPERATION_COUNT_PROPERTY, "12");
+    p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+    p.setProperty(WatchWorkload.WATCHES_PER_THREAD_PROPERTY, "2");
+    p.setProperty(WatchWorkload.WATCH_DRAIN_PROPERTY, "0");
+    Measurements.setProperties(p);
+    final WatchWorkload workload = new WatchWorkload();
+    workload.init(p);
+    final Object watcher = workload.initThread(p, 0, 2);
+    Object writer = workload.initThread(p, 1, 2);
+
+    final NotifyingDB watcherdb = db;
+    Thread watcherThread = new Thread(() -> assertFalse(workload.doTransaction(watcherdb, watcher)));
+    watcherThread.start();
+    for (int i = 0; i < 6; i++) {
+      assertTrue(workload.doTransaction(db, writer));
+    }
+    watcherThread.join(5000);
+    assertFalse(watcherThread.isAlive());
+    assertTrue(db.listeners.isEmpty());
+    return workload;
+  }
+
+  @Test
+  public void notifiesEveryListener() throws Exception {
+    WatchWorkload workload = run(new NotifyingDB(0));
+    assertEquals(workload.notifications(), 12);
+    assertEquals(workload.coalesced(), 0);
+    assertEquals(workload.duplicates(), 0);
+    assertEquals(workload.missed(), 0);
+  }
+
+  @Test
+  public void countsCoalescedAndMissedWrites() throws Exception {
+    // The 3rd and 6th writes are not notified. Each is coalesced into a later notified write to
+    // its record, or missed if there is none, as is always the case for the 6th.
+    WatchWorkload workload = run(new NotifyingDB(3));
+    assertEquals(workload.notifications(), 8);
+    assertEquals(workload.duplicates(), 0);
+    assertEquals(workload.coalesced() + workload.missed(), 4);
+    assertTrue(workload.missed() >= 2);
+  }
+
+  @Test
+  public void writersWithoutWritesAreDone() throws Exception {
+    // Two operations for three threads leave the second writer without any.
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "2");
+    p.setProperty(Client.OPERATION_COUNT_PROPERTY, "2");
+    p.setProperty(WatchWorkload.WATCH_DRAIN_PROPERTY, "0");
+    Measurements.setProperties(p);
+    final WatchWorkload workload = new WatchWorkload();
+    workload.init(p);
+    final Object watcher = workload.initThread(p, 0, 3);
+    Object writer = workload.initThread(p, 1, 3);
+    workload.initThread(p, 2, 3);
+
+    final NotifyingDB db = new NotifyingDB(0);
+    Thread watcherThread = new Thread(() -> assertFalse(workload.doTransaction(db, watcher)));
+    watcherThread.start();
+    assertTrue(workload.doTransaction(db, writer));
+    watcherThread.join(5000);
+    assertFalse(watcherThread.isAlive());
+    assertEquals(workload.notifications(), 1);
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void needsWriters() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "10");
+    Measurements.setProperties(p);
+    WatchWorkload workload = new WatchWorkload();
+    workload.init(p);
+    workload.initThread(p, 0, 1);
+  }
+}
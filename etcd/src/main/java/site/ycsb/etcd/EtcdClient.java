@@ -3,36 +3,101 @@ package site.ycsb.etcd;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.ClientBuilder;
 import io.etcd.jetcd.KV;
 import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Lease;
+import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.kv.DeleteResponse;
 import io.etcd.jetcd.kv.GetResponse;
 import io.etcd.jetcd.kv.PutResponse;
+import io.etcd.jetcd.kv.TxnResponse;
+import io.etcd.jetcd.lease.LeaseGrantResponse;
+import io.etcd.jetcd.op.Cmp;
+import io.etcd.jetcd.op.CmpTarget;
+import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.GetOption;
+import io.etcd.jetcd.options.PutOption;
+import io.etcd.jetcd.options.WatchOption;
+import io.etcd.jetcd.watch.WatchEvent;
+import io.etcd.jetcd.watch.WatchResponse;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.FieldCodec;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.WatchListener;
+import site.ycsb.generator.ExponentialGenerator;
+import site.ycsb.generator.NumberGenerator;
+import site.ycsb.generator.UniformLongGenerator;
+import site.ycsb.measurements.Measurements;
 
 /**
  * 
  * YCSB binding for etcd v3.
  * Client use the official jetcd library to communicate with etcd
- * 
+ * <p>
+ * All client threads share a pool of <b>etcd.channels</b> jetcd clients (1 by
+ * default), each with its own gRPC channel, event loops and executor, and are
+ * assigned to them round-robin. gRPC multiplexes the requests of all threads of a
+ * client over its channel. With etcd.channels=0 every thread builds its own client.
+ * </p>
+ * <p>
+ * By default every operation waits for its response. With <b>etcd.pipeline</b>=N,
+ * inserts, updates and deletes return BATCHED_OK as soon as their request is sent,
+ * and each thread keeps up to N of them in flight, waiting for a free slot before
+ * sending more. Their latency from request to response is measured as
+ * INSERT-ASYNC, UPDATE-ASYNC and DELETE-ASYNC when the response arrives. Reads
+ * still wait for their result, and a read may not see a write still in flight.
+ * </p>
+ * <p>
+ * Records are stored in the compact binary encoding of {@link FieldCodec}, which
+ * copies the field values straight into the request and decodes only the fields
+ * read. With <b>etcd.encoding</b>=properties they are stored as java.util.Properties
+ * text as in earlier versions. Records in either encoding are read.
+ * </p>
+ * <p>
+ * Scans are range reads from the start key to the end of the table's key prefix,
+ * in ascending key order, limited to the record count. Their latency is also
+ * measured by the number of records returned, as SCAN-ROWS-N for the smallest
+ * power of two N not below it. With <b>etcd.scan.keysonly</b>=true scans fetch
+ * only the keys and return an empty record for each. Reads and scans are
+ * linearizable unless <b>etcd.serializable</b>=true, which lets the member
+ * answer from its local state without a quorum round trip, possibly stale.
+ * </p>
+ * <p>
+ * With <b>etcd.lease.ttl</b> set to a number of seconds, inserts and updates
+ * attach their key to a lease of the thread, granted with a TTL drawn from
+ * <b>etcd.lease.ttldistribution</b>: constant at etcd.lease.ttl (the default),
+ * uniform between <b>etcd.lease.ttlmin</b> and etcd.lease.ttl, or exponential with
+ * mean etcd.lease.ttl. A lease is never renewed; each thread grants a new one
+ * after attaching <b>etcd.lease.keys</b> keys (100 by default) to it, or once
+ * its TTL has nearly run out, so up to as many keys expire together, and reads
+ * of expired keys return NOT_FOUND. Grants are measured as LEASE-GRANT. Together
+ * with the revision churn and compaction of {@link EtcdPressure}, reads, scans
+ * and writes are also measured by whether a compaction or lease expiry was under
+ * way, to compare with the baseline.
+ * </p>
  */
 public class EtcdClient extends DB {
   
@@ -42,9 +107,61 @@ public class EtcdClient extends DB {
   private static final String TIMEOUT_PROPERTY = "etcd.timeout";
   private static final long DEFAULT_TIMEOUT_MS = 5000;
   
+  private static final String CHANNELS_PROPERTY = "etcd.channels";
+  private static final String DEFAULT_CHANNELS = "1";
+  
+  private static final String PIPELINE_PROPERTY = "etcd.pipeline";
+  private static final String DEFAULT_PIPELINE = "0";
+  
+  private static final String ENCODING_PROPERTY = "etcd.encoding";
+  private static final String DEFAULT_ENCODING = "binary";
+  
+  private static final String SERIALIZABLE_PROPERTY = "etcd.serializable";
+  private static final String DEFAULT_SERIALIZABLE = "false";
+  
+  private static final String SCAN_KEYS_ONLY_PROPERTY = "etcd.scan.keysonly";
+  private static final String DEFAULT_SCAN_KEYS_ONLY = "false";
+  
+  private static final String LEASE_TTL_PROPERTY = "etcd.lease.ttl";
+  private static final String DEFAULT_LEASE_TTL = "0";
+  
+  private static final String LEASE_TTL_MIN_PROPERTY = "etcd.lease.ttlmin";
+  private static final String DEFAULT_LEASE_TTL_MIN = "1";
+  
+  private static final String LEASE_TTL_DISTRIBUTION_PROPERTY = "etcd.lease.ttldistribution";
+  private static final String DEFAULT_LEASE_TTL_DISTRIBUTION = "constant";
+  
+  private static final String LEASE_KEYS_PROPERTY = "etcd.lease.keys";
+  private static final String DEFAULT_LEASE_KEYS = "100";
+  
+  /** The clients shared by all threads, the threads using them, and the threads assigned so far. */
+  private static Client[] sharedClients;
+  private static int sharedUsers;
+  private static int sharedAssigned;
+  
   private Client client;
+  private boolean shared;
   private KV kvClient;
   private long timeoutMs;
+  private final Map<WatchListener, Watch.Watcher> watchers = new HashMap<>();
+  /** The number of writes that may be in flight, 0 if writes wait for their response. */
+  private int pipeline;
+  private Semaphore inflight;
+  /** Whether records are written in the binary encoding rather than as Properties. */
+  private boolean binary;
+  private boolean serializable;
+  private boolean scanKeysOnly;
+  private GetOption readOption;
+  /** The TTLs of the leases keys are attached to, or null if they are not. */
+  private NumberGenerator leaseTtl;
+  private int leaseKeys;
+  private Lease leaseClient;
+  private PutOption leaseOption = PutOption.DEFAULT;
+  private int leaseAttached;
+  /** When the thread's lease should no longer be used, ahead of its expiry. */
+  private long leaseRenewAt;
+  private EtcdPressure pressure;
+  private final Measurements measurements = Measurements.getMeasurements();
 
   @Override
   public void init() throws DBException {
@@ -57,42 +174,193 @@ public class EtcdClient extends DB {
     String timeoutStr = props.getProperty(TIMEOUT_PROPERTY);
     timeoutMs = timeoutStr != null ? Long.parseLong(timeoutStr) : DEFAULT_TIMEOUT_MS;
     
+    pipeline = Integer.parseInt(props.getProperty(PIPELINE_PROPERTY, DEFAULT_PIPELINE));
+    if (pipeline > 0) {
+      inflight = new Semaphore(pipeline);
+    }
+    
+    String encoding = props.getProperty(ENCODING_PROPERTY, DEFAULT_ENCODING);
+    if (!encoding.equals("binary") && !encoding.equals("properties")) {
+      throw new DBException("Unknown " + ENCODING_PROPERTY + " " + encoding + ", expected binary or properties");
+    }
+    binary = encoding.equals("binary");
+    
+    serializable = Boolean.parseBoolean(props.getProperty(SERIALIZABLE_PROPERTY, DEFAULT_SERIALIZABLE));
+    scanKeysOnly = Boolean.parseBoolean(props.getProperty(SCAN_KEYS_ONLY_PROPERTY, DEFAULT_SCAN_KEYS_ONLY));
+    readOption = serializable ? GetOption.builder().withSerializable(true).build() : GetOption.DEFAULT;
+    
+    int channels = Integer.parseInt(props.getProperty(CHANNELS_PROPERTY, DEFAULT_CHANNELS));
+    if (channels <= 0) {
+      client = buildClient(endpoints);
+      System.out.println("Connected to etcd at: " + endpoints);
+    } else {
+      synchronized (EtcdClient.class) {
+        if (sharedClients == null) {
+          Client[] clients = new Client[channels];
+          try {
+            for (int i = 0; i < channels; i++) {
+              clients[i] = buildClient(endpoints);
+            }
+          } catch (DBException e) {
+            closeAll(clients);
+            throw e;
+          }
+          sharedClients = clients;
+          System.out.println("Connected to etcd at: " + endpoints + " over " + channels + " shared channels");
+        }
+        client = sharedClients[sharedAssigned++ % sharedClients.length];
+        sharedUsers++;
+        shared = true;
+      }
+    }
+    kvClient = client.getKVClient();
+    
+    leaseTtl = leaseTtlGenerator(props);
+    if (leaseTtl != null) {
+      leaseKeys = Integer.parseInt(props.getProperty(LEASE_KEYS_PROPERTY, DEFAULT_LEASE_KEYS));
+      leaseClient = client.getLeaseClient();
+    }
+    pressure = EtcdPressure.acquire(props, leaseTtl != null, endpoints, timeoutMs);
+  }
+
+  private static NumberGenerator leaseTtlGenerator(Properties props) throws DBException {
+    long ttl = Long.parseLong(props.getProperty(LEASE_TTL_PROPERTY, DEFAULT_LEASE_TTL));
+    if (ttl <= 0) {
+      return null;
+    }
+    String distribution = props.getProperty(LEASE_TTL_DISTRIBUTION_PROPERTY, DEFAULT_LEASE_TTL_DISTRIBUTION);
+    switch (distribution) {
+    case "constant":
+      return new UniformLongGenerator(ttl, ttl);
+    case "uniform":
+      return new UniformLongGenerator(
+          Long.parseLong(props.getProperty(LEASE_TTL_MIN_PROPERTY, DEFAULT_LEASE_TTL_MIN)), ttl);
+    case "exponential":
+      return new ExponentialGenerator(ttl);
+    default:
+      throw new DBException("Unknown " + LEASE_TTL_DISTRIBUTION_PROPERTY + " " + distribution
+          + ", expected constant, uniform or exponential");
+    }
+  }
+
+  /**
+   * @return The option attaching a put to the thread's lease, granting a new lease if the current
+   * one has as many keys as it takes or is about to expire, or the default option if keys are not
+   * attached to leases.
+   */
+  private PutOption putOption() throws InterruptedException, ExecutionException, TimeoutException {
+    if (leaseTtl == null) {
+      return PutOption.DEFAULT;
+    }
+    if (leaseAttached == 0 || leaseAttached >= leaseKeys || System.nanoTime() - leaseRenewAt >= 0) {
+      long ttl = Math.max(1, leaseTtl.nextValue().longValue());
+      long start = System.nanoTime();
+      LeaseGrantResponse response = leaseClient.grant(ttl).get(timeoutMs, TimeUnit.MILLISECONDS);
+      measurements.measure("LEASE-GRANT", (int) ((System.nanoTime() - start) / 1000));
+      pressure.leaseGranted(response.getTTL());
+      // The TTL runs from the grant on the server, and a put may take up to the timeout to
+      // arrive, so stop using the lease that much before its expiry as seen from the request,
+      // but at most half way through short leases, so they still take a batch of keys.
+      long ttlNanos = TimeUnit.SECONDS.toNanos(response.getTTL());
+      leaseRenewAt = start + ttlNanos - Math.min(TimeUnit.MILLISECONDS.toNanos(timeoutMs), ttlNanos / 2);
+      leaseOption = PutOption.builder().withLeaseId(response.getID()).build();
+      leaseAttached = 0;
+    }
+    leaseAttached++;
+    return leaseOption;
+  }
+
+  /**
+   * Measures an operation a second time by what the store was doing when it ended.
+   */
+  private Status phased(String op, long start, Status status) {
+    if (pressure != null) {
+      long end = System.nanoTime();
+      measurements.measure(op + "-" + pressure.phase(end), (int) ((end - start) / 1000));
+    }
+    return status;
+  }
+
+  static Client buildClient(String endpoints) throws DBException {
     try {
-      // Build etcd client
       String[] endpointArray = endpoints.split(",");
       ClientBuilder builder = Client.builder();
       for (String endpoint : endpointArray) {
         builder.endpoints(endpoint.trim());
       }
-      
-      client = builder.build();
-      kvClient = client.getKVClient();
-      
-      System.out.println("Connected to etcd at: " + endpoints);
+      return builder.build();
     } catch (Exception e) {
       throw new DBException("Failed to connect to etcd: " + e.getMessage(), e);
     }
   }
 
+  private static void closeAll(Client[] clients) {
+    for (Client c : clients) {
+      if (c != null) {
+        c.close();
+      }
+    }
+  }
+
   @Override
   public void cleanup() throws DBException {
-    if (client != null) {
+    if (inflight != null) {
       try {
+        // Every request in flight times out after timeoutMs at the latest.
+        if (!inflight.tryAcquire(pipeline, 2 * timeoutMs, TimeUnit.MILLISECONDS)) {
+          System.err.println("etcd requests still in flight at cleanup");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (Watch.Watcher watcher : watchers.values()) {
+      watcher.close();
+    }
+    watchers.clear();
+    if (pressure != null) {
+      pressure = null;
+      EtcdPressure.release();
+    }
+    if (client == null) {
+      return;
+    }
+    try {
+      if (!shared) {
         client.close();
-      } catch (Exception e) {
-        throw new DBException("Failed to close etcd connection: " + e.getMessage(), e);
+        return;
+      }
+      synchronized (EtcdClient.class) {
+        if (--sharedUsers == 0) {
+          System.out.println("Closing " + sharedClients.length + " etcd channels shared by "
+              + sharedAssigned + " threads");
+          Client[] clients = sharedClients;
+          sharedClients = null;
+          sharedAssigned = 0;
+          closeAll(clients);
+        }
       }
+    } catch (Exception e) {
+      throw new DBException("Failed to close etcd connection: " + e.getMessage(), e);
+    } finally {
+      client = null;
     }
   }
 
   @Override
   public Status read(String table, String key, Set<String> fields,
                      Map<String, ByteIterator> result) {
+    // The arguments are evaluated in order, so the start is taken before the read.
+    return phased("READ", System.nanoTime(), readRecord(table, key, fields, result));
+  }
+
+  private Status readRecord(String table, String key, Set<String> fields,
+                            Map<String, ByteIterator> result) {
     String etcdKey = buildKey(table, key);
     
     try {
       ByteSequence keySeq = ByteSequence.from(etcdKey, StandardCharsets.UTF_8);
-      CompletableFuture<GetResponse> future = kvClient.get(keySeq);
+      CompletableFuture<GetResponse> future = kvClient.get(keySeq, readOption);
       GetResponse response = future.get(timeoutMs, TimeUnit.MILLISECONDS);
       
       if (response.getKvs().isEmpty()) {
@@ -120,6 +388,11 @@ public class EtcdClient extends DB {
   @Override
   public Status insert(String table, String key,
                        Map<String, ByteIterator> values) {
+    return phased("INSERT", System.nanoTime(), insertRecord(table, key, values));
+  }
+
+  private Status insertRecord(String table, String key,
+                              Map<String, ByteIterator> values) {
     String etcdKey = buildKey(table, key);
     
     try {
@@ -127,8 +400,12 @@ public class EtcdClient extends DB {
       
       ByteSequence keySeq = ByteSequence.from(etcdKey, StandardCharsets.UTF_8);
       ByteSequence valueSeq = ByteSequence.from(data);
+      PutOption option = putOption();
+      if (pipeline > 0) {
+        return pipeline("INSERT", etcdKey, () -> kvClient.put(keySeq, valueSeq, option).thenApply(r -> Status.OK));
+      }
       
-      CompletableFuture<PutResponse> future = kvClient.put(keySeq, valueSeq);
+      CompletableFuture<PutResponse> future = kvClient.put(keySeq, valueSeq, option);
       future.get(timeoutMs, TimeUnit.MILLISECONDS);
       
       return Status.OK;
@@ -148,10 +425,19 @@ public class EtcdClient extends DB {
   @Override
   public Status update(String table, String key,
                        Map<String, ByteIterator> values) {
+    return phased("UPDATE", System.nanoTime(), updateRecord(table, key, values));
+  }
+
+  private Status updateRecord(String table, String key,
+                              Map<String, ByteIterator> values) {
     String etcdKey = buildKey(table, key);
     
     try {
       ByteSequence keySeq = ByteSequence.from(etcdKey, StandardCharsets.UTF_8);
+      PutOption option = putOption();
+      if (pipeline > 0) {
+        return pipelineUpdate(etcdKey, keySeq, values, option);
+      }
       
       CompletableFuture<GetResponse> getFuture = kvClient.get(keySeq);
       GetResponse getResponse = getFuture.get(timeoutMs, TimeUnit.MILLISECONDS);
@@ -170,7 +456,7 @@ public class EtcdClient extends DB {
       byte[] newData = serializeFields(existingValues);
       ByteSequence valueSeq = ByteSequence.from(newData);
       
-      CompletableFuture<PutResponse> putFuture = kvClient.put(keySeq, valueSeq);
+      CompletableFuture<PutResponse> putFuture = kvClient.put(keySeq, valueSeq, option);
       putFuture.get(timeoutMs, TimeUnit.MILLISECONDS);
       
       return Status.OK;
@@ -189,10 +475,17 @@ public class EtcdClient extends DB {
 
   @Override
   public Status delete(String table, String key) {
+    return phased("DELETE", System.nanoTime(), deleteRecord(table, key));
+  }
+
+  private Status deleteRecord(String table, String key) {
     String etcdKey = buildKey(table, key);
     
     try {
       ByteSequence keySeq = ByteSequence.from(etcdKey, StandardCharsets.UTF_8);
+      if (pipeline > 0) {
+        return pipeline("DELETE", etcdKey, () -> kvClient.delete(keySeq).thenApply(r -> Status.OK));
+      }
       
       CompletableFuture<DeleteResponse> future = kvClient.delete(keySeq);
       future.get(timeoutMs, TimeUnit.MILLISECONDS);
@@ -208,10 +501,248 @@ public class EtcdClient extends DB {
     }
   }
 
+  /**
+   * Sends a write without waiting for its response, once fewer than etcd.pipeline
+   * writes of this thread are in flight. The response is measured as op-ASYNC.
+   */
+  private Status pipeline(String op, String etcdKey, Supplier<CompletableFuture<Status>> request) {
+    try {
+      if (!inflight.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+        System.err.println("Timeout waiting for in-flight requests before key: " + etcdKey);
+        return Status.SERVICE_UNAVAILABLE;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Status.ERROR;
+    }
+    long start = System.nanoTime();
+    CompletableFuture<Status> future;
+    try {
+      future = request.get();
+    } catch (RuntimeException e) {
+      inflight.release();
+      System.err.println("Error sending " + op + " of key: " + etcdKey + ": " + e.getMessage());
+      return Status.ERROR;
+    }
+    future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .whenComplete((status, error) -> complete(op, etcdKey, start, status, error));
+    return Status.BATCHED_OK;
+  }
+
+  private void complete(String op, String etcdKey, long start, Status status, Throwable error) {
+    Status result = status;
+    if (error != null) {
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      result = cause instanceof TimeoutException ? Status.SERVICE_UNAVAILABLE : Status.ERROR;
+      System.err.println("Error in " + op + " of key: " + etcdKey + ": " + cause);
+    }
+    String name = op + "-ASYNC";
+    measurements.measure(result.isOk() ? name : name + "-FAILED", (int) ((System.nanoTime() - start) / 1000));
+    measurements.reportStatus(name, result);
+    inflight.release();
+  }
+
+  /**
+   * Chains the read and the write of an update without waiting for either.
+   */
+  private Status pipelineUpdate(String etcdKey, ByteSequence keySeq, Map<String, ByteIterator> values,
+                                PutOption option) {
+    // The values belong to the caller, so take them before returning.
+    Map<String, String> updates = new HashMap<>();
+    for (Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+      updates.put(entry.getKey(), entry.getValue().toString());
+    }
+    return pipeline("UPDATE", etcdKey,
+        () -> kvClient.get(keySeq).thenCompose(response -> putUpdated(keySeq, response, updates, option)));
+  }
+
+  private CompletableFuture<Status> putUpdated(ByteSequence keySeq, GetResponse response,
+                                               Map<String, String> updates, PutOption option) {
+    if (response.getKvs().isEmpty()) {
+      return CompletableFuture.completedFuture(Status.NOT_FOUND);
+    }
+    Map<String, ByteIterator> record = new HashMap<>();
+    try {
+      deserializeFields(response.getKvs().get(0).getValue().getBytes(), null, record);
+      StringByteIterator.putAllAsByteIterators(record, updates);
+      return kvClient.put(keySeq, ByteSequence.from(serializeFields(record)), option).thenApply(r -> Status.OK);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads all records of the transaction in one etcd transaction, so they come
+   * from a single revision, then commits the updates in a second one guarded by
+   * comparing the mod revision of every record with the one read.
+   */
+  @Override
+  public Status transaction(String table, Set<String> readKeys,
+                            Map<String, Map<String, ByteIterator>> writes) {
+    List<ByteSequence> keys = new ArrayList<>(readKeys.size() + writes.size());
+    List<Map<String, ByteIterator>> updates = new ArrayList<>(readKeys.size() + writes.size());
+    for (String key : readKeys) {
+      keys.add(ByteSequence.from(buildKey(table, key), StandardCharsets.UTF_8));
+      updates.add(null);
+    }
+    for (Map.Entry<String, Map<String, ByteIterator>> write : writes.entrySet()) {
+      keys.add(ByteSequence.from(buildKey(table, write.getKey()), StandardCharsets.UTF_8));
+      updates.add(write.getValue());
+    }
+
+    try {
+      Op[] gets = new Op[keys.size()];
+      for (int i = 0; i < gets.length; i++) {
+        gets[i] = Op.get(keys.get(i), GetOption.DEFAULT);
+      }
+      TxnResponse snapshot = kvClient.txn().Then(gets).commit().get(timeoutMs, TimeUnit.MILLISECONDS);
+      List<GetResponse> responses = snapshot.getGetResponses();
+
+      Cmp[] compares = new Cmp[keys.size()];
+      List<Op> puts = new ArrayList<>(writes.size());
+      for (int i = 0; i < compares.length; i++) {
+        if (responses.get(i).getKvs().isEmpty()) {
+          return Status.NOT_FOUND;
+        }
+        KeyValue kv = responses.get(i).getKvs().get(0);
+        compares[i] = new Cmp(keys.get(i), Cmp.Op.EQUAL, CmpTarget.modRevision(kv.getModRevision()));
+        if (updates.get(i) != null) {
+          Map<String, ByteIterator> record = new HashMap<>();
+          deserializeFields(kv.getValue().getBytes(), null, record);
+          record.putAll(updates.get(i));
+          puts.add(Op.put(keys.get(i), ByteSequence.from(serializeFields(record)), PutOption.DEFAULT));
+        }
+      }
+
+      TxnResponse commit = kvClient.txn().If(compares).Then(puts.toArray(new Op[0])).commit()
+          .get(timeoutMs, TimeUnit.MILLISECONDS);
+      return commit.isSucceeded() ? Status.OK : Status.CONFLICT;
+
+    } catch (TimeoutException e) {
+      System.err.println("Timeout in transaction on " + keys.size() + " keys");
+      return Status.SERVICE_UNAVAILABLE;
+    } catch (InterruptedException | ExecutionException e) {
+      System.err.println("Error in transaction: " + e.getMessage());
+      return Status.ERROR;
+    } catch (IOException e) {
+      System.err.println("Error processing data in transaction: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * Watches the whole table with a single prefix watch per listener and
+   * passes on the events of the keys watched. etcd reports every revision, so
+   * the listener sees each change unless the watch falls behind compaction.
+   */
+  @Override
+  public Status watch(String table, Set<String> keys, WatchListener listener) {
+    String prefix = buildKey(table, "");
+    WatchOption option = WatchOption.builder().isPrefix(true).build();
+    try {
+      Watch.Watcher watcher = client.getWatchClient().watch(ByteSequence.from(prefix, StandardCharsets.UTF_8), option,
+          Watch.listener(response -> notify(response, prefix, keys, listener),
+              error -> System.err.println("Error watching " + prefix + ": " + error.getMessage())));
+      Watch.Watcher previous = watchers.put(listener, watcher);
+      if (previous != null) {
+        previous.close();
+      }
+      return Status.OK;
+    } catch (RuntimeException e) {
+      System.err.println("Error watching " + prefix + ": " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  @Override
+  public Status unwatch(String table, WatchListener listener) {
+    Watch.Watcher watcher = watchers.remove(listener);
+    if (watcher == null) {
+      return Status.NOT_FOUND;
+    }
+    watcher.close();
+    return Status.OK;
+  }
+
+  private void notify(WatchResponse response, String prefix, Set<String> keys, WatchListener listener) {
+    for (WatchEvent event : response.getEvents()) {
+      KeyValue kv = event.getKeyValue();
+      String key = kv.getKey().toString(StandardCharsets.UTF_8).substring(prefix.length());
+      if (!keys.contains(key)) {
+        continue;
+      }
+      if (event.getEventType() == WatchEvent.EventType.DELETE) {
+        listener.onChange(key, null);
+        continue;
+      }
+      Map<String, ByteIterator> values = new HashMap<>();
+      try {
+        deserializeFields(kv.getValue().getBytes(), null, values);
+      } catch (IOException e) {
+        System.err.println("Error deserializing watched key: " + key + ": " + e.getMessage());
+        continue;
+      }
+      listener.onChange(key, values);
+    }
+  }
+
   @Override
   public Status scan(String table, String startkey, int recordcount,
                      Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
-    return Status.NOT_IMPLEMENTED;
+    return phased("SCAN", System.nanoTime(), scanRecords(table, startkey, recordcount, fields, result));
+  }
+
+  private Status scanRecords(String table, String startkey, int recordcount,
+                             Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    String startKey = buildKey(table, startkey);
+    long start = System.nanoTime();
+    
+    try {
+      ByteSequence keySeq = ByteSequence.from(startKey, StandardCharsets.UTF_8);
+      // The table's keys all start with its prefix, which ends in '/'. Keys up to the prefix with
+      // its last character incremented to '0' are the rest of the table.
+      String prefix = buildKey(table, "");
+      ByteSequence endSeq = ByteSequence.from(prefix.substring(0, prefix.length() - 1) + '0',
+          StandardCharsets.UTF_8);
+      GetOption option = GetOption.builder()
+          .withRange(endSeq)
+          .withLimit(recordcount)
+          .withSortField(GetOption.SortTarget.KEY)
+          .withSortOrder(GetOption.SortOrder.ASCEND)
+          .withSerializable(serializable)
+          .withKeysOnly(scanKeysOnly)
+          .build();
+      GetResponse response = kvClient.get(keySeq, option).get(timeoutMs, TimeUnit.MILLISECONDS);
+      
+      List<KeyValue> kvs = response.getKvs();
+      result.ensureCapacity(kvs.size());
+      for (KeyValue kv : kvs) {
+        HashMap<String, ByteIterator> values = new HashMap<>();
+        if (!scanKeysOnly) {
+          deserializeFields(kv.getValue().getBytes(), fields, values);
+        }
+        result.add(values);
+      }
+      measurements.measure("SCAN-ROWS-" + rowsBucket(kvs.size()), (int) ((System.nanoTime() - start) / 1000));
+      return Status.OK;
+      
+    } catch (TimeoutException e) {
+      System.err.println("Timeout scanning from key: " + startKey);
+      return Status.SERVICE_UNAVAILABLE;
+    } catch (InterruptedException | ExecutionException e) {
+      System.err.println("Error scanning from key: " + startKey + ": " + e.getMessage());
+      return Status.ERROR;
+    } catch (IOException e) {
+      System.err.println("Error deserializing data scanned from key: " + startKey + ": " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * @return The smallest power of two not below the number of rows, or 0 for none.
+   */
+  private static int rowsBucket(int rows) {
+    return rows <= 1 ? rows : Integer.highestOneBit(rows - 1) << 1;
   }
 
   private String buildKey(String table, String key) {
@@ -223,6 +754,9 @@ public class EtcdClient extends DB {
   }
 
   private byte[] serializeFields(Map<String, ByteIterator> values) throws IOException {
+    if (binary) {
+      return FieldCodec.encode(values);
+    }
     Properties props = new Properties();
     for (Map.Entry<String, ByteIterator> entry : values.entrySet()) {
       props.setProperty(entry.getKey(), entry.getValue().toString());
@@ -235,6 +769,11 @@ public class EtcdClient extends DB {
 
   private void deserializeFields(byte[] data, Set<String> fields,
                                  Map<String, ByteIterator> result) throws IOException {
+    if (FieldCodec.isEncoded(data)) {
+      FieldCodec.decode(data, fields, result);
+      return;
+    }
+    // Properties text, which never starts with the binary format byte.
     Properties props = new Properties();
     props.load(new ByteArrayInputStream(data));
     
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.etcd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.Client;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.kv.CompactResponse;
+import io.etcd.jetcd.options.CompactOption;
+import site.ycsb.DBException;
+import site.ycsb.Status;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * Pressure on etcd's MVCC store while {@link EtcdClient} runs a workload, shared
+ * by all client threads.
+ * <p>
+ * A background thread with its own client overwrites <b>etcd.churn.keys</b> keys
+ * under /ycsb-churn/ at <b>etcd.churn.rate</b> puts per second, so every key
+ * accumulates revisions, and every <b>etcd.compaction.interval</b> milliseconds
+ * compacts the store up to its current revision, physically if
+ * <b>etcd.compaction.physical</b> is true. Churn puts are measured as CHURN-PUT
+ * and compactions as COMPACTION, with failures counted as ERROR return codes.
+ * </p>
+ * <p>
+ * The operations of the client threads are measured a second time by what the
+ * store was doing: op-COMPACTION while a compaction runs and for
+ * <b>etcd.pressure.window</b> milliseconds after, op-EXPIRY within the window
+ * after a lease granted by a client thread expired, and op-BASELINE otherwise.
+ * </p>
+ */
+final class EtcdPressure {
+
+  static final String CHURN_RATE_PROPERTY = "etcd.churn.rate";
+  static final String DEFAULT_CHURN_RATE = "0";
+
+  static final String CHURN_KEYS_PROPERTY = "etcd.churn.keys";
+  static final String DEFAULT_CHURN_KEYS = "1000";
+
+  static final String COMPACTION_INTERVAL_PROPERTY = "etcd.compaction.interval";
+  static final String DEFAULT_COMPACTION_INTERVAL = "0";
+
+  static final String COMPACTION_PHYSICAL_PROPERTY = "etcd.compaction.physical";
+  static final String DEFAULT_COMPACTION_PHYSICAL = "false";
+
+  static final String WINDOW_PROPERTY = "etcd.pressure.window";
+  static final String DEFAULT_WINDOW = "1000";
+
+  private static final String CHURN_PREFIX = "/ycsb-churn/";
+  private static final int CHURN_VALUE_SIZE = 128;
+  /** The churn puts in flight at once, so a slow store slows the churn rather than piling up requests. */
+  private static final int CHURN_INFLIGHT = 64;
+
+  private static EtcdPressure shared;
+  private static int users;
+
+  private final double churnRate;
+  private final int churnKeys;
+  private final long compactionIntervalMs;
+  private final CompactOption compactOption;
+  private final long windowNanos;
+  private final long timeoutMs;
+  private final Measurements measurements = Measurements.getMeasurements();
+
+  private Client client;
+  private KV kv;
+  private Thread thread;
+  private volatile boolean stopped;
+  private final Semaphore churnInflight = new Semaphore(CHURN_INFLIGHT);
+
+  /** When the running compaction started, or 0. */
+  private volatile long compactionStart;
+  /** When the last compaction ended, or 0. */
+  private volatile long compactionEnd;
+  /** When leases granted expire, or expired within the window. */
+  private final ConcurrentSkipListSet<Long> expiries = new ConcurrentSkipListSet<>();
+
+  private EtcdPressure(Properties props, long timeoutMs) {
+    churnRate = Double.parseDouble(props.getProperty(CHURN_RATE_PROPERTY, DEFAULT_CHURN_RATE));
+    churnKeys = Integer.parseInt(props.getProperty(CHURN_KEYS_PROPERTY, DEFAULT_CHURN_KEYS));
+    compactionIntervalMs = Long.parseLong(
+        props.getProperty(COMPACTION_INTERVAL_PROPERTY, DEFAULT_COMPACTION_INTERVAL));
+    compactOption = CompactOption.builder().withCompactPhysical(Boolean.parseBoolean(
+        props.getProperty(COMPACTION_PHYSICAL_PROPERTY, DEFAULT_COMPACTION_PHYSICAL))).build();
+    windowNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(props.getProperty(WINDOW_PROPERTY, DEFAULT_WINDOW)));
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Returns the pressure shared by the client threads, starting it for the first one.
+   *
+   * @param props The properties of the run.
+   * @param leases Whether the client threads attach keys to leases.
+   * @param endpoints The endpoints for the background thread's client.
+   * @param timeoutMs The timeout of the background thread's requests.
+   * @return The pressure, or null if neither leases, churn nor compaction are enabled.
+   */
+  static synchronized EtcdPressure acquire(Properties props, boolean leases, String endpoints, long timeoutMs)
+      throws DBException {
+    if (shared == null) {
+      EtcdPressure pressure = new EtcdPressure(props, timeoutMs);
+      boolean background = pressure.churnRate > 0 || pressure.compactionIntervalMs > 0;
+      if (!leases && !background) {
+        return null;
+      }
+      if (background) {
+        pressure.start(endpoints);
+      }
+      shared = pressure;
+    }
+    users++;
+    return shared;
+  }
+
+  /**
+   * Stops the pressure once the last client thread is done with it.
+   */
+  static synchronized void release() {
+    if (--users == 0) {
+      shared.stop();
+      shared = null;
+    }
+  }
+
+  private void start(String endpoints) throws DBException {
+    client = EtcdClient.buildClient(endpoints);
+    kv = client.getKVClient();
+    thread = new Thread(this::run, "etcd-pressure");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void stop() {
+    if (thread == null) {
+      return;
+    }
+    stopped = true;
+    try {
+      thread.join(2 * timeoutMs);
+      churnInflight.tryAcquire(CHURN_INFLIGHT, 2 * timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    client.close();
+  }
+
+  private void run() {
+    byte[] value = new byte[CHURN_VALUE_SIZE];
+    Arrays.fill(value, (byte) 'c');
+    ByteSequence valueSeq = ByteSequence.from(value);
+    long start = System.nanoTime();
+    long nextCompaction = start + TimeUnit.MILLISECONDS.toNanos(compactionIntervalMs);
+    long sent = 0;
+    while (!stopped) {
+      long now = System.nanoTime();
+      if (compactionIntervalMs > 0 && now >= nextCompaction && compactionStart == 0) {
+        compact(now);
+        nextCompaction = now + TimeUnit.MILLISECONDS.toNanos(compactionIntervalMs);
+      }
+      long due = churnRate > 0 ? (long) ((now - start) / 1e9 * churnRate) : sent;
+      if (sent < due && churnInflight.tryAcquire()) {
+        ByteSequence keySeq = ByteSequence.from(CHURN_PREFIX + (sent++ % churnKeys), StandardCharsets.UTF_8);
+        long putStart = System.nanoTime();
+        kv.put(keySeq, valueSeq).orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+            .whenComplete((response, error) -> churned(putStart, error));
+        continue;
+      }
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private void churned(long start, Throwable error) {
+    measurements.measure("CHURN-PUT", (int) ((System.nanoTime() - start) / 1000));
+    measurements.reportStatus("CHURN-PUT", error != null ? Status.ERROR : Status.OK);
+    churnInflight.release();
+  }
+
+  /**
+   * Compacts up to the current revision, read from the header of a get, without waiting.
+   */
+  private void compact(long now) {
+    compactionStart = now;
+    ByteSequence keySeq = ByteSequence.from(CHURN_PREFIX, StandardCharsets.UTF_8);
+    CompletableFuture<CompactResponse> future = kv.get(keySeq)
+        .thenCompose(response -> kv.compact(response.getHeader().getRevision(), compactOption));
+    future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .whenComplete((response, error) -> compacted(error));
+  }
+
+  private void compacted(Throwable error) {
+    long end = System.nanoTime();
+    if (error != null) {
+      System.err.println("etcd compaction failed: " + error);
+      measurements.reportStatus("COMPACTION", Status.ERROR);
+    } else {
+      measurements.measure("COMPACTION", (int) ((end - compactionStart) / 1000));
+      measurements.reportStatus("COMPACTION", Status.OK);
+    }
+    compactionEnd = end;
+    compactionStart = 0;
+  }
+
+  /**
+   * Records a lease granted by a client thread.
+   *
+   * @param ttlSeconds The TTL the lease was granted with.
+   */
+  void leaseGranted(long ttlSeconds) {
+    long now = System.nanoTime();
+    expiries.headSet(now - windowNanos).clear();
+    expiries.add(now + TimeUnit.SECONDS.toNanos(ttlSeconds));
+  }
+
+  /**
+   * @return What the store is doing at the time: COMPACTION, EXPIRY or BASELINE.
+   */
+  String phase(long now) {
+    long end = compactionEnd;
+    if (compactionStart != 0 || (end != 0 && now - end < windowNanos)) {
+      return "COMPACTION";
+    }
+    Long expiry = expiries.floor(now);
+    if (expiry != null && now - expiry < windowNanos) {
+      return "EXPIRY";
+    }
+    return "BASELINE";
+  }
+}
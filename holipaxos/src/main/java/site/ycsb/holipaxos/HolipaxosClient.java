@@ -21,6 +21,7 @@ import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.measurements.Availability;
 
 /**
  * YCSB binding for HoliPaxos consensus protocol.
@@ -40,6 +41,12 @@ public class HolipaxosClient extends DB {
   private Socket socket;
   private PrintWriter out;
   private BufferedReader in;
+  private final Availability availability = Availability.getAvailability();
+
+  // Connections used for reads directed at one node, opened on first use
+  private Socket[] replicaSockets;
+  private PrintWriter[] replicaOut;
+  private BufferedReader[] replicaIn;
   
   @Override
   public void init() throws DBException {
@@ -55,6 +62,9 @@ public class HolipaxosClient extends DB {
     timeoutMs = timeoutStr != null ? Integer.parseInt(timeoutStr) : DEFAULT_TIMEOUT_MS;
     
     currentHost = ThreadLocalRandom.current().nextInt(hosts.length);
+    replicaSockets = new Socket[hosts.length];
+    replicaOut = new PrintWriter[hosts.length];
+    replicaIn = new BufferedReader[hosts.length];
     
     connect();
   }
@@ -69,6 +79,15 @@ public class HolipaxosClient extends DB {
         // Best effort close
       }
     }
+    for (Socket replicaSocket : replicaSockets) {
+      if (replicaSocket != null) {
+        try {
+          replicaSocket.close();
+        } catch (IOException e) {
+          // Best effort close
+        }
+      }
+    }
   }
   
   @Override
@@ -91,6 +110,59 @@ public class HolipaxosClient extends DB {
     }
   }
   
+  @Override
+  public int replicaCount() {
+    return hosts.length;
+  }
+
+  /**
+   * Sends a get to one node without following leader redirects. A node that
+   * only serves reads as leader answers with a redirect, reported as FORBIDDEN.
+   */
+  @Override
+  public Status readReplica(String table, String key, int replica, Set<String> fields,
+                            Map<String, ByteIterator> result) {
+    try {
+      if (replicaSockets[replica] == null || replicaSockets[replica].isClosed()) {
+        String[] parts = hosts[replica].split(":");
+        replicaSockets[replica] = new Socket(parts[0], Integer.parseInt(parts[1]));
+        replicaSockets[replica].setSoTimeout(timeoutMs);
+        replicaOut[replica] = new PrintWriter(replicaSockets[replica].getOutputStream(), true);
+        replicaIn[replica] = new BufferedReader(new InputStreamReader(replicaSockets[replica].getInputStream()));
+      }
+      replicaOut[replica].println("get " + key);
+      replicaOut[replica].flush();
+      String response = replicaIn[replica].readLine();
+      if (response == null) {
+        throw new IOException("Connection closed");
+      }
+      response = response.trim();
+
+      if (response.equals("key not found")) {
+        return Status.NOT_FOUND;
+      }
+      if (response.startsWith("leader is ")) {
+        return Status.FORBIDDEN;
+      }
+      if (response.equals("retry") || response.equals("bad command")) {
+        return Status.ERROR;
+      }
+
+      String decodedValue = URLDecoder.decode(response, StandardCharsets.UTF_8.name());
+      result.put("field0", new StringByteIterator(decodedValue));
+      return Status.OK;
+    } catch (IOException e) {
+      if (replicaSockets[replica] != null) {
+        try {
+          replicaSockets[replica].close();
+        } catch (IOException ce) {
+          // Best effort close
+        }
+      }
+      return Status.ERROR;
+    }
+  }
+
   @Override
   public Status insert(String table, String key, Map<String, ByteIterator> values) {
     //System.out.println("insert() called with key: " + key);
@@ -174,10 +246,12 @@ public class HolipaxosClient extends DB {
     Exception lastException = null;
     
     for (int retry = 0; retry < maxRetries; retry++) {
+      long attemptStart = System.nanoTime();
       try {
         return execute(command);
       } catch (Exception e) {
         lastException = e;
+        availability.retry(attemptStart);
         // Try next server
         currentHost = (currentHost + 1) % hosts.length;
         try {
@@ -196,11 +270,13 @@ public class HolipaxosClient extends DB {
     Exception lastException = null;
     
     for (int retry = 0; retry < maxRetries; retry++) {
+      long attemptStart = System.nanoTime();
       try {
         executeWrite(command);
         return;
       } catch (Exception e) {
         lastException = e;
+        availability.retry(attemptStart);
         // Try next server
         currentHost = (currentHost + 1) % hosts.length;
         try {
@@ -215,6 +291,7 @@ public class HolipaxosClient extends DB {
   }
   
   private String execute(String command) throws Exception {
+    long start = System.nanoTime();
     out.println(command);
     out.flush();
     
@@ -230,7 +307,7 @@ public class HolipaxosClient extends DB {
     }
     
     if (response.startsWith("leader is ")) {
-      handleLeaderRedirect(response);
+      handleLeaderRedirect(response, start);
       // Retry with new leader
       return execute(command);
     }
@@ -244,6 +321,7 @@ public class HolipaxosClient extends DB {
   
   private void executeWrite(String command) throws Exception {
     int originalTimeout = timeoutMs;
+    long start = System.nanoTime();
     
     try {
       socket.setSoTimeout(500);
@@ -266,7 +344,7 @@ public class HolipaxosClient extends DB {
           }
           
           if (response.startsWith("leader is ")) {
-            handleLeaderRedirect(response);
+            handleLeaderRedirect(response, start);
             // Retry with new leader
             executeWrite(command);
             return;
@@ -286,7 +364,8 @@ public class HolipaxosClient extends DB {
     }
   }
   
-  private void handleLeaderRedirect(String response) throws DBException {
+  private void handleLeaderRedirect(String response, long attemptStart) throws DBException {
+    availability.redirect(attemptStart);
     String[] parts = response.split(" ");
     if (parts.length >= 3) {
       try {
@@ -18,6 +18,7 @@ import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.measurements.Availability;
 
 /**
  * YCSB database binding for hraftd, a Raft-based key-value store.
@@ -35,6 +36,7 @@ public class HraftdClient extends DB {
   private static String[] hosts;
   private static volatile int currentHostIndex = 0;
   private boolean debug = false;
+  private final Availability availability = Availability.getAvailability();
 
   @Override
   public void init() throws DBException {
@@ -74,13 +76,15 @@ public class HraftdClient extends DB {
     return hosts[currentHostIndex];
   }
 
-  private void switchToNextHost() {
+  private void switchToNextHost(long attemptStart) {
+    availability.retry(attemptStart);
     currentHostIndex = (currentHostIndex + 1) % hosts.length;
   }
 
   @Override
   public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
     for (int attempts = 0; attempts < hosts.length; attempts++) {
+      long attemptStart = System.nanoTime();
       String urlString = getCurrentHost() + "/key/" + key;
       if (debug) {
         System.out.println("GET: " + urlString);
@@ -121,12 +125,65 @@ public class HraftdClient extends DB {
       }
 
       // Try next host
-      switchToNextHost();
+      switchToNextHost(attemptStart);
     }
 
     return Status.ERROR;
   }
 
+  @Override
+  public int replicaCount() {
+    return hosts.length;
+  }
+
+  /**
+   * Reads a key from the local store of one node, without redirects or failover,
+   * so that followers answer with whatever they have applied so far.
+   */
+  @Override
+  public Status readReplica(String table, String key, int replica, Set<String> fields,
+                            Map<String, ByteIterator> result) {
+    String urlString = hosts[replica] + "/key/" + key;
+    if (debug) {
+      System.out.println("GET: " + urlString);
+    }
+
+    try {
+      URL url = new URL(urlString);
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("GET");
+      connection.setInstanceFollowRedirects(false);
+      connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+      connection.setReadTimeout(READ_TIMEOUT_MS);
+
+      int responseCode = connection.getResponseCode();
+
+      if (responseCode == 200) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+          StringBuilder response = new StringBuilder();
+          String line;
+          while ((line = reader.readLine()) != null) {
+            response.append(line);
+          }
+
+          result.put("value", new StringByteIterator(response.toString()));
+          return Status.OK;
+        }
+      } else if (responseCode == 404) {
+        return Status.NOT_FOUND;
+      }
+
+      if (debug) {
+        System.err.println("Replica read failed with status code: " + responseCode);
+      }
+    } catch (IOException e) {
+      if (debug) {
+        System.err.println("Replica read failed for " + urlString + " - " + e.getMessage());
+      }
+    }
+    return Status.ERROR;
+  }
+
   @Override
   public Status insert(String table, String key, Map<String, ByteIterator> values) {
     return writeKeyValue(key, values);
@@ -142,6 +199,7 @@ public class HraftdClient extends DB {
     String jsonBody = "{\"" + escapeJson(key) + "\":\"" + escapeJson(serializedValue) + "\"}";
 
     for (int attempts = 0; attempts < hosts.length; attempts++) {
+      long attemptStart = System.nanoTime();
       String urlString = getCurrentHost() + "/key";
 
       if (debug) {
@@ -186,7 +244,7 @@ public class HraftdClient extends DB {
       }
 
       // Try next host
-      switchToNextHost();
+      switchToNextHost(attemptStart);
     }
 
     return Status.ERROR;
@@ -195,6 +253,7 @@ public class HraftdClient extends DB {
   @Override
   public Status delete(String table, String key) {
     for (int attempts = 0; attempts < hosts.length; attempts++) {
+      long attemptStart = System.nanoTime();
       String urlString = getCurrentHost() + "/key/" + key;
       if (debug) {
         System.out.println("DELETE: " + urlString);
@@ -224,7 +283,7 @@ public class HraftdClient extends DB {
       }
 
       // Try next host
-      switchToNextHost();
+      switchToNextHost(attemptStart);
     }
 
     return Status.ERROR;
@@ -60,6 +60,7 @@ import site.ycsb.StringByteIterator;
 public class PaxiRestClient extends DB {
 
   private static final String URL_PREFIX = "url.prefix";
+  private static final String URL_REPLICAS = "url.replicas";
   private static final String CON_TIMEOUT = "timeout.con";
   private static final String READ_TIMEOUT = "timeout.read";
   private static final String EXEC_TIMEOUT = "timeout.exec";
@@ -69,6 +70,7 @@ public class PaxiRestClient extends DB {
   private boolean compressedResponse;
   private boolean logEnabled;
   private String urlPrefix;
+  private String[] replicaPrefixes;
   private Properties props;
   private String[] headers;
   private CloseableHttpClient client;
@@ -81,6 +83,7 @@ public class PaxiRestClient extends DB {
   public void init() throws DBException {
     props = getProperties();
     urlPrefix = props.getProperty(URL_PREFIX, "http://127.0.0.1:8080");
+    replicaPrefixes = props.getProperty(URL_REPLICAS, urlPrefix).trim().split("\\s*,\\s*");
     conTimeout = Integer.valueOf(props.getProperty(CON_TIMEOUT, "10")) * 1000;
     readTimeout = Integer.valueOf(props.getProperty(READ_TIMEOUT, "10")) * 1000;
     execTimeout = Integer.valueOf(props.getProperty(EXEC_TIMEOUT, "10")) * 1000;
@@ -118,6 +121,30 @@ public class PaxiRestClient extends DB {
     return getStatus(responseCode);
   }
 
+  @Override
+  public int replicaCount() {
+    return replicaPrefixes.length;
+  }
+
+  @Override
+  public Status readReplica(String table, String key, int replica, Set<String> fields,
+      Map<String, ByteIterator> result) {
+    String numericKey = key.replace("user", "");
+    String url = replicaPrefixes[replica] + "/" + numericKey;
+
+    int responseCode;
+    try {
+      responseCode = httpGet(url, result);
+    } catch (Exception e) {
+      responseCode = handleExceptions(e, url, HttpMethod.GET);
+    }
+    if (logEnabled) {
+      System.err.println(new StringBuilder("GET Request: ").append(url)
+            .append(" | Response Code: ").append(responseCode).toString());
+    }
+    return getStatus(responseCode);
+  }
+
   @Override
   public Status insert(String table, String key, Map<String, ByteIterator> values) {
     String numericKey = key.replace("user", "");
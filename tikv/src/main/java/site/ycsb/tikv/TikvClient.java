@@ -1,8 +1,10 @@
 package site.ycsb.tikv;
 
 import site.ycsb.*;
+import site.ycsb.workloads.CoreWorkload;
 import java.util.*;
 
+import org.tikv.kvproto.Kvrpcpb;
 import org.tikv.raw.RawKVClient;
 import org.tikv.shade.com.google.protobuf.ByteString;
 
@@ -11,12 +13,36 @@ import org.tikv.common.TiSession;
 
 import java.util.Optional;
 
+/**
+ * YCSB binding for TiKV's raw key-value API.
+ * <p>
+ * All threads share one TiSession, and with it one PD connection and region
+ * cache, closed when the last thread is done. Records are stored in the binary
+ * encoding of {@link FieldCodec}. With <b>tikv.batchsize</b>=N inserts are
+ * buffered and written N at a time with batchPut, returning BATCHED_OK until
+ * the buffer is written; the rest is written at cleanup.
+ * </p>
+ * <p>
+ * Updates read the record and write it back with the new fields merged in,
+ * unless <b>writeallfields</b> is true, in which case they overwrite it.
+ * </p>
+ */
 public class TikvClient extends DB {
   private static final String CLIENT_CONNECT = "tikv.clientConnect";
   private static final String DEFAULT_CLIENT_CONNECT = "127.0.0.1:2379";
 
-  private TiSession session;
+  private static final String BATCH_SIZE = "tikv.batchsize";
+  private static final String DEFAULT_BATCH_SIZE = "1";
+
+  /** The session shared by all threads, and the threads using it. */
+  private static TiSession session;
+  private static int sessionUsers;
+
   private RawKVClient client;
+  private int batchSize;
+  /** Whether updates overwrite the record without reading it, as they write all of its fields. */
+  private boolean blindUpdates;
+  private final Map<ByteString, ByteString> batch = new HashMap<>();
 
   public TikvClient() {
     System.out.println(">>> Using TikvClient!");
@@ -30,10 +56,18 @@ public class TikvClient extends DB {
     if (connectString == null || connectString.length() == 0) {
       connectString = DEFAULT_CLIENT_CONNECT;
     }
-
-    TiConfiguration conf = TiConfiguration.createDefault(connectString);
-    this.session = TiSession.create(conf);
-    this.client = session.createRawClient();
+    batchSize = Integer.parseInt(props.getProperty(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    blindUpdates = Boolean.parseBoolean(props.getProperty(CoreWorkload.WRITE_ALL_FIELDS_PROPERTY,
+        CoreWorkload.WRITE_ALL_FIELDS_PROPERTY_DEFAULT));
+
+    synchronized (TikvClient.class) {
+      if (session == null) {
+        TiConfiguration conf = TiConfiguration.createDefault(connectString);
+        session = TiSession.create(conf);
+      }
+      sessionUsers++;
+      this.client = session.createRawClient();
+    }
   }
 
   @Override
@@ -42,11 +76,10 @@ public class TikvClient extends DB {
       Optional<ByteString> valueOpt = client.get(ByteString.copyFromUtf8(key));
 
       if (valueOpt.isPresent()) {
-        //System.out.printf("Read key %s = %s\n", key, valueOpt.get().toStringUtf8());
+        FieldCodec.decode(valueOpt.get().toByteArray(), fields, result);
         return Status.OK;
       } else {
-        //System.out.printf("Read key %s FAIL\n", key);
-        return Status.ERROR;
+        return Status.NOT_FOUND;
       }
 
     } catch (Exception e) {
@@ -59,9 +92,17 @@ public class TikvClient extends DB {
   @Override
   public Status insert(String table, String key, Map<String, ByteIterator> values) {
     try {
-      String value = values.toString();
-      //System.out.printf("Insert key %s = %s\n", key, value);
-      client.put(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+      ByteString value = ByteString.copyFrom(FieldCodec.encode(values));
+      if (batchSize > 1) {
+        batch.put(ByteString.copyFromUtf8(key), value);
+        if (batch.size() < batchSize) {
+          return Status.BATCHED_OK;
+        }
+        client.batchPut(batch);
+        batch.clear();
+        return Status.OK;
+      }
+      client.put(ByteString.copyFromUtf8(key), value);
       return Status.OK;
 
     } catch (Exception e) {
@@ -73,7 +114,6 @@ public class TikvClient extends DB {
   @Override
   public Status delete(String table, String key) {
     try {
-      //System.out.printf("DELETE key %s\n", key);
       client.delete(ByteString.copyFromUtf8(key));
       return Status.OK;
 
@@ -86,9 +126,20 @@ public class TikvClient extends DB {
   @Override
   public Status update(String table, String key, Map<String, ByteIterator> values) {
     try {
-      String value = values.toString();
-      //System.out.printf("Update key %s = %s\n", key, value);
-      client.put(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+      ByteString keyBytes = ByteString.copyFromUtf8(key);
+      if (blindUpdates) {
+        // All the fields are written, so there is nothing to merge.
+        client.put(keyBytes, ByteString.copyFrom(FieldCodec.encode(values)));
+        return Status.OK;
+      }
+      Optional<ByteString> valueOpt = client.get(keyBytes);
+      if (!valueOpt.isPresent()) {
+        return Status.NOT_FOUND;
+      }
+      Map<String, ByteIterator> record = new HashMap<>();
+      FieldCodec.decode(valueOpt.get().toByteArray(), null, record);
+      record.putAll(values);
+      client.put(keyBytes, ByteString.copyFrom(FieldCodec.encode(record)));
       return Status.OK;
 
     } catch (Exception e) {
@@ -100,8 +151,61 @@ public class TikvClient extends DB {
   @Override
   public Status scan(String table, String startKey, int recordCount,
     Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
-    System.out.println("ERROR: scan() is not implemented");
-    return Status.NOT_IMPLEMENTED;
+    try {
+      List<Kvrpcpb.KvPair> pairs = client.scan(ByteString.copyFromUtf8(startKey), recordCount);
+      result.ensureCapacity(pairs.size());
+      for (Kvrpcpb.KvPair pair : pairs) {
+        HashMap<String, ByteIterator> values = new HashMap<>();
+        FieldCodec.decode(pair.getValue().toByteArray(), fields, values);
+        result.add(values);
+      }
+      return Status.OK;
+
+    } catch (Exception e) {
+      e.printStackTrace();
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * Reads the records of the transaction with one batchGet and writes its updates,
+   * merged into them, with one batchPut. The raw API has no transactions, so
+   * concurrent writes to the same records are not detected.
+   */
+  @Override
+  public Status transaction(String table, Set<String> readKeys, Map<String, Map<String, ByteIterator>> writes) {
+    try {
+      List<ByteString> keys = new ArrayList<>(readKeys.size() + writes.size());
+      for (String key : readKeys) {
+        keys.add(ByteString.copyFromUtf8(key));
+      }
+      for (String key : writes.keySet()) {
+        keys.add(ByteString.copyFromUtf8(key));
+      }
+      Map<String, byte[]> records = new HashMap<>();
+      for (Kvrpcpb.KvPair pair : client.batchGet(keys)) {
+        records.put(pair.getKey().toStringUtf8(), pair.getValue().toByteArray());
+      }
+      if (!records.keySet().containsAll(readKeys) || !records.keySet().containsAll(writes.keySet())) {
+        return Status.NOT_FOUND;
+      }
+
+      Map<ByteString, ByteString> puts = new HashMap<>();
+      for (Map.Entry<String, Map<String, ByteIterator>> write : writes.entrySet()) {
+        Map<String, ByteIterator> record = new HashMap<>();
+        FieldCodec.decode(records.get(write.getKey()), null, record);
+        record.putAll(write.getValue());
+        puts.put(ByteString.copyFromUtf8(write.getKey()), ByteString.copyFrom(FieldCodec.encode(record)));
+      }
+      if (!puts.isEmpty()) {
+        client.batchPut(puts);
+      }
+      return Status.OK;
+
+    } catch (Exception e) {
+      e.printStackTrace();
+      return Status.ERROR;
+    }
   }
 
   @Override
@@ -109,11 +213,19 @@ public class TikvClient extends DB {
     System.out.println(">>> Cleaning up TikvClient");
 
     try {
+      if (!batch.isEmpty()) {
+        client.batchPut(batch);
+        batch.clear();
+      }
       if (client != null) {
         client.close();
+        client = null;
       }
-      if (session != null) {
-        session.close();
+      synchronized (TikvClient.class) {
+        if (--sessionUsers == 0) {
+          session.close();
+          session = null;
+        }
       }
     } catch (Exception e) {
       e.printStackTrace();
@@ -21,30 +21,46 @@
 package site.ycsb.db.zookeeper;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.zookeeper.AsyncCallback;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
 
+import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.FieldCodec;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.WatchListener;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.workloads.CoreWorkload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,12 +73,52 @@ public class ZKClient extends DB {
 
   private ZooKeeper zk;
   private Watcher watcher;
+  private final Map<WatchListener, DataWatch> dataWatches = new HashMap<>();
 
   private static final String CONNECT_STRING = "zookeeper.connectString";
   private static final String DEFAULT_CONNECT_STRING = "127.0.0.1:2181";
   private static final String SESSION_TIMEOUT_PROPERTY = "zookeeper.sessionTimeout";
   private static final long DEFAULT_SESSION_TIMEOUT = TimeUnit.SECONDS.toMillis(30L);
   private static final String WATCH_FLAG = "zookeeper.watchFlag";
+  private static final String ASYNC_PROPERTY = "zookeeper.async";
+  private static final String DEFAULT_ASYNC = "0";
+  private static final String ASYNC_TOTAL_PROPERTY = "zookeeper.async.total";
+  private static final String DEFAULT_ASYNC_TOTAL = "10000";
+  private static final String SCAN_REFRESH_PROPERTY = "zookeeper.scanRefresh";
+  private static final String DEFAULT_SCAN_REFRESH = "10000";
+  private static final String ENCODING_PROPERTY = "zookeeper.encoding";
+  private static final String DEFAULT_ENCODING = "binary";
+  private static final String UPDATE_MODE_PROPERTY = "zookeeper.updateMode";
+  private static final String DEFAULT_UPDATE_MODE = "read";
+  private static final String STAT_CACHE_SIZE_PROPERTY = "zookeeper.statCacheSize";
+  private static final String DEFAULT_STAT_CACHE_SIZE = "1000";
+  private static final String UPDATE_RETRIES_PROPERTY = "zookeeper.updateRetries";
+  private static final String DEFAULT_UPDATE_RETRIES = "10";
+
+  /** The requests in flight over all sessions, and the sessions sending them. */
+  private static Semaphore totalSlots;
+  private static int asyncSessions;
+
+  /** The keys of the records scanned, and whether a thread is listing them again. */
+  private static volatile ChildSnapshot snapshot;
+  private static final AtomicBoolean REFRESHING = new AtomicBoolean();
+  /** Held by the thread listing the keys for the first snapshot, while the others wait for it. */
+  private static final Object FIRST_LISTING = new Object();
+
+  private long sessionTimeout;
+  /** Whether records are written in the binary encoding rather than as JSON. */
+  private boolean binary;
+  private long scanRefreshNanos;
+  /** The requests that may be in flight on the session, 0 if every request waits for its response. */
+  private int async;
+  private Semaphore sessionSlots;
+  private final Measurements measurements = Measurements.getMeasurements();
+
+  /** Whether updates overwrite the record without reading it, as they write all of its fields. */
+  private boolean blindUpdates;
+  /** The versions and data of the records recently read or written, if updates are versioned. */
+  private Map<String, CachedRecord> statCache;
+  private int updateRetries;
 
   private static final Charset UTF_8 = Charset.forName("UTF-8");
   private static final Logger LOG = LoggerFactory.getLogger(ZKClient.class);
@@ -81,7 +137,6 @@ public class ZKClient extends DB {
       watcher = null;
     }
 
-    long sessionTimeout;
     String sessionTimeoutString = props.getProperty(SESSION_TIMEOUT_PROPERTY);
     if (sessionTimeoutString != null) {
       sessionTimeout = Integer.parseInt(sessionTimeoutString);
@@ -94,9 +149,62 @@ public class ZKClient extends DB {
     } catch (IOException e) {
       throw new DBException("Creating connection failed.");
     }
+
+    String encoding = props.getProperty(ENCODING_PROPERTY, DEFAULT_ENCODING);
+    if (!encoding.equals("binary") && !encoding.equals("json")) {
+      throw new DBException("Unknown " + ENCODING_PROPERTY + " " + encoding + ", expected binary or json");
+    }
+    binary = encoding.equals("binary");
+    scanRefreshNanos = TimeUnit.MILLISECONDS.toNanos(
+        Long.parseLong(props.getProperty(SCAN_REFRESH_PROPERTY, DEFAULT_SCAN_REFRESH)));
+
+    String updateMode = props.getProperty(UPDATE_MODE_PROPERTY, DEFAULT_UPDATE_MODE);
+    if (updateMode.equals("versioned")) {
+      blindUpdates = Boolean.parseBoolean(props.getProperty(CoreWorkload.WRITE_ALL_FIELDS_PROPERTY,
+          CoreWorkload.WRITE_ALL_FIELDS_PROPERTY_DEFAULT));
+      final int cacheSize = Integer.parseInt(props.getProperty(STAT_CACHE_SIZE_PROPERTY, DEFAULT_STAT_CACHE_SIZE));
+      statCache = new LinkedHashMap<String, CachedRecord>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedRecord> eldest) {
+          return size() > cacheSize;
+        }
+      };
+      updateRetries = Integer.parseInt(props.getProperty(UPDATE_RETRIES_PROPERTY, DEFAULT_UPDATE_RETRIES));
+    } else if (!updateMode.equals("read")) {
+      throw new DBException("Unknown " + UPDATE_MODE_PROPERTY + " " + updateMode + ", expected read or versioned");
+    }
+
+    async = Integer.parseInt(props.getProperty(ASYNC_PROPERTY, DEFAULT_ASYNC));
+    if (async > 0) {
+      sessionSlots = new Semaphore(async);
+      synchronized (ZKClient.class) {
+        if (asyncSessions++ == 0) {
+          totalSlots = new Semaphore(Integer.parseInt(props.getProperty(ASYNC_TOTAL_PROPERTY, DEFAULT_ASYNC_TOTAL)));
+        }
+      }
+    }
   }
 
   public void cleanup() throws DBException {
+    for (DataWatch dataWatch : dataWatches.values()) {
+      dataWatch.active = false;
+    }
+    dataWatches.clear();
+    if (sessionSlots != null) {
+      try {
+        if (!sessionSlots.tryAcquire(async, 2 * sessionTimeout, TimeUnit.MILLISECONDS)) {
+          LOG.error("Requests still in flight when closing the session");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      synchronized (ZKClient.class) {
+        if (--asyncSessions == 0) {
+          totalSlots = null;
+        }
+      }
+      sessionSlots = null;
+    }
     try {
       zk.close();
     } catch (InterruptedException e) {
@@ -109,10 +217,14 @@ public class ZKClient extends DB {
                      Map<String, ByteIterator> result) {
     String path = getPath(key);
     try {
-      byte[] data = zk.getData(path, watcher, null);
+      Stat stat = statCache != null ? new Stat() : null;
+      byte[] data = zk.getData(path, watcher, stat);
       if (data == null || data.length == 0) {
         return Status.NOT_FOUND;
       }
+      if (statCache != null) {
+        statCache.put(path, new CachedRecord(stat.getVersion(), data));
+      }
 
       deserializeValues(data, fields, result);
       return Status.OK;
@@ -126,9 +238,17 @@ public class ZKClient extends DB {
   public Status insert(String table, String key,
                        Map<String, ByteIterator> values) {
     String path = getPath(key);
-    String data = getJsonStrFromByteMap(values);
+    byte[] data = serializeValues(values);
+    if (async > 0) {
+      if (!acquire(path)) {
+        return Status.SERVICE_UNAVAILABLE;
+      }
+      zk.create(path, data, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT,
+          new AsyncOp("INSERT", null), null);
+      return Status.BATCHED_OK;
+    }
     try {
-      zk.create(path, data.getBytes(UTF_8), ZooDefs.Ids.OPEN_ACL_UNSAFE,
+      zk.create(path, data, ZooDefs.Ids.OPEN_ACL_UNSAFE,
           CreateMode.PERSISTENT);
       return Status.OK;
     } catch (KeeperException.NodeExistsException e1) {
@@ -143,6 +263,16 @@ public class ZKClient extends DB {
   public Status delete(String table, String key) {
 
     String path = getPath(key);
+    if (statCache != null) {
+      statCache.remove(path);
+    }
+    if (async > 0) {
+      if (!acquire(path)) {
+        return Status.SERVICE_UNAVAILABLE;
+      }
+      zk.delete(path, -1, new AsyncOp("DELETE", null), null);
+      return Status.BATCHED_OK;
+    }
     try {
       zk.delete(path, -1);
       return Status.OK;
@@ -156,7 +286,28 @@ public class ZKClient extends DB {
   public Status update(String table, String key,
                        Map<String, ByteIterator> values) {
     String path = getPath(key);
+    if (async > 0) {
+      if (!acquire(path)) {
+        return Status.SERVICE_UNAVAILABLE;
+      }
+      // The values belong to the caller, so take them before returning.
+      Map<String, ByteIterator> updates = copyValues(values);
+      if (blindUpdates) {
+        zk.setData(path, serializeValues(updates), -1, new AsyncOp("UPDATE", null), null);
+      } else {
+        zk.getData(path, watcher, new AsyncOp("UPDATE", updates), null);
+      }
+      return Status.BATCHED_OK;
+    }
     try {
+      if (blindUpdates) {
+        // All the fields are written, so there is nothing to merge.
+        zk.setData(path, serializeValues(values), -1);
+        return Status.OK;
+      }
+      if (statCache != null) {
+        return versionedUpdate(path, copyValues(values));
+      }
       // we have to do a read operation here before setData to meet the YCSB's update semantics:
       // update a single record in the database, adding or replacing the specified fields.
       byte[] data = zk.getData(path, watcher, null);
@@ -167,7 +318,7 @@ public class ZKClient extends DB {
       deserializeValues(data, null, result);
       result.putAll(values);
       // update
-      zk.setData(path, getJsonStrFromByteMap(result).getBytes(UTF_8), -1);
+      zk.setData(path, serializeValues(result), -1);
       return Status.OK;
     } catch (KeeperException | InterruptedException e) {
       LOG.error("Error when updating a path:{},tableName:{}", path, table, e);
@@ -175,16 +326,263 @@ public class ZKClient extends DB {
     }
   }
 
+  /**
+   * Sets the record merged with the values at the version last read or written
+   * by this thread, so an update takes a single write when the version is cached.
+   * If the record changed since, or its version is not cached, reads it and tries
+   * again. The conflicts of each update are measured as UPDATE-CONFLICTS.
+   */
+  private Status versionedUpdate(String path, Map<String, ByteIterator> values)
+      throws KeeperException, InterruptedException {
+    int conflicts = 0;
+    try {
+      while (true) {
+        CachedRecord cached = statCache.get(path);
+        if (cached == null) {
+          Stat stat = new Stat();
+          byte[] data = zk.getData(path, watcher, stat);
+          if (data == null || data.length == 0) {
+            return Status.NOT_FOUND;
+          }
+          cached = new CachedRecord(stat.getVersion(), data);
+        }
+        final Map<String, ByteIterator> result = new HashMap<>();
+        deserializeValues(cached.data, null, result);
+        for (ByteIterator value : values.values()) {
+          value.reset();
+        }
+        result.putAll(values);
+        byte[] data = serializeValues(result);
+        try {
+          Stat stat = zk.setData(path, data, cached.version);
+          statCache.put(path, new CachedRecord(stat.getVersion(), data));
+          return Status.OK;
+        } catch (KeeperException.BadVersionException e) {
+          statCache.remove(path);
+          if (++conflicts > updateRetries) {
+            return Status.CONFLICT;
+          }
+        }
+      }
+    } finally {
+      measurements.measure("UPDATE-CONFLICTS", conflicts);
+    }
+  }
+
+  /**
+   * Reads every record of the transaction together with its version, then
+   * commits a single multi() that checks the version of each record read and
+   * sets the data of each record updated at the version read.
+   */
+  @Override
+  public Status transaction(String table, Set<String> readKeys,
+                            Map<String, Map<String, ByteIterator>> writes) {
+    List<Op> ops = new ArrayList<>(readKeys.size() + writes.size());
+    try {
+      for (String key : readKeys) {
+        String path = getPath(key);
+        Stat stat = new Stat();
+        zk.getData(path, false, stat);
+        ops.add(Op.check(path, stat.getVersion()));
+      }
+      for (Map.Entry<String, Map<String, ByteIterator>> write : writes.entrySet()) {
+        String path = getPath(write.getKey());
+        Stat stat = new Stat();
+        byte[] data = zk.getData(path, false, stat);
+        final Map<String, ByteIterator> result = new HashMap<>();
+        if (data != null && data.length > 0) {
+          deserializeValues(data, null, result);
+        }
+        result.putAll(write.getValue());
+        ops.add(Op.setData(path, serializeValues(result), stat.getVersion()));
+      }
+    } catch (KeeperException.NoNodeException e) {
+      return Status.NOT_FOUND;
+    } catch (KeeperException | InterruptedException e) {
+      LOG.error("Error when reading a transaction, tableName:{}", table, e);
+      return Status.ERROR;
+    }
+
+    try {
+      zk.multi(ops);
+      return Status.OK;
+    } catch (KeeperException.BadVersionException | KeeperException.NoNodeException e) {
+      // A record was modified or deleted since it was read.
+      return Status.CONFLICT;
+    } catch (KeeperException | InterruptedException e) {
+      LOG.error("Error when committing a transaction, tableName:{}", table, e);
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * Sets a data watch on the znode of every key. ZooKeeper watches fire once,
+   * so each notification re-reads the znode and sets the watch again; changes
+   * made in between are coalesced into the value read.
+   */
+  @Override
+  public Status watch(String table, Set<String> keys, WatchListener listener) {
+    DataWatch dataWatch = new DataWatch(listener);
+    for (String key : keys) {
+      dataWatch.keys.put(getPath(key), key);
+    }
+    try {
+      for (String path : dataWatch.keys.keySet()) {
+        zk.exists(path, dataWatch);
+      }
+    } catch (KeeperException | InterruptedException e) {
+      dataWatch.active = false;
+      LOG.error("Error when watching, tableName:{}", table, e);
+      return Status.ERROR;
+    }
+    DataWatch previous = dataWatches.put(listener, dataWatch);
+    if (previous != null) {
+      previous.active = false;
+    }
+    return Status.OK;
+  }
+
+  /**
+   * Stops notifying the listener. Its watches stay set on the server until
+   * they fire once more, and are then dropped.
+   */
+  @Override
+  public Status unwatch(String table, WatchListener listener) {
+    DataWatch dataWatch = dataWatches.remove(listener);
+    if (dataWatch == null) {
+      return Status.NOT_FOUND;
+    }
+    dataWatch.active = false;
+    return Status.OK;
+  }
+
   @Override
   public Status scan(String table, String startkey, int recordcount,
                      Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
-    return Status.NOT_IMPLEMENTED;
+    try {
+      String[] children = children();
+      int first = Arrays.binarySearch(children, startkey);
+      if (first < 0) {
+        first = -first - 1;
+      }
+      int count = Math.max(0, Math.min(recordcount, children.length - first));
+      ScanReads reads = new ScanReads(count);
+      for (int i = 0; i < count; i++) {
+        zk.getData(getPath(children[first + i]), false, reads, i);
+      }
+      if (!reads.latch.await(sessionTimeout, TimeUnit.MILLISECONDS)) {
+        LOG.error("Timeout when scanning from key:{},tableName:{}", startkey, table);
+        return Status.SERVICE_UNAVAILABLE;
+      }
+      if (reads.error != null) {
+        LOG.error("Error when scanning from key:{},tableName:{}: {}", startkey, table, reads.error);
+        return Status.ERROR;
+      }
+      result.ensureCapacity(count);
+      for (byte[] data : reads.data) {
+        // Records deleted since the children were listed are skipped.
+        if (data != null && data.length > 0) {
+          HashMap<String, ByteIterator> values = new HashMap<>();
+          deserializeValues(data, fields, values);
+          result.add(values);
+        }
+      }
+      return Status.OK;
+    } catch (KeeperException | InterruptedException e) {
+      LOG.error("Error when listing the records to scan, tableName:{}", table, e);
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * Returns the sorted keys of the records, from the snapshot shared by all
+   * threads. One thread lists the children for the first snapshot while the
+   * others wait for it, and once the snapshot is older than
+   * zookeeper.scanRefresh, one thread lists them again while the others keep
+   * using it. Listings are measured as SCAN-LIST.
+   */
+  private String[] children() throws KeeperException, InterruptedException {
+    ChildSnapshot current = snapshot;
+    if (current == null) {
+      synchronized (FIRST_LISTING) {
+        current = snapshot;
+        if (current == null) {
+          current = listChildren();
+        }
+      }
+    } else if (System.nanoTime() - current.time >= scanRefreshNanos && REFRESHING.compareAndSet(false, true)) {
+      try {
+        current = listChildren();
+      } finally {
+        REFRESHING.set(false);
+      }
+    }
+    return current.children;
+  }
+
+  private ChildSnapshot listChildren() throws KeeperException, InterruptedException {
+    long start = System.nanoTime();
+    List<String> list = zk.getChildren("/", false);
+    // Not a record, but listed at the root when the connect string has no chroot.
+    list.remove("zookeeper");
+    String[] children = list.toArray(new String[0]);
+    Arrays.sort(children);
+    ChildSnapshot current = new ChildSnapshot(children, start);
+    snapshot = current;
+    measurements.measure("SCAN-LIST", (int) ((System.nanoTime() - start) / 1000));
+    return current;
+  }
+
+  /**
+   * Waits for a free slot of the session and of the process for an asynchronous request.
+   */
+  private boolean acquire(String path) {
+    try {
+      if (!sessionSlots.tryAcquire(sessionTimeout, TimeUnit.MILLISECONDS)) {
+        LOG.error("Timeout waiting for the requests in flight on the session before a path:{}", path);
+        return false;
+      }
+      if (!totalSlots.tryAcquire(sessionTimeout, TimeUnit.MILLISECONDS)) {
+        sessionSlots.release();
+        LOG.error("Timeout waiting for the requests in flight on all sessions before a path:{}", path);
+        return false;
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Copies the values into byte arrays, which can be reset to read them again.
+   */
+  private static Map<String, ByteIterator> copyValues(Map<String, ByteIterator> values) {
+    Map<String, ByteIterator> copy = new HashMap<>();
+    for (Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+      copy.put(entry.getKey(), new ByteArrayByteIterator(entry.getValue().toArray()));
+    }
+    return copy;
   }
 
   private String getPath(String key) {
     return key.startsWith("/") ? key : "/" + key;
   }
 
+  /**
+   * Encodes a record in the encoding of the binding.
+   */
+  private byte[] serializeValues(Map<String, ByteIterator> values) {
+    if (!binary) {
+      return getJsonStrFromByteMap(values).getBytes(UTF_8);
+    }
+    try {
+      return FieldCodec.encode(values);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot encode a record: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * converting the key:values map to JSON Strings.
    */
@@ -195,6 +593,14 @@ public class ZKClient extends DB {
 
   private Map<String, ByteIterator> deserializeValues(final byte[] data, final Set<String> fields,
                                                       final Map<String, ByteIterator> result) {
+    if (FieldCodec.isEncoded(data)) {
+      try {
+        FieldCodec.decode(data, fields, result);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return result;
+    }
     JSONObject jsonObject = (JSONObject)JSONValue.parse(new String(data, UTF_8));
     Iterator<String> iterator = jsonObject.keySet().iterator();
     while(iterator.hasNext()) {
@@ -207,6 +613,170 @@ public class ZKClient extends DB {
     return result;
   }
 
+  /**
+   * The data watches of one listener. Watch events and the reads they trigger
+   * are all delivered on the event thread of the session.
+   */
+  private final class DataWatch implements Watcher, AsyncCallback.DataCallback, AsyncCallback.StatCallback {
+    private final WatchListener listener;
+    private final Map<String, String> keys = new HashMap<>();
+    private volatile boolean active = true;
+
+    private DataWatch(WatchListener listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void process(WatchedEvent e) {
+      if (!active || e.getType() == Event.EventType.None || !keys.containsKey(e.getPath())) {
+        return;
+      }
+      if (e.getType() == Event.EventType.NodeDeleted) {
+        listener.onChange(keys.get(e.getPath()), null);
+        zk.exists(e.getPath(), this, this, null);
+      } else {
+        zk.getData(e.getPath(), this, this, null);
+      }
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, byte[] data, Stat stat) {
+      if (!active) {
+        return;
+      }
+      if (rc == KeeperException.Code.NONODE.intValue()) {
+        // Deleted before it could be read; wait for it to come back.
+        zk.exists(path, this, this, null);
+      } else if (rc != KeeperException.Code.OK.intValue()) {
+        LOG.error("Error when reading a watched path:{}, the watch is lost: {}", path, KeeperException.Code.get(rc));
+      } else if (data != null && data.length > 0) {
+        listener.onChange(keys.get(path), deserializeValues(data, null, new HashMap<>()));
+      }
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, Stat stat) {
+      if (active && rc != KeeperException.Code.OK.intValue() && rc != KeeperException.Code.NONODE.intValue()) {
+        LOG.error("Error when watching a path:{}, the watch is lost: {}", path, KeeperException.Code.get(rc));
+      }
+    }
+  }
+
+  /**
+   * An insert, update or delete sent without waiting for its response. It holds a
+   * slot of the session and of the process until its last response, and its latency
+   * from the request to that response is measured as op-ASYNC in the callback, on
+   * the event thread of the session. An update reads the znode and sets the merged
+   * record from the callback of the read.
+   */
+  private final class AsyncOp implements AsyncCallback.StringCallback, AsyncCallback.StatCallback,
+      AsyncCallback.DataCallback, AsyncCallback.VoidCallback {
+    private final String op;
+    private final Map<String, ByteIterator> updates;
+    private final long start = System.nanoTime();
+
+    private AsyncOp(String op, Map<String, ByteIterator> updates) {
+      this.op = op;
+      this.updates = updates;
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, String name) {
+      // As for synchronous inserts, a znode that already exists is not an error.
+      complete(rc == KeeperException.Code.NODEEXISTS.intValue() ? KeeperException.Code.OK.intValue() : rc, path);
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, Stat stat) {
+      complete(rc, path);
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx) {
+      complete(rc, path);
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, byte[] data, Stat stat) {
+      if (rc != KeeperException.Code.OK.intValue() || data == null || data.length == 0) {
+        complete(rc == KeeperException.Code.OK.intValue() ? KeeperException.Code.NONODE.intValue() : rc, path);
+        return;
+      }
+      Map<String, ByteIterator> record = new HashMap<>();
+      deserializeValues(data, null, record);
+      record.putAll(updates);
+      zk.setData(path, serializeValues(record), -1, this, null);
+    }
+
+    private void complete(int rc, String path) {
+      Status status;
+      if (rc == KeeperException.Code.OK.intValue()) {
+        status = Status.OK;
+      } else if (rc == KeeperException.Code.NONODE.intValue()) {
+        status = Status.NOT_FOUND;
+      } else {
+        status = Status.ERROR;
+        LOG.error("Error when sending {} of a path:{}: {}", op, path, KeeperException.Code.get(rc));
+      }
+      String name = op + "-ASYNC";
+      measurements.measure(status.isOk() ? name : name + "-FAILED", (int) ((System.nanoTime() - start) / 1000));
+      measurements.reportStatus(name, status);
+      totalSlots.release();
+      sessionSlots.release();
+    }
+  }
+
+  /**
+   * The version and data of a record as last read or written by this thread.
+   */
+  private static final class CachedRecord {
+    private final int version;
+    private final byte[] data;
+
+    private CachedRecord(int version, byte[] data) {
+      this.version = version;
+      this.data = data;
+    }
+  }
+
+  /**
+   * The sorted children of the root, listed at a time.
+   */
+  private static final class ChildSnapshot {
+    private final String[] children;
+    private final long time;
+
+    private ChildSnapshot(String[] children, long time) {
+      this.children = children;
+      this.time = time;
+    }
+  }
+
+  /**
+   * The reads of a scan, all in flight at once. Each one stores the data read at
+   * the position of its record, given as the context of the read.
+   */
+  private static final class ScanReads implements AsyncCallback.DataCallback {
+    private final byte[][] data;
+    private final CountDownLatch latch;
+    private volatile KeeperException.Code error;
+
+    private ScanReads(int count) {
+      data = new byte[count][];
+      latch = new CountDownLatch(count);
+    }
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, byte[] bytes, Stat stat) {
+      if (rc == KeeperException.Code.OK.intValue()) {
+        data[(Integer) ctx] = bytes;
+      } else if (rc != KeeperException.Code.NONODE.intValue()) {
+        error = KeeperException.Code.get(rc);
+      }
+      latch.countDown();
+    }
+  }
+
   private static class SimpleWatcher implements Watcher {
 
     public void process(WatchedEvent e) {
@@ -22,20 +22,25 @@ import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 import site.ycsb.ByteIterator;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.WatchListener;
 import site.ycsb.measurements.Measurements;
 import site.ycsb.workloads.CoreWorkload;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Vector;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.TestCase.assertEquals;
-import static org.junit.Assert.fail;
+import static org.junit.Assert.assertNull;
 import static site.ycsb.workloads.CoreWorkload.TABLENAME_PROPERTY;
 import static site.ycsb.workloads.CoreWorkload.TABLENAME_PROPERTY_DEFAULT;
 
@@ -149,9 +154,195 @@ public class ZKClientTest {
   }
 
   @Test
-  @Ignore("Not yet implemented")
-  public void testScan() {
-    fail("Not yet implemented");
+  public void testTransaction() {
+    String readPath = "txnread";
+    String writePath = "txnwrite";
+    client.insert(tableName, readPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "read")));
+    client.insert(tableName, writePath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "old")));
+
+    Map<String, Map<String, ByteIterator>> writes = new HashMap<>();
+    writes.put(writePath, StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_2", "new")));
+    Status status = client.transaction(tableName, Collections.singleton(readPath), writes);
+    assertEquals(Status.OK, status);
+
+    // The update is merged into the record like update() does.
+    Map<String, ByteIterator> result = new HashMap<>();
+    status = client.read(tableName, writePath, null, result);
+    assertEquals(Status.OK, status);
+    assertEquals(2, result.size());
+    assertEquals("old", result.get("field_1").toString());
+    assertEquals("new", result.get("field_2").toString());
+
+    // A missing record fails the transaction before anything is written.
+    writes.put(writePath, StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_2", "newer")));
+    status = client.transaction(tableName, Collections.singleton("txnmissing"), writes);
+    assertEquals(Status.NOT_FOUND, status);
+    result.clear();
+    client.read(tableName, writePath, null, result);
+    assertEquals("new", result.get("field_2").toString());
+
+    client.delete(tableName, readPath);
+    client.delete(tableName, writePath);
+  }
+
+  @Test
+  public void testWatch() throws Exception {
+    String watchPath = "watched";
+    client.insert(tableName, watchPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v0")));
+
+    BlockingQueue<Map<String, ByteIterator>> changes = new LinkedBlockingQueue<>();
+    WatchListener listener = (key, values) -> {
+      assertEquals(watchPath, key);
+      changes.add(values);
+    };
+    assertEquals(Status.OK, client.watch(tableName, Collections.singleton(watchPath), listener));
+
+    // The watch is set again after every notification.
+    for (int i = 1; i <= 2; i++) {
+      client.update(tableName, watchPath,
+          StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v" + i)));
+      Map<String, ByteIterator> values = changes.poll(5, TimeUnit.SECONDS);
+      assertEquals("v" + i, values.get("field_1").toString());
+    }
+
+    assertEquals(Status.OK, client.unwatch(tableName, listener));
+    client.update(tableName, watchPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v3")));
+    assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+
+    client.delete(tableName, watchPath);
+  }
+
+  @Test
+  public void testAsync() throws Exception {
+    ZKClient asyncClient = new ZKClient();
+    Properties p = new Properties();
+    p.setProperty("zookeeper.connectString", "127.0.0.1:" + String.valueOf(PORT));
+    p.setProperty("zookeeper.async", "4");
+    asyncClient.setProperties(p);
+    asyncClient.init();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Status.BATCHED_OK, asyncClient.insert(tableName, "async" + i,
+          StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v" + i))));
+    }
+    assertEquals(Status.BATCHED_OK, asyncClient.update(tableName, "async0",
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_2", "new"))));
+    // Waits for the responses.
+    asyncClient.cleanup();
+
+    Map<String, ByteIterator> result = new HashMap<>();
+    assertEquals(Status.OK, client.read(tableName, "async9", null, result));
+    assertEquals("v9", result.get("field_1").toString());
+    result.clear();
+    assertEquals(Status.OK, client.read(tableName, "async0", null, result));
+    assertEquals(2, result.size());
+    assertEquals("new", result.get("field_2").toString());
+    for (int i = 0; i < 10; i++) {
+      client.delete(tableName, "async" + i);
+    }
+  }
+
+  @Test
+  public void testVersionedUpdate() throws Exception {
+    ZKClient versioned = new ZKClient();
+    Properties p = new Properties();
+    p.setProperty("zookeeper.connectString", "127.0.0.1:" + String.valueOf(PORT));
+    p.setProperty("zookeeper.updateMode", "versioned");
+    versioned.setProperties(p);
+    versioned.init();
+    String versionedPath = "versioned";
+    versioned.insert(tableName, versionedPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v0")));
+    Map<String, ByteIterator> result = new HashMap<>();
+    assertEquals(Status.OK, versioned.read(tableName, versionedPath, null, result));
+
+    // Another session changes the record after its version was cached: the update conflicts
+    // once, reads the record again and merges into it.
+    client.update(tableName, versionedPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_2", "other")));
+    assertEquals(Status.OK, versioned.update(tableName, versionedPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v1"))));
+    assertEquals(Status.OK, versioned.update(tableName, versionedPath,
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_3", "v2"))));
+
+    result.clear();
+    assertEquals(Status.OK, client.read(tableName, versionedPath, null, result));
+    assertEquals(3, result.size());
+    assertEquals("v1", result.get("field_1").toString());
+    assertEquals("other", result.get("field_2").toString());
+    assertEquals("v2", result.get("field_3").toString());
+
+    versioned.delete(tableName, versionedPath);
+    versioned.cleanup();
+  }
+
+  @Test
+  public void testJsonEncoding() throws Exception {
+    ZKClient json = new ZKClient();
+    Properties p = new Properties();
+    p.setProperty("zookeeper.connectString", "127.0.0.1:" + String.valueOf(PORT));
+    p.setProperty("zookeeper.encoding", "json");
+    json.setProperties(p);
+    json.init();
+    Map<String, String> m = new HashMap<>();
+    m.put("field_1", "json1");
+    m.put("field_2", "json2");
+    json.insert(tableName, "json", StringByteIterator.getByteIteratorMap(m));
+    json.cleanup();
+
+    // Records in either encoding are read, and only the fields asked for are decoded.
+    Map<String, ByteIterator> result = new HashMap<>();
+    assertEquals(Status.OK, client.read(tableName, "json", Collections.singleton("field_2"), result));
+    assertEquals(1, result.size());
+    assertEquals("json2", result.get("field_2").toString());
+
+    // An update rewrites the record in the binary encoding.
+    client.update(tableName, "json",
+        StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "binary1")));
+    result.clear();
+    assertEquals(Status.OK, client.read(tableName, "json", null, result));
+    assertEquals(2, result.size());
+    assertEquals("binary1", result.get("field_1").toString());
+    assertEquals("json2", result.get("field_2").toString());
+
+    client.delete(tableName, "json");
+  }
+
+  @Test
+  public void testScan() throws Exception {
+    ZKClient scanner = new ZKClient();
+    Properties p = new Properties();
+    p.setProperty("zookeeper.connectString", "127.0.0.1:" + String.valueOf(PORT));
+    // List the children on every scan.
+    p.setProperty("zookeeper.scanRefresh", "0");
+    scanner.setProperties(p);
+    scanner.init();
+    for (int i = 0; i < 5; i++) {
+      client.insert(tableName, "scan" + i,
+          StringByteIterator.getByteIteratorMap(Collections.singletonMap("field_1", "v" + i)));
+    }
+
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    assertEquals(Status.OK, scanner.scan(tableName, "scan1", 3, null, result));
+    assertEquals(3, result.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals("v" + (i + 1), result.get(i).get("field_1").toString());
+    }
+
+    // A start key between records starts at the next one, and the scan ends with the records.
+    client.delete(tableName, "scan3");
+    result.clear();
+    assertEquals(Status.OK, scanner.scan(tableName, "scan2a", 10, null, result));
+    assertEquals(1, result.size());
+    assertEquals("v4", result.get(0).get("field_1").toString());
+
+    for (int i = 0; i < 5; i++) {
+      client.delete(tableName, "scan" + i);
+    }
+    scanner.cleanup();
   }
 }
 